@@ -0,0 +1,437 @@
+package io.javago;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collector;
+
+import static io.javago.Go.go;
+
+/**
+ * The {@code Batching} class holds operators that group the messages of an {@link InputChannel} by size and time,
+ * for sinks such as database writes and network sends that work best with batches.
+ * <ul>
+ *     <li>{@link #batch(InputChannel, int, Duration)} sends a batch once it is full, or once its first message has
+ *     waited for the maximum delay.</li>
+ *     <li>{@link #tumbling(InputChannel, Duration, Collector)} aggregates the messages received in consecutive windows
+ *     of a fixed duration.</li>
+ *     <li>{@link #sliding(InputChannel, Duration, Duration, Collector)} aggregates the messages received in windows of
+ *     a fixed duration that start at a fixed interval, so that consecutive windows overlap.</li>
+ * </ul>
+ * Each operator receives from its input channel on its own goroutine and sends to an output channel with a capacity
+ * of one, so that a slow consumer makes the messages pile up in the input channel. The goroutine receives every
+ * message available at once with {@link InputChannel#drainTo(Collection, int)}, so a burst is added to a batch in a
+ * single pass.
+ * <p>
+ * Deadlines are kept by the shared delay scheduler of {@link CompletableFuture}, with at most one pending timer per
+ * operator, rather than by a thread per operator or per wait. When a deadline passes while the goroutine waits for
+ * the input channel, the timer interrupts it so that it sends what it has.
+ * <p>
+ * Once the input channel is closed and empty, the operator sends what it has and closes its output channel. Closing
+ * the output channel stops the operator right away, even while it waits for the input channel, and it then leaves the
+ * input channel as it is. Interrupting the goroutine of
+ * an operator other than through its timer also makes it send what it has and close its output channel.
+ */
+public final class Batching {
+
+	private Batching() {}
+
+	/**
+	 * Groups the messages of a channel into batches of at most the specified size. A batch is sent once it is full,
+	 * once its first message was received the maximum delay ago, or once the input channel is closed and empty.
+	 *
+	 * @param <T> the type of messages handled by the input channel
+	 * @param in the channel to receive messages from
+	 * @param maxSize the maximum amount of messages in a batch
+	 * @param maxDelay the maximum time the first message of a batch waits before the batch is sent
+	 * @return the channel the batches are sent to
+	 * @throws IllegalArgumentException if maxSize is less than or equal to 0, or maxDelay is negative
+	 */
+	public static <T> InputChannel<List<T>> batch(InputChannel<T> in, int maxSize, Duration maxDelay) {
+		Objects.requireNonNull(in);
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize must be greater than 0");
+		}
+		if (maxDelay.isNegative()) {
+			throw new IllegalArgumentException("maxDelay must not be negative");
+		}
+		Batcher<T> batcher = new Batcher<>(in, maxSize, maxDelay.toNanos());
+		go(batcher);
+		return batcher.out;
+	}
+
+	/**
+	 * Aggregates the messages of a channel received in consecutive windows of the specified duration, starting now.
+	 * The result of a window is sent once the window ends, unless no message was received in it.
+	 *
+	 * @param <T> the type of messages handled by the input channel
+	 * @param <A> the type of the accumulator of the collector
+	 * @param <R> the type of the result of a window
+	 * @param in the channel to receive messages from
+	 * @param size the duration of a window
+	 * @param collector the collector aggregating the messages of a window
+	 * @return the channel the results of the windows are sent to
+	 * @throws IllegalArgumentException if size is not positive
+	 */
+	public static <T, A, R> InputChannel<R> tumbling(
+		InputChannel<T> in,
+		Duration size,
+		Collector<? super T, A, R> collector
+	) {
+		return sliding(in, size, size, collector);
+	}
+
+	/**
+	 * Aggregates the messages of a channel received in windows of the specified duration, a new one starting every
+	 * slide from now on. The result of a window is sent once the window ends, unless no message was received in it,
+	 * so a message is aggregated into {@code size / slide} consecutive results.
+	 *
+	 * @param <T> the type of messages handled by the input channel
+	 * @param <A> the type of the accumulator of the collector
+	 * @param <R> the type of the result of a window
+	 * @param in the channel to receive messages from
+	 * @param size the duration of a window
+	 * @param slide the interval between the ends of consecutive windows, which size must be a multiple of
+	 * @param collector the collector aggregating the messages of a window
+	 * @return the channel the results of the windows are sent to
+	 * @throws IllegalArgumentException if size or slide is not positive, or size is not a multiple of slide
+	 */
+	public static <T, A, R> InputChannel<R> sliding(
+		InputChannel<T> in,
+		Duration size,
+		Duration slide,
+		Collector<? super T, A, R> collector
+	) {
+		Objects.requireNonNull(in);
+		Objects.requireNonNull(collector);
+		if (!size.isPositive() || !slide.isPositive()) {
+			throw new IllegalArgumentException("size and slide must be positive");
+		}
+		if (size.toNanos() % slide.toNanos() != 0) {
+			throw new IllegalArgumentException("size must be a multiple of slide");
+		}
+		Windower<T, A, R> windower = new Windower<>(
+			in,
+			(int) (size.toNanos() / slide.toNanos()),
+			slide.toNanos(),
+			collector
+		);
+		go(windower);
+		return windower.out;
+	}
+
+	/**
+	 * The {@code Stage} class receives from the input channel of an operator on its own goroutine, waking it up at
+	 * the current deadline through a shared timer, or as soon as its output channel is closed through a listener of
+	 * the output channel.
+	 *
+	 * @param <T> the type of messages handled by the input channel
+	 * @param <R> the type of messages sent to the output channel
+	 */
+	private abstract static class Stage<T, R> implements Runnable {
+
+		final InputChannel<T> in;
+		final BufferedQueueChannel<R> out = new BufferedQueueChannel<>(1);
+		private Thread runner;
+		private long deadline = 0;
+		private boolean waiting = false;
+		private boolean timerPending = false;
+		private boolean woken = false;
+		private boolean stopped = false;
+
+		/**
+		 * Constructs a {@code Stage} receiving from the specified channel.
+		 *
+		 * @param in the channel to receive messages from
+		 */
+		Stage(InputChannel<T> in) {
+			this.in = in;
+			out.addListener(this::stop);
+		}
+
+		/**
+		 * Runs the operator, then closes its output channel.
+		 */
+		@Override
+		public final void run() {
+			runner = Thread.currentThread();
+			try {
+				process();
+			} catch (IllegalStateException e) {
+				if (!out.isClosed()) {
+					throw e;
+				}
+				// Otherwise the output channel was closed by its consumer.
+			} finally {
+				clearDeadline();
+				out.close();
+			}
+		}
+
+		/**
+		 * Receives from the input channel and sends to the output channel until the input channel is closed and
+		 * empty, or the output channel is closed.
+		 *
+		 * @throws IllegalStateException if the output channel is closed
+		 */
+		abstract void process();
+
+		/**
+		 * Sets the deadline at which {@link #drain(Collection, int)} returns, scheduling the timer if none is pending.
+		 * Deadlines must not decrease, except when the deadline is cleared.
+		 *
+		 * @param deadline the {@link System#nanoTime()} at which to wake up
+		 */
+		final synchronized void setDeadline(long deadline) {
+			this.deadline = deadline == 0 ? 1 : deadline;
+			if (!timerPending) {
+				schedule(this.deadline - System.nanoTime());
+			}
+		}
+
+		/**
+		 * Clears the deadline, so that {@link #drain(Collection, int)} waits for messages without a deadline.
+		 */
+		final synchronized void clearDeadline() {
+			deadline = 0;
+		}
+
+		/**
+		 * Waits until the input channel has messages, is closed and empty, or the deadline passes, then receives up
+		 * to the specified amount of messages without waiting any further.
+		 * The interrupt delivered by the timer or by closing the output channel is cleared, but any other interrupt of
+		 * the goroutine is kept and stops the operator as if the input channel were closed and empty.
+		 *
+		 * @param c the collection to add the received messages to
+		 * @param maxMessages the maximum amount of messages to receive
+		 * @return the amount of messages received, or {@code -1} if the input channel is closed and empty, the output
+		 * channel is closed, or the goroutine was interrupted
+		 */
+		final int drain(Collection<? super T> c, int maxMessages) {
+			synchronized (this) {
+				if (stopped) {
+					return -1;
+				}
+				if (deadline != 0 && deadline - System.nanoTime() <= 0) {
+					return 0;
+				}
+				waiting = true;
+			}
+			int received;
+			try {
+				received = in.drainTo(c, maxMessages);
+			} finally {
+				synchronized (this) {
+					waiting = false;
+					if (woken) {
+						// The timer only interrupts while holding the lock, so this clears the interrupt it delivered.
+						woken = false;
+						Thread.interrupted();
+					}
+				}
+			}
+			synchronized (this) {
+				if (stopped) {
+					return -1;
+				}
+			}
+			if (Thread.currentThread().isInterrupted()) {
+				return -1;
+			}
+			return received == 0 && in.isClosed() && in.isEmpty() ? -1 : received;
+		}
+
+		/**
+		 * Checks if the deadline has passed.
+		 *
+		 * @return {@code true} if there is a deadline and it has passed, {@code false} otherwise
+		 */
+		final synchronized boolean expired() {
+			return deadline != 0 && deadline - System.nanoTime() <= 0;
+		}
+
+		/**
+		 * Schedules the timer after the specified delay. Must be called while holding the stage's lock.
+		 *
+		 * @param delayNanos the delay in nanoseconds
+		 */
+		private void schedule(long delayNanos) {
+			timerPending = true;
+			CompletableFuture.delayedExecutor(Math.max(0, delayNanos), TimeUnit.NANOSECONDS, Runnable::run)
+				.execute(this::fire);
+		}
+
+		/**
+		 * Called by the output channel while it is locked whenever a message is sent to it or it is closed: once it is
+		 * closed, stops the operator, waking the goroutine up if it is waiting for the input channel.
+		 */
+		private synchronized void stop() {
+			if (stopped || !out.isClosed()) {
+				return;
+			}
+			stopped = true;
+			if (waiting && !runner.isInterrupted()) {
+				woken = true;
+				runner.interrupt();
+			}
+		}
+
+		/**
+		 * Called by the timer: reschedules it if the deadline was pushed back since it was scheduled, or wakes the
+		 * goroutine up if it is waiting for the input channel. A goroutine that is already interrupted is left as it
+		 * is, so that {@link #drain(Collection, int)} only clears the interrupts delivered by the timer.
+		 */
+		private synchronized void fire() {
+			timerPending = false;
+			if (deadline == 0) {
+				return;
+			}
+			long remaining = deadline - System.nanoTime();
+			if (remaining > 0) {
+				schedule(remaining);
+			} else if (waiting && !runner.isInterrupted()) {
+				woken = true;
+				runner.interrupt();
+			}
+		}
+	}
+
+	/**
+	 * The {@code Batcher} class implements {@link #batch(InputChannel, int, Duration)}.
+	 *
+	 * @param <T> the type of messages handled by the input channel
+	 */
+	private static final class Batcher<T> extends Stage<T, List<T>> {
+
+		private final int maxSize;
+		private final long maxDelayNanos;
+
+		/**
+		 * Constructs a {@code Batcher}.
+		 *
+		 * @param in the channel to receive messages from
+		 * @param maxSize the maximum amount of messages in a batch
+		 * @param maxDelayNanos the maximum time in nanoseconds the first message of a batch waits
+		 */
+		Batcher(InputChannel<T> in, int maxSize, long maxDelayNanos) {
+			super(in);
+			this.maxSize = maxSize;
+			this.maxDelayNanos = maxDelayNanos;
+		}
+
+		/**
+		 * Opens a batch with the first message received, fills it until it is full or its deadline passes, then
+		 * sends it.
+		 */
+		@Override
+		void process() {
+			while (true) {
+				List<T> batch = new ArrayList<>(Math.min(maxSize, BufferedQueueChannel.PREALLOCATED_CAPACITY));
+				if (drain(batch, maxSize) < 0) {
+					return;
+				}
+				if (batch.isEmpty()) {
+					continue;
+				}
+				setDeadline(System.nanoTime() + maxDelayNanos);
+				boolean ended = false;
+				while (batch.size() < maxSize && !expired()) {
+					if (drain(batch, maxSize - batch.size()) < 0) {
+						ended = true;
+						break;
+					}
+				}
+				clearDeadline();
+				out.send(batch);
+				if (ended) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * The {@code Windower} class implements {@link #sliding(InputChannel, Duration, Duration, Collector)}. Messages
+	 * are kept in panes of one slide each, and the result of a window is collected from the messages of its last
+	 * panes, so that no accumulator is shared between windows.
+	 *
+	 * @param <T> the type of messages handled by the input channel
+	 * @param <A> the type of the accumulator of the collector
+	 * @param <R> the type of the result of a window
+	 */
+	private static final class Windower<T, A, R> extends Stage<T, R> {
+
+		private static final int MAX_DRAIN = 1024;
+
+		private final int panes;
+		private final long slideNanos;
+		private final Collector<? super T, A, R> collector;
+		private final Deque<List<T>> window = new ArrayDeque<>();
+
+		/**
+		 * Constructs a {@code Windower}.
+		 *
+		 * @param in the channel to receive messages from
+		 * @param panes the amount of panes in a window
+		 * @param slideNanos the duration in nanoseconds of a pane
+		 * @param collector the collector aggregating the messages of a window
+		 */
+		Windower(InputChannel<T> in, int panes, long slideNanos, Collector<? super T, A, R> collector) {
+			super(in);
+			this.panes = panes;
+			this.slideNanos = slideNanos;
+			this.collector = collector;
+		}
+
+		/**
+		 * Adds the received messages to the current pane, and closes the pane at the end of each slide, sending the
+		 * result of the window it ends.
+		 */
+		@Override
+		void process() {
+			long end = System.nanoTime() + slideNanos;
+			List<T> pane = new ArrayList<>();
+			while (true) {
+				setDeadline(end);
+				if (drain(pane, MAX_DRAIN) < 0) {
+					close(pane);
+					return;
+				}
+				while (end - System.nanoTime() <= 0) {
+					close(pane);
+					pane = new ArrayList<>();
+					end += slideNanos;
+				}
+			}
+		}
+
+		/**
+		 * Closes a pane and sends the result of the window it ends, unless the window has no message.
+		 *
+		 * @param pane the pane to close
+		 */
+		private void close(List<T> pane) {
+			window.addLast(pane);
+			if (window.size() > panes) {
+				window.removeFirst();
+			}
+			A accumulator = collector.supplier().get();
+			boolean empty = true;
+			for (List<T> p : window) {
+				for (T message : p) {
+					collector.accumulator().accept(accumulator, message);
+					empty = false;
+				}
+			}
+			if (!empty) {
+				out.send(collector.finisher().apply(accumulator));
+			}
+		}
+	}
+}
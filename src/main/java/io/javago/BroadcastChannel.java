@@ -0,0 +1,473 @@
+package io.javago;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The {@code BroadcastChannel} class is a one-to-many channel that delivers every message sent to it to each of its
+ * subscribers.
+ * Messages are written once into a single preallocated ring, and every {@link Subscriber} reads the ring through its
+ * own cursor, so publishing a message costs the same regardless of the amount of subscribers.
+ * A subscriber only receives the messages sent after it subscribed.
+ * <p>
+ * When the ring is full, the {@link Policy} of the channel decides whether senders wait for the slowest subscriber
+ * ({@link Policy#BLOCK}) or whether lagging subscribers skip the oldest messages ({@link Policy#DROP}).
+ * Subscribers are {@link InputChannel}s and can therefore be iterated over and used in a {@link Selector}.
+ *
+ * @param <T> the type of messages handled by the channel
+ */
+public class BroadcastChannel<T> implements OutputChannel<T> {
+
+	/**
+	 * The {@code Policy} enum defines what happens when a message is sent to a {@link BroadcastChannel} whose ring is
+	 * full.
+	 */
+	public enum Policy {
+
+		/**
+		 * Senders wait until the slowest subscriber has received the oldest message in the ring.
+		 */
+		BLOCK,
+
+		/**
+		 * Senders never wait, and subscribers that fall more than the capacity behind skip the oldest messages.
+		 */
+		DROP
+	}
+
+	private final AtomicReferenceArray<T> ring;
+	private final int capacity;
+	private final Policy policy;
+	private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+	private volatile long head = 0;
+	private volatile boolean closed = false;
+	private volatile int waitingSenders = 0;
+	private int waitingReceivers = 0;
+	private long gate = 0;
+
+	/**
+	 * Constructs a {@code BroadcastChannel} with a capacity of 1 and the {@link Policy#BLOCK} policy.
+	 */
+	public BroadcastChannel() {
+		this(1);
+	}
+
+	/**
+	 * Constructs a {@code BroadcastChannel} with the specified capacity and the {@link Policy#BLOCK} policy.
+	 *
+	 * @param capacity the maximum amount of messages a subscriber can fall behind
+	 * @throws IllegalArgumentException if capacity is less than or equal to 0
+	 */
+	public BroadcastChannel(int capacity) {
+		this(capacity, Policy.BLOCK);
+	}
+
+	/**
+	 * Constructs a {@code BroadcastChannel} with the specified capacity and policy.
+	 *
+	 * @param capacity the maximum amount of messages a subscriber can fall behind
+	 * @param policy what happens when a message is sent while a subscriber is the capacity behind
+	 * @throws IllegalArgumentException if capacity is less than or equal to 0
+	 */
+	public BroadcastChannel(int capacity, Policy policy) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be greater than 0");
+		}
+		this.capacity = capacity;
+		this.policy = policy;
+		// A dropping ring keeps one spare slot so that the slot being overwritten is never one a subscriber may read.
+		this.ring = new AtomicReferenceArray<>(policy == Policy.DROP ? capacity + 1 : capacity);
+	}
+
+	/**
+	 * Creates a new subscriber that receives every message sent to the channel from now on.
+	 *
+	 * @return a new {@code Subscriber}
+	 */
+	public synchronized Subscriber subscribe() {
+		Subscriber subscriber = new Subscriber(head);
+		subscribers.add(subscriber);
+		return subscriber;
+	}
+
+	/**
+	 * Sends a message to every subscriber. If the policy is {@link Policy#BLOCK} and the slowest subscriber is the
+	 * capacity behind, this method blocks until it catches up. Returns immediately if it is interrupted while blocking.
+	 *
+	 * @param message the message to be sent
+	 * @throws IllegalStateException if the channel is closed
+	 * @throws NullPointerException if the message is null
+	 */
+	@Override
+	public synchronized void send(T message) {
+		Objects.requireNonNull(message);
+		if (!awaitSpace()) {
+			if (closed) {
+				throw new IllegalStateException("Channel is closed");
+			}
+			return;
+		}
+		long sequence = head;
+		ring.set(index(sequence), message);
+		head = sequence + 1;
+		if (waitingReceivers > 0) {
+			this.notifyAll();
+		}
+	}
+
+	/**
+	 * Checks if the channel is closed.
+	 *
+	 * @return {@code true} if the channel is closed, {@code false} otherwise
+	 */
+	@Override
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Closes the channel.
+	 * Once closed, no more messages can be sent, but subscribers can still receive the messages they have not received
+	 * yet. Closing an already closed channel has no effect.
+	 */
+	@Override
+	public synchronized void close() {
+		if (!closed) {
+			closed = true;
+			this.notifyAll();
+		}
+	}
+
+	/**
+	 * Checks if every subscriber has received every message.
+	 *
+	 * @return {@code true} if no subscriber has a message waiting, {@code false} otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		return minCursor() >= head;
+	}
+
+	/**
+	 * Checks if the channel is full. A channel with the {@link Policy#DROP} policy is never full.
+	 *
+	 * @return {@code true} if sending a message would block, {@code false} otherwise
+	 */
+	@Override
+	public boolean isFull() {
+		return policy == Policy.BLOCK && head - minCursor() >= capacity;
+	}
+
+	/**
+	 * Waits until the channel has space for another message or is closed. Returns immediately if it is interrupted
+	 * while blocking.
+	 *
+	 * @return {@code true} if the channel has space, {@code false} if the channel is closed
+	 */
+	@Override
+	public synchronized boolean hasSpace() {
+		return awaitSpace();
+	}
+
+	/**
+	 * Waits until at least one subscriber has a message waiting or the channel is closed. Returns immediately if it is
+	 * interrupted while blocking.
+	 *
+	 * @return {@code true} if a subscriber has a message waiting, {@code false} if the channel is closed and every
+	 * subscriber has received every message
+	 */
+	@Override
+	public synchronized boolean hasNext() {
+		waitingReceivers++;
+		try {
+			while (true) {
+				if (!isEmpty()) {
+					return true;
+				}
+				if (closed) {
+					return false;
+				}
+				this.wait();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			waitingReceivers--;
+		}
+	}
+
+	/**
+	 * Returns an iterator over the messages sent to the channel from now on, backed by a new subscriber.
+	 *
+	 * @return an {@code Iterator} over the messages of a new subscriber
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return subscribe().iterator();
+	}
+
+	/**
+	 * Waits until a message can be written to the ring without overwriting a message the slowest subscriber has not
+	 * received yet. Must be called while holding the channel's lock.
+	 *
+	 * @return {@code true} if a message can be written, {@code false} if the channel is closed or the thread was
+	 * interrupted
+	 */
+	private boolean awaitSpace() {
+		if (closed) {
+			return false;
+		}
+		if (policy == Policy.DROP || head - gate < capacity) {
+			return true;
+		}
+		waitingSenders++;
+		try {
+			while (head - (gate = minCursor()) >= capacity) {
+				if (closed) {
+					return false;
+				}
+				this.wait();
+			}
+			return !closed;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			waitingSenders--;
+		}
+	}
+
+	/**
+	 * Finds the cursor of the slowest subscriber.
+	 *
+	 * @return the smallest cursor of every subscriber, or the head of the ring if there are no subscribers
+	 */
+	private long minCursor() {
+		long min = head;
+		for (Subscriber subscriber : subscribers) {
+			min = Math.min(min, subscriber.cursor);
+		}
+		return min;
+	}
+
+	/**
+	 * Maps a sequence number to its slot in the ring.
+	 *
+	 * @param sequence the sequence number of a message
+	 * @return the index of the slot holding the message
+	 */
+	private int index(long sequence) {
+		return (int) (sequence % ring.length());
+	}
+
+	/**
+	 * The {@code Subscriber} class is the receiving end of a {@link BroadcastChannel}.
+	 * Each subscriber keeps its own cursor into the ring of the channel, and receiving a message only advances that
+	 * cursor. Closing a subscriber unsubscribes it without closing the channel.
+	 */
+	public class Subscriber implements InputChannel<T> {
+
+		private volatile long cursor;
+		private volatile boolean unsubscribed = false;
+		private long dropped = 0;
+
+		private Subscriber(long cursor) {
+			this.cursor = cursor;
+		}
+
+		/**
+		 * Receives the next message for this subscriber. If there is none, this method blocks until a message is sent.
+		 * Returns immediately if it is interrupted while blocking.
+		 *
+		 * @return the received message
+		 * @throws NoSuchElementException if the channel is closed and this subscriber has received every message, or
+		 * this subscriber is closed
+		 */
+		@Override
+		public synchronized T receive() {
+			while (true) {
+				T message = poll();
+				if (message != null) {
+					return message;
+				}
+				if (unsubscribed || (closed && cursor >= head)) {
+					throw new NoSuchElementException("Channel is closed and empty");
+				}
+				if (!awaitMessage()) {
+					return null;
+				}
+			}
+		}
+
+		/**
+		 * Returns the amount of messages this subscriber skipped because it fell more than the capacity behind.
+		 * Always zero for a channel with the {@link Policy#BLOCK} policy.
+		 *
+		 * @return the amount of dropped messages
+		 */
+		public synchronized long dropped() {
+			return dropped;
+		}
+
+		/**
+		 * Checks if the channel or this subscriber is closed.
+		 *
+		 * @return {@code true} if the channel or this subscriber is closed, {@code false} otherwise
+		 */
+		@Override
+		public boolean isClosed() {
+			return closed || unsubscribed;
+		}
+
+		/**
+		 * Unsubscribes this subscriber from the channel. The channel itself stays open and stops waiting for this
+		 * subscriber. Closing an already closed subscriber has no effect.
+		 */
+		@Override
+		public void close() {
+			synchronized (BroadcastChannel.this) {
+				if (!unsubscribed) {
+					unsubscribed = true;
+					subscribers.remove(this);
+					BroadcastChannel.this.notifyAll();
+				}
+			}
+		}
+
+		/**
+		 * Checks if this subscriber has received every message.
+		 *
+		 * @return {@code true} if no message is waiting for this subscriber, {@code false} otherwise
+		 */
+		@Override
+		public boolean isEmpty() {
+			return unsubscribed || cursor >= head;
+		}
+
+		/**
+		 * Checks if this subscriber is the capacity behind.
+		 *
+		 * @return {@code true} if this subscriber is the capacity behind, {@code false} otherwise
+		 */
+		@Override
+		public boolean isFull() {
+			return !unsubscribed && head - cursor >= capacity;
+		}
+
+		/**
+		 * Waits until the channel has space for another message or is closed.
+		 *
+		 * @return {@code true} if the channel has space, {@code false} if the channel is closed
+		 */
+		@Override
+		public boolean hasSpace() {
+			return BroadcastChannel.this.hasSpace();
+		}
+
+		/**
+		 * Waits until this subscriber has another message or is closed. Returns immediately if it is interrupted while
+		 * blocking.
+		 *
+		 * @return {@code true} if there are more messages, {@code false} if the channel is closed and this subscriber has
+		 * received every message, or this subscriber is closed
+		 */
+		@Override
+		public boolean hasNext() {
+			while (true) {
+				if (unsubscribed) {
+					return false;
+				}
+				if (cursor < head) {
+					return true;
+				}
+				if (closed) {
+					return false;
+				}
+				if (!awaitMessage()) {
+					return false;
+				}
+			}
+		}
+
+		/**
+		 * Returns an iterator over the messages for this subscriber.
+		 *
+		 * @return an {@code Iterator} over the messages for this subscriber
+		 */
+		@Override
+		public Iterator<T> iterator() {
+			return new Iterator<>() {
+				@Override
+				public boolean hasNext() {
+					return Subscriber.this.hasNext();
+				}
+
+				@Override
+				public T next() {
+					return receive();
+				}
+			};
+		}
+
+		/**
+		 * Reads the next message for this subscriber from the ring without blocking or locking the channel.
+		 *
+		 * @return the next message, or {@code null} if there is none
+		 */
+		private T poll() {
+			while (true) {
+				if (unsubscribed) {
+					return null;
+				}
+				long c = cursor;
+				long h = head;
+				if (c >= h) {
+					return null;
+				}
+				if (policy == Policy.DROP && h - c > capacity) {
+					dropped += h - capacity - c;
+					c = h - capacity;
+				}
+				T message = ring.get(index(c));
+				if (policy == Policy.DROP && head - c >= ring.length()) {
+					// The slot was overwritten while it was being read.
+					continue;
+				}
+				cursor = c + 1;
+				if (waitingSenders > 0) {
+					synchronized (BroadcastChannel.this) {
+						BroadcastChannel.this.notifyAll();
+					}
+				}
+				return message;
+			}
+		}
+
+		/**
+		 * Waits until a message is sent to the channel or the channel or this subscriber is closed.
+		 *
+		 * @return {@code true} if it stopped waiting, {@code false} if the thread was interrupted
+		 */
+		private boolean awaitMessage() {
+			synchronized (BroadcastChannel.this) {
+				waitingReceivers++;
+				try {
+					while (cursor >= head && !closed && !unsubscribed) {
+						BroadcastChannel.this.wait();
+					}
+					return true;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				} finally {
+					waitingReceivers--;
+				}
+			}
+		}
+	}
+}
@@ -1,19 +1,68 @@
 package io.javago;
 
+import io.javago.runtime.TraceEvent;
+import io.javago.runtime.Tracer;
+import io.javago.runtime.Wait;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 
 /**
  * The {@code BufferedQueueChannel} class is an implementation of the {@link Channel} interface, providing a Go
  * {@code channel} backed by a Queue for passing messages between threads.
- * It supports both sending and receiving messages with a specified capacity.
+ * It supports both sending and receiving messages with a specified capacity, or without bound.
+ * A channel with a capacity of up to {@value #PREALLOCATED_CAPACITY} messages allocates its buffer up front. A larger
+ * or unbounded channel stores its messages in segments that are allocated as messages are sent and released as they
+ * are received, so its memory tracks the amount of messages in it and an idle channel holds no buffer at all.
+ * Besides blocking, messages can be sent and received asynchronously through {@link CompletableFuture}s. A pending
+ * asynchronous operation is kept as a small node in the channel rather than a blocked thread, and is completed by
+ * the thread whose operation made it possible.
+ * <p>
+ * A thread that must wait for the channel first waits as decided by the channel's {@link WaitStrategy}, watching
+ * the amount of messages and the closed state of the channel without locking it, and only then blocks on the
+ * channel's monitor.
+ * <p>
+ * Messages must not be {@code null}, which {@link #poll()} returns when the channel is empty. Every way of sending
+ * a message rejects {@code null} before touching the channel.
  *
  * @param <T> the type of messages handled by the channel
  */
-public class BufferedQueueChannel<T> implements Channel<T> {
+public class BufferedQueueChannel<T> implements Channel<T>, PollableChannel<T> {
+
+	/**
+	 * The capacity of an unbounded channel, to which sending never blocks.
+	 */
+	public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+	/**
+	 * The largest capacity for which the buffer of the channel is allocated up front.
+	 */
+	public static final int PREALLOCATED_CAPACITY = 64;
+
+	private static final VarHandle COUNT;
+
+	static {
+		try {
+			COUNT = MethodHandles.lookup().findVarHandle(BufferedQueueChannel.class, "count", int.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
 
 	private final Queue<T> channelQueue;
-	private boolean closed = false;
+	private volatile boolean closed = false;
 	private final int capacity;
+	private final WaitStrategy waitStrategy;
+	private int count = 0;
+	private List<Runnable> listeners;
+	private Deque<AsyncReceive<T>> asyncReceivers;
+	private Deque<AsyncSend<T>> asyncSenders;
+	private List<Runnable> completions;
+	private volatile boolean hasCompletions = false;
 
 	/**
 	 * Constructs a {@code BufferedQueueChannel} with a default capacity of 1.
@@ -25,15 +74,27 @@ public class BufferedQueueChannel<T> implements Channel<T> {
 	/**
 	 * Constructs a {@code BufferedQueueChannel} with the specified capacity.
 	 *
-	 * @param capacity the capacity of the channel
+	 * @param capacity the capacity of the channel, or {@link #UNBOUNDED}
 	 * @throws IllegalArgumentException if capacity is less than or equal to 0
 	 */
 	public BufferedQueueChannel(int capacity) {
+		this(capacity, WaitStrategy.blocking());
+	}
+
+	/**
+	 * Constructs a {@code BufferedQueueChannel} with the specified capacity and wait strategy.
+	 *
+	 * @param capacity the capacity of the channel, or {@link #UNBOUNDED}
+	 * @param waitStrategy how threads wait for the channel before blocking on it
+	 * @throws IllegalArgumentException if capacity is less than or equal to 0
+	 */
+	public BufferedQueueChannel(int capacity, WaitStrategy waitStrategy) {
 		if (capacity <= 0) {
 			throw new IllegalArgumentException("capacity must be greater than 0");
 		}
-		channelQueue = new ArrayDeque<>(capacity);
+		channelQueue = capacity <= PREALLOCATED_CAPACITY ? new ArrayDeque<>(capacity) : new SegmentedQueue<>();
 		this.capacity = capacity;
+		this.waitStrategy = Objects.requireNonNull(waitStrategy);
 	}
 
 	/**
@@ -42,26 +103,58 @@ public class BufferedQueueChannel<T> implements Channel<T> {
 	 *
 	 * @param message the message to be sent
 	 * @throws IllegalStateException if the channel is closed
+	 * @throws NullPointerException if the message is {@code null}
 	 */
 	@Override
-	public synchronized void send(T message) {
+	public void send(T message) {
+		Objects.requireNonNull(message);
+		if (waitStrategy != WaitStrategies.BLOCKING && !canSend()) {
+			await(this::canSend, "chan send");
+		}
+		if (!sendLocked(message, false)) {
+			Wait blocked = Wait.begin(this, "chan send");
+			try {
+				sendLocked(message, true);
+			} finally {
+				Wait.end(blocked);
+			}
+		}
+		runCompletions();
+	}
+
+	/**
+	 * Sends a message through the channel while holding the channel's lock. The caller records the wait with
+	 * {@link Wait} before calling this method to block, so that nothing but the channel is done under its lock.
+	 *
+	 * @param message the message to be sent
+	 * @param block whether to wait for space if the channel is full
+	 * @return {@code false} if the channel is full and {@code block} is {@code false}, {@code true} otherwise
+	 * @throws IllegalStateException if the channel is closed
+	 */
+	private synchronized boolean sendLocked(T message, boolean block) {
 		while (true) {
 			if (closed) {
 				throw new IllegalStateException("Channel is closed");
 			}
-			if (channelQueue.size() >= capacity) {
-				try {
-					this.wait();
-				} catch (InterruptedException e) {
-					Thread.currentThread().interrupt();
-					return;
-				}
-			} else {
+			if (channelQueue.size() < capacity) {
 				break;
 			}
+			if (!block) {
+				return false;
+			}
+			try {
+				this.wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return true;
+			}
 		}
-		channelQueue.add(message);
+		enqueue(message);
+		Tracer.record(TraceEvent.CHAN_SEND, this, message);
 		this.notifyAll();
+		fireListeners();
+		dispatch();
+		return true;
 	}
 
 	/**
@@ -72,37 +165,79 @@ public class BufferedQueueChannel<T> implements Channel<T> {
 	 * @throws NoSuchElementException if the channel is closed and empty
 	 */
 	@Override
-	public synchronized T receive() {
-		while (true) {
+	public T receive() {
+		if (waitStrategy != WaitStrategies.BLOCKING && !canReceive()) {
+			await(this::canReceive, "chan receive");
+		}
+		T message = receiveLocked(false);
+		if (message == null) {
+			Wait blocked = Wait.begin(this, "chan receive");
+			try {
+				message = receiveLocked(true);
+			} finally {
+				Wait.end(blocked);
+			}
+		}
+		runCompletions();
+		return message;
+	}
+
+	/**
+	 * Receives a message from the channel while holding the channel's lock. The caller records the wait with
+	 * {@link Wait} before calling this method to block, so that nothing but the channel is done under its lock.
+	 *
+	 * @param block whether to wait for a message if the channel is empty
+	 * @return the received message, or {@code null} if the channel is empty and {@code block} is {@code false} or the
+	 * thread was interrupted
+	 * @throws NoSuchElementException if the channel is closed and empty
+	 */
+	private synchronized T receiveLocked(boolean block) {
+		while (channelQueue.isEmpty()) {
 			if (closed) {
-				if (channelQueue.isEmpty()) {
-					throw new NoSuchElementException("Channel is closed and empty");
-				} else {
-					break;
-				}
-			} else if (channelQueue.isEmpty()) {
-				try {
-					this.wait();
-				} catch (InterruptedException e) {
-					Thread.currentThread().interrupt();
-					return null;
-				}
-			} else {
-				break;
+				throw new NoSuchElementException("Channel is closed and empty");
+			}
+			if (!block) {
+				return null;
+			}
+			try {
+				this.wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
 			}
 		}
-		T message = channelQueue.poll();
+		T message = dequeue();
+		Tracer.record(TraceEvent.CHAN_RECEIVE, this, message);
 		this.notifyAll();
+		dispatch();
 		return message;
 	}
 
+	/**
+	 * Returns the capacity of the channel.
+	 *
+	 * @return the maximum amount of messages the channel can hold, or {@link #UNBOUNDED}
+	 */
+	public int capacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the amount of messages currently in the channel.
+	 *
+	 * @return the amount of messages in the channel
+	 */
+	public int size() {
+		return (int) COUNT.getOpaque(this);
+	}
+
 	/**
 	 * Checks if the channel is closed.
 	 *
 	 * @return {@code true} if the channel is closed, {@code false} otherwise
 	 */
 	@Override
-	public synchronized boolean isClosed() {
+	public boolean isClosed() {
 		return closed;
 	}
 
@@ -132,10 +267,252 @@ public class BufferedQueueChannel<T> implements Channel<T> {
 	 * Closing an already closed channel has no effect.
 	 */
 	@Override
-	public synchronized void close() {
-		if (!closed) {
-			closed = true;
+	public void close() {
+		synchronized (this) {
+			if (!closed) {
+				closed = true;
+				Tracer.record(TraceEvent.CHAN_CLOSE, this, 0);
+				this.notifyAll();
+				fireListeners();
+				dispatch();
+			}
+		}
+		runCompletions();
+	}
+
+	/**
+	 * Waits until the channel has another message or is closed, then receives up to the specified amount of messages
+	 * without waiting any further and adds them to the collection. The channel is locked once for the whole batch.
+	 * Returns immediately if it is interrupted while blocking.
+	 *
+	 * @param c the collection to add the received messages to
+	 * @param maxMessages the maximum amount of messages to receive
+	 * @return the amount of messages received, which is {@code 0} only if the channel is both closed and empty or the
+	 * thread was interrupted while waiting
+	 */
+	@Override
+	public int drainTo(Collection<? super T> c, int maxMessages) {
+		if (maxMessages <= 0) {
+			return 0;
+		}
+		int received = 0;
+		while (received == 0) {
+			if (!hasNext()) {
+				return 0;
+			}
+			synchronized (this) {
+				while (received < maxMessages && !channelQueue.isEmpty()) {
+					T message = dequeue();
+					Tracer.record(TraceEvent.CHAN_RECEIVE, this, message);
+					c.add(message);
+					received++;
+				}
+				if (received > 0) {
+					this.notifyAll();
+					dispatch();
+				}
+			}
+		}
+		runCompletions();
+		return received;
+	}
+
+	/**
+	 * Receives a message from the channel without blocking.
+	 *
+	 * @return the received message, or {@code null} if the channel is empty
+	 */
+	@Override
+	public T poll() {
+		return selectPoll(null);
+	}
+
+	/**
+	 * Receives a message from the channel without blocking on behalf of a case of a {@link Selector}.
+	 * The claim is only won if there is a message to take, so a case that cannot be committed leaves it unclaimed.
+	 *
+	 * @param claim the flag shared by every case of the selector, or {@code null} if there is no selector
+	 * @return the received message, or {@code null} if the channel is empty or the claim was lost
+	 */
+	T selectPoll(AtomicBoolean claim) {
+		T message;
+		synchronized (this) {
+			if (channelQueue.isEmpty() || claim != null && !claim.compareAndSet(false, true)) {
+				return null;
+			}
+			message = dequeue();
+			Tracer.record(TraceEvent.CHAN_RECEIVE, this, message);
+			this.notifyAll();
+			dispatch();
+		}
+		runCompletions();
+		return message;
+	}
+
+	/**
+	 * Sends a message through the channel without blocking on behalf of a case of a {@link Selector}.
+	 * The claim is only won if the channel is open and has space, so a case that cannot be committed leaves it
+	 * unclaimed.
+	 *
+	 * @param message the message to be sent
+	 * @param claim the flag shared by every case of the selector
+	 * @return {@code true} if the message was sent, {@code false} if the channel is closed or full or the claim was
+	 * lost
+	 * @throws NullPointerException if the message is {@code null}
+	 */
+	boolean selectOffer(T message, AtomicBoolean claim) {
+		Objects.requireNonNull(message);
+		synchronized (this) {
+			if (closed || channelQueue.size() >= capacity || !claim.compareAndSet(false, true)) {
+				return false;
+			}
+			enqueue(message);
+			Tracer.record(TraceEvent.CHAN_SEND, this, message);
 			this.notifyAll();
+			fireListeners();
+			dispatch();
+		}
+		runCompletions();
+		return true;
+	}
+
+	/**
+	 * Receives a message from the channel asynchronously. If the channel is empty, the returned future is completed
+	 * by the thread that sends the next message, and no thread waits in the meantime.
+	 * Cancelling the returned future withdraws the pending receive.
+	 *
+	 * @return a future completed with the received message, or completed exceptionally with a
+	 * {@link NoSuchElementException} if the channel is closed and empty
+	 */
+	@Override
+	public CompletableFuture<T> receiveAsync() {
+		return selectReceive(null);
+	}
+
+	/**
+	 * Sends a message through the channel asynchronously. If the channel is full, the message is kept with the
+	 * pending send and the returned future is completed by the thread that makes space for it, and no thread waits in
+	 * the meantime. Cancelling the returned future withdraws the pending send.
+	 *
+	 * @param message the message to be sent
+	 * @return a future completed once the message is in the channel, or completed exceptionally with an
+	 * {@link IllegalStateException} if the channel is closed
+	 * @throws NullPointerException if the message is {@code null}
+	 */
+	@Override
+	public CompletableFuture<Void> sendAsync(T message) {
+		return selectSend(message, null);
+	}
+
+	/**
+	 * Receives a message from the channel asynchronously on behalf of a case of an asynchronous {@link Selector}.
+	 * The message is only taken once the claim has been won, so a case that loses does not consume a message.
+	 *
+	 * @param claim the flag shared by every case of the selector, or {@code null} if there is no selector
+	 * @return a future completed with the received message if the claim is won
+	 */
+	CompletableFuture<T> selectReceive(AtomicBoolean claim) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		synchronized (this) {
+			if (!channelQueue.isEmpty()) {
+				if (claim(future, claim)) {
+					T message = dequeue();
+					Tracer.record(TraceEvent.CHAN_RECEIVE, this, message);
+					this.notifyAll();
+					dispatch();
+					addCompletion(() -> future.complete(message));
+				}
+			} else if (closed) {
+				if (claim(future, claim)) {
+					addCompletion(() -> future.completeExceptionally(
+						new NoSuchElementException("Channel is closed and empty")
+					));
+				}
+			} else {
+				AsyncReceive<T> pending = new AsyncReceive<>(future, claim);
+				if (asyncReceivers == null) {
+					asyncReceivers = new ArrayDeque<>(1);
+				}
+				asyncReceivers.add(pending);
+				future.whenComplete((m, e) -> {
+					if (future.isCancelled()) {
+						withdraw(pending);
+					}
+				});
+			}
+		}
+		runCompletions();
+		return future;
+	}
+
+	/**
+	 * Sends a message through the channel asynchronously on behalf of a case of an asynchronous {@link Selector}.
+	 * The message is only added once the claim has been won, so a case that loses does not send its message.
+	 * Like a blocking send case, a send case on a closed channel never wins.
+	 *
+	 * @param message the message to be sent
+	 * @param claim the flag shared by every case of the selector, or {@code null} if there is no selector
+	 * @return a future completed once the message is in the channel if the claim is won
+	 * @throws NullPointerException if the message is {@code null}
+	 */
+	CompletableFuture<Void> selectSend(T message, AtomicBoolean claim) {
+		Objects.requireNonNull(message);
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		synchronized (this) {
+			if (closed) {
+				if (claim == null) {
+					addCompletion(() -> future.completeExceptionally(new IllegalStateException("Channel is closed")));
+				}
+			} else if (channelQueue.size() < capacity) {
+				if (claim(future, claim)) {
+					enqueue(message);
+					Tracer.record(TraceEvent.CHAN_SEND, this, message);
+					this.notifyAll();
+					fireListeners();
+					dispatch();
+					addCompletion(() -> future.complete(null));
+				}
+			} else {
+				AsyncSend<T> pending = new AsyncSend<>(message, future, claim);
+				if (asyncSenders == null) {
+					asyncSenders = new ArrayDeque<>(1);
+				}
+				asyncSenders.add(pending);
+				future.whenComplete((v, e) -> {
+					if (future.isCancelled()) {
+						withdraw(pending);
+					}
+				});
+			}
+		}
+		runCompletions();
+		return future;
+	}
+
+	/**
+	 * Registers a listener that is called whenever a message is sent to the channel or the channel is closed.
+	 * The listener is called while the channel is locked, so it must not block or operate on the channel.
+	 *
+	 * @param listener the listener to register
+	 */
+	@Override
+	public synchronized void addListener(Runnable listener) {
+		List<Runnable> updated = listeners == null ? new ArrayList<>(1) : new ArrayList<>(listeners);
+		updated.add(listener);
+		listeners = updated;
+	}
+
+	/**
+	 * Removes a listener registered with {@link #addListener(Runnable)}.
+	 *
+	 * @param listener the listener to remove
+	 */
+	@Override
+	public synchronized void removeListener(Runnable listener) {
+		if (listeners != null) {
+			List<Runnable> updated = new ArrayList<>(listeners);
+			updated.remove(listener);
+			listeners = updated.isEmpty() ? null : updated;
 		}
 	}
 
@@ -156,7 +533,31 @@ public class BufferedQueueChannel<T> implements Channel<T> {
 	 * @return {@code true} if the channel has space, {@code false} if the channel is closed
 	 */
 	@Override
-	public synchronized boolean hasSpace() {
+	public boolean hasSpace() {
+		if (waitStrategy != WaitStrategies.BLOCKING && !canSend()) {
+			await(this::canSend, "chan send");
+		}
+		synchronized (this) {
+			if (closed || channelQueue.size() < capacity) {
+				return !closed;
+			}
+		}
+		Wait blocked = Wait.begin(this, "chan send");
+		try {
+			return hasSpaceLocked();
+		} finally {
+			Wait.end(blocked);
+		}
+	}
+
+	/**
+	 * Waits until the channel has space for another message or is closed while holding the channel's lock. The caller
+	 * records the wait with {@link Wait} before calling this method, so that nothing but the channel is done under
+	 * its lock.
+	 *
+	 * @return {@code true} if the channel has space, {@code false} if the channel is closed
+	 */
+	private synchronized boolean hasSpaceLocked() {
 		while (true) {
 			if (closed) {
 				return false;
@@ -180,7 +581,30 @@ public class BufferedQueueChannel<T> implements Channel<T> {
 	 * @return {@code true} if there are more messages, {@code false} if the channel is empty and closed
 	 */
 	@Override
-	public synchronized boolean hasNext() {
+	public boolean hasNext() {
+		if (waitStrategy != WaitStrategies.BLOCKING && !canReceive()) {
+			await(this::canReceive, "chan receive");
+		}
+		synchronized (this) {
+			if (closed || !channelQueue.isEmpty()) {
+				return !channelQueue.isEmpty();
+			}
+		}
+		Wait blocked = Wait.begin(this, "chan receive");
+		try {
+			return hasNextLocked();
+		} finally {
+			Wait.end(blocked);
+		}
+	}
+
+	/**
+	 * Waits until the channel has another message or is closed while holding the channel's lock. The caller records
+	 * the wait with {@link Wait} before calling this method, so that nothing but the channel is done under its lock.
+	 *
+	 * @return {@code true} if there are more messages, {@code false} if the channel is empty and closed
+	 */
+	private synchronized boolean hasNextLocked() {
 		while (true) {
 			if (!channelQueue.isEmpty()) {
 				return true;
@@ -197,6 +621,231 @@ public class BufferedQueueChannel<T> implements Channel<T> {
 		}
 	}
 
+	/**
+	 * Checks without locking the channel whether a send may succeed without blocking.
+	 *
+	 * @return {@code true} if the channel had space or was closed when checked
+	 */
+	private boolean canSend() {
+		return closed || (int) COUNT.getOpaque(this) < capacity;
+	}
+
+	/**
+	 * Checks without locking the channel whether a receive may succeed without blocking.
+	 *
+	 * @return {@code true} if the channel had a message or was closed when checked
+	 */
+	private boolean canReceive() {
+		return closed || (int) COUNT.getOpaque(this) > 0;
+	}
+
+	/**
+	 * Waits for the channel as decided by its wait strategy. Must be called without holding the channel's lock. The
+	 * caller then checks the channel again under the lock, and blocks if another thread got there first.
+	 *
+	 * @param ready checks without locking the channel whether it may be ready
+	 * @param operation the operation the thread waits in
+	 */
+	private void await(BooleanSupplier ready, String operation) {
+		Wait spinning = Wait.begin(this, operation);
+		try {
+			waitStrategy.await(ready);
+		} finally {
+			Wait.end(spinning);
+		}
+	}
+
+	/**
+	 * Adds a message to the queue and publishes the new amount of messages to the threads waiting without the lock.
+	 * Must be called while holding the channel's lock.
+	 *
+	 * @param message the message to add
+	 */
+	private void enqueue(T message) {
+		channelQueue.add(message);
+		COUNT.setOpaque(this, count + 1);
+	}
+
+	/**
+	 * Removes the oldest message from the queue and publishes the new amount of messages to the threads waiting
+	 * without the lock. Must be called while holding the channel's lock and with the queue not empty.
+	 *
+	 * @return the removed message
+	 */
+	private T dequeue() {
+		T message = channelQueue.poll();
+		COUNT.setOpaque(this, count - 1);
+		return message;
+	}
+
+	/**
+	 * Hands messages to pending asynchronous receivers and moves the messages of pending asynchronous senders into the
+	 * channel for as long as either is possible, then fails the pending operations that can no longer succeed because
+	 * the channel is closed. The futures are completed later by {@link #runCompletions()}, once the lock is released.
+	 * Must be called while holding the channel's lock.
+	 */
+	private void dispatch() {
+		if (asyncReceivers == null && asyncSenders == null) {
+			return;
+		}
+		boolean received = false;
+		boolean sent = false;
+		boolean progress = true;
+		while (progress) {
+			progress = false;
+			while (asyncReceivers != null && !asyncReceivers.isEmpty() && !channelQueue.isEmpty()) {
+				AsyncReceive<T> pending = asyncReceivers.poll();
+				if (claim(pending.future(), pending.claim())) {
+					T message = dequeue();
+					Tracer.record(TraceEvent.CHAN_RECEIVE, this, message);
+					addCompletion(() -> pending.future().complete(message));
+					received = true;
+					progress = true;
+				}
+			}
+			while (asyncSenders != null && !asyncSenders.isEmpty() && channelQueue.size() < capacity) {
+				AsyncSend<T> pending = asyncSenders.poll();
+				if (claim(pending.future(), pending.claim())) {
+					enqueue(pending.message());
+					Tracer.record(TraceEvent.CHAN_SEND, this, pending.message());
+					addCompletion(() -> pending.future().complete(null));
+					sent = true;
+					progress = true;
+				}
+			}
+		}
+		if (closed) {
+			while (asyncSenders != null && !asyncSenders.isEmpty()) {
+				AsyncSend<T> pending = asyncSenders.poll();
+				if (pending.claim() == null && !pending.future().isDone()) {
+					addCompletion(() -> pending.future().completeExceptionally(
+						new IllegalStateException("Channel is closed")
+					));
+				}
+			}
+			while (channelQueue.isEmpty() && asyncReceivers != null && !asyncReceivers.isEmpty()) {
+				AsyncReceive<T> pending = asyncReceivers.poll();
+				if (claim(pending.future(), pending.claim())) {
+					addCompletion(() -> pending.future().completeExceptionally(
+						new NoSuchElementException("Channel is closed and empty")
+					));
+				}
+			}
+		}
+		if (asyncReceivers != null && asyncReceivers.isEmpty()) {
+			asyncReceivers = null;
+		}
+		if (asyncSenders != null && asyncSenders.isEmpty()) {
+			asyncSenders = null;
+		}
+		if (received || sent) {
+			this.notifyAll();
+		}
+		if (sent) {
+			fireListeners();
+		}
+	}
+
+	/**
+	 * Claims a pending asynchronous operation so that it is completed exactly once.
+	 *
+	 * @param future the future of the operation
+	 * @param claim the flag shared by the cases of a selector, or {@code null} if there is no selector
+	 * @return {@code true} if the operation may be completed, {@code false} if it was cancelled or its selector chose
+	 * another case
+	 */
+	private static boolean claim(CompletableFuture<?> future, AtomicBoolean claim) {
+		return !future.isDone() && (claim == null || claim.compareAndSet(false, true));
+	}
+
+	/**
+	 * Records a future completion to run once the channel's lock is released. Must be called while holding the
+	 * channel's lock.
+	 *
+	 * @param completion the completion to run
+	 */
+	private void addCompletion(Runnable completion) {
+		if (completions == null) {
+			completions = new ArrayList<>(1);
+		}
+		completions.add(completion);
+		hasCompletions = true;
+	}
+
+	/**
+	 * Runs the future completions recorded while the channel was locked. Must be called without holding the channel's
+	 * lock, so that the dependents of the futures never run while the channel is locked.
+	 */
+	private void runCompletions() {
+		if (!hasCompletions) {
+			return;
+		}
+		List<Runnable> ready;
+		synchronized (this) {
+			ready = completions;
+			completions = null;
+			hasCompletions = false;
+		}
+		if (ready != null) {
+			for (Runnable completion : ready) {
+				completion.run();
+			}
+		}
+	}
+
+	/**
+	 * Removes a cancelled asynchronous receive from the channel.
+	 *
+	 * @param pending the pending receive
+	 */
+	private synchronized void withdraw(AsyncReceive<T> pending) {
+		if (asyncReceivers != null) {
+			asyncReceivers.remove(pending);
+		}
+	}
+
+	/**
+	 * Removes a cancelled asynchronous send from the channel.
+	 *
+	 * @param pending the pending send
+	 */
+	private synchronized void withdraw(AsyncSend<T> pending) {
+		if (asyncSenders != null) {
+			asyncSenders.remove(pending);
+		}
+	}
+
+	/**
+	 * A record that holds a pending asynchronous receive.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 * @param future the future to complete with the received message
+	 * @param claim the flag shared by the cases of a selector, or {@code null} if there is no selector
+	 */
+	private record AsyncReceive<T>(CompletableFuture<T> future, AtomicBoolean claim) {}
+
+	/**
+	 * A record that holds a pending asynchronous send.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 * @param message the message to be sent
+	 * @param future the future to complete once the message is in the channel
+	 * @param claim the flag shared by the cases of a selector, or {@code null} if there is no selector
+	 */
+	private record AsyncSend<T>(T message, CompletableFuture<Void> future, AtomicBoolean claim) {}
+
+	/**
+	 * Calls every registered listener. Must be called while holding the channel's lock. The list of listeners is
+	 * replaced rather than modified when a listener is added or removed, so a listener can remove itself.
+	 */
+	private void fireListeners() {
+		if (listeners != null) {
+			for (Runnable listener : listeners) {
+				listener.run();
+			}
+		}
+	}
+
 	/**
 	 * The {@code ChannelIterator} class provides an iterator over the elements in the {@code BufferedQueueChannel}. If
 	 * there are no more messages, the iterator will block until a new message is received or the channel is closed.
@@ -211,9 +860,7 @@ public class BufferedQueueChannel<T> implements Channel<T> {
 		 */
 		@Override
 		public boolean hasNext() {
-			synchronized (BufferedQueueChannel.this) {
-				return BufferedQueueChannel.this.hasNext();
-			}
+			return BufferedQueueChannel.this.hasNext();
 		}
 
 		/**
@@ -225,9 +872,7 @@ public class BufferedQueueChannel<T> implements Channel<T> {
 		 */
 		@Override
 		public T next() {
-			synchronized (BufferedQueueChannel.this) {
-				return receive();
-			}
+			return receive();
 		}
 	}
 }
@@ -98,4 +98,43 @@ public interface Channel<T> extends InputChannel<T>, OutputChannel<T> {
 	static <T> Channel<T> make(int capacity) {
 		return new BufferedQueueChannel<>(capacity);
 	}
+
+	/**
+	 * Creates a new channel without bound, to which sending never blocks.
+	 * Its messages are stored in segments that are released as they are received, so the memory of the channel
+	 * tracks the amount of messages in it.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 * @return a new unbounded {@code Channel} instance
+	 */
+	static <T> Channel<T> makeUnbounded() {
+		return new BufferedQueueChannel<>(BufferedQueueChannel.UNBOUNDED);
+	}
+
+	/**
+	 * Creates a new channel with the specified capacity whose threads wait for it as decided by the specified
+	 * strategy before blocking on it.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 * @param capacity the capacity of the channel
+	 * @param waitStrategy how threads wait for the channel, such as {@link WaitStrategy#adaptive()}
+	 * @return a new {@code Channel} instance with the specified capacity and wait strategy
+	 */
+	static <T> Channel<T> make(int capacity, WaitStrategy waitStrategy) {
+		return new BufferedQueueChannel<>(capacity, waitStrategy);
+	}
+
+	/**
+	 * Creates a new channel with the specified capacity for a hop between exactly one sending goroutine and one
+	 * receiving goroutine. It takes no lock to send or receive, but must never be used by two senders or two receivers
+	 * at the same time.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 * @param capacity the capacity of the channel
+	 * @return a new single-producer single-consumer {@code Channel} instance
+	 * @see SpscChannel
+	 */
+	static <T> Channel<T> makeSpsc(int capacity) {
+		return new SpscChannel<>(capacity);
+	}
 }
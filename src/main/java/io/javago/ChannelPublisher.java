@@ -0,0 +1,252 @@
+package io.javago;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code ChannelPublisher} class adapts an {@link InputChannel} to a {@link Flow.Publisher}.
+ * Each subscriber receives messages from the channel only as fast as it requests them, and is completed once the
+ * channel is closed and empty. When several subscribers subscribe to the same channel, they compete for its messages
+ * like any other receivers, so each message is delivered to only one of them.
+ * <p>
+ * For channels created by {@link Channel#make()} or {@link Channel#make(int)}, a subscription holds no thread while
+ * it is idle. The channel notifies the subscription when a message is sent, and the subscription then delivers up to
+ * the outstanding demand in a single pass on the executor. The executor is never called while the channel is locked,
+ * so it may run the pass on the calling thread. For any other channel, a goroutine receives the next message while
+ * the subscriber has outstanding demand, and the pass delivers it, so that requesting messages never blocks.
+ *
+ * @param <T> the type of messages handled by the channel
+ */
+public class ChannelPublisher<T> implements Flow.Publisher<T> {
+
+	private static final Executor GOROUTINES = Go::go;
+
+	private final InputChannel<T> channel;
+	private final Executor executor;
+
+	/**
+	 * Constructs a {@code ChannelPublisher} that delivers messages to its subscribers on new goroutines.
+	 *
+	 * @param channel the channel to receive messages from
+	 */
+	public ChannelPublisher(InputChannel<T> channel) {
+		this(channel, GOROUTINES);
+	}
+
+	/**
+	 * Constructs a {@code ChannelPublisher} that delivers messages to its subscribers on the specified executor.
+	 *
+	 * @param channel the channel to receive messages from
+	 * @param executor the executor on which subscribers are called
+	 */
+	public ChannelPublisher(InputChannel<T> channel, Executor executor) {
+		this.channel = channel;
+		this.executor = executor;
+	}
+
+	/**
+	 * Adds the subscriber. It is given a subscription through which it can request messages from the channel.
+	 *
+	 * @param subscriber the subscriber
+	 * @throws NullPointerException if subscriber is null
+	 */
+	@Override
+	public void subscribe(Flow.Subscriber<? super T> subscriber) {
+		Objects.requireNonNull(subscriber);
+		ChannelSubscription subscription = new ChannelSubscription(subscriber);
+		subscriber.onSubscribe(subscription);
+		subscription.start();
+	}
+
+	/**
+	 * The {@code ChannelSubscription} class links one subscriber to the channel.
+	 * Its deliveries are serialized by a work-in-progress counter, so the subscriber is never called concurrently.
+	 */
+	private class ChannelSubscription implements Flow.Subscription, Runnable {
+
+		private final Flow.Subscriber<? super T> subscriber;
+		private final AtomicLong demand = new AtomicLong(0);
+		private final AtomicInteger wip = new AtomicInteger(0);
+		private final AtomicBoolean waiting = new AtomicBoolean(false);
+		private volatile boolean done = false;
+		private volatile Throwable error;
+		private volatile T received;
+		private volatile Thread receiver;
+
+		private ChannelSubscription(Flow.Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		/**
+		 * Starts listening to the channel, and completes the subscriber right away if the channel is already closed and
+		 * empty.
+		 */
+		private void start() {
+			if (channel instanceof PollableChannel<T> pollable) {
+				pollable.addListener(this);
+			}
+			drain();
+		}
+
+		/**
+		 * Adds demand for the specified amount of messages and delivers as many as are available. If the amount is not
+		 * positive, the subscription is cancelled and the subscriber is signalled the error by the delivery pass.
+		 *
+		 * @param n the amount of additional messages requested
+		 */
+		@Override
+		public void request(long n) {
+			if (done) {
+				return;
+			}
+			if (n <= 0) {
+				if (error == null) {
+					error = new IllegalArgumentException("request must be positive");
+				}
+				drain();
+				return;
+			}
+			demand.getAndAccumulate(n, (current, added) -> {
+				long sum = current + added;
+				return sum < 0 ? Long.MAX_VALUE : sum;
+			});
+			drain();
+		}
+
+		/**
+		 * Stops delivering messages to the subscriber. Messages not delivered yet remain in the channel, except for a
+		 * message the receiving goroutine of a channel without ready notifications had already received, which is
+		 * still delivered.
+		 */
+		@Override
+		public void cancel() {
+			if (!done) {
+				done = true;
+				if (channel instanceof PollableChannel<T> pollable) {
+					pollable.removeListener(this);
+				}
+				Thread thread = receiver;
+				if (thread != null) {
+					thread.interrupt();
+				}
+			}
+		}
+
+		/**
+		 * Called by the channel while it is locked when a message is sent or the channel is closed.
+		 * Schedules a delivery pass if the subscriber has outstanding demand, or if the channel is closed so that the
+		 * subscriber is completed once it is empty even without demand. The pass is handed to the executor from a new
+		 * goroutine, so that an executor running it on the calling thread does not run it while the channel is locked.
+		 */
+		@Override
+		public void run() {
+			if (!done && (demand.get() > 0 || channel.isClosed()) && wip.getAndIncrement() == 0) {
+				if (executor == GOROUTINES) {
+					Go.go(this::deliver);
+				} else {
+					Go.go(() -> executor.execute(this::deliver));
+				}
+			}
+		}
+
+		/**
+		 * Runs a delivery pass on the calling thread, or makes the pass already running do another iteration.
+		 */
+		private void drain() {
+			if (wip.getAndIncrement() == 0) {
+				deliver();
+			}
+		}
+
+		/**
+		 * Delivers up to the outstanding demand of messages without blocking, and completes the subscriber once the
+		 * channel is closed and empty, or signals the error of an invalid request. Must only be run by the thread that
+		 * raised the work-in-progress counter from zero, and keeps going until every signal received in the meantime
+		 * has been handled.
+		 */
+		private void deliver() {
+			int missed = 1;
+			do {
+				if (error != null) {
+					if (!done) {
+						cancel();
+						subscriber.onError(error);
+					}
+					return;
+				}
+				long requested = demand.get();
+				long emitted = 0;
+				while (emitted < requested && (!done || received != null) && error == null) {
+					T message = poll();
+					if (message == null) {
+						break;
+					}
+					try {
+						subscriber.onNext(message);
+					} catch (RuntimeException e) {
+						cancel();
+						return;
+					}
+					emitted++;
+				}
+				if (emitted > 0 && requested != Long.MAX_VALUE) {
+					demand.addAndGet(-emitted);
+				}
+				if (!done && received == null && channel.isClosed() && channel.isEmpty()) {
+					cancel();
+					subscriber.onComplete();
+					return;
+				}
+				if (!done && demand.get() > 0 && received == null && !(channel instanceof PollableChannel<T>)) {
+					awaitMessage();
+				}
+				missed = wip.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		/**
+		 * Receives a message from the channel without blocking. For a channel without ready notifications, takes the
+		 * message received by the goroutine started by {@link #awaitMessage()}, if there is one.
+		 *
+		 * @return the received message, or {@code null} if there is none
+		 */
+		private T poll() {
+			if (channel instanceof PollableChannel<T> pollable) {
+				return pollable.poll();
+			}
+			T message = received;
+			received = null;
+			return message;
+		}
+
+		/**
+		 * Starts a goroutine that receives the next message from a channel without ready notifications, unless one is
+		 * already receiving, and then runs a delivery pass. The goroutine is interrupted if the subscription is
+		 * cancelled while it waits.
+		 */
+		private void awaitMessage() {
+			if (waiting.compareAndSet(false, true)) {
+				Go.go(() -> {
+					receiver = Thread.currentThread();
+					try {
+						if (!done && channel.hasNext() && !done) {
+							received = channel.receive();
+						}
+					} catch (NoSuchElementException e) {
+						// Another receiver emptied the channel after it was closed, so the pass completes the subscriber.
+					} finally {
+						receiver = null;
+						Thread.interrupted();
+					}
+					waiting.set(false);
+					drain();
+				});
+			}
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package io.javago;
+
+import java.util.ArrayList;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * The {@code ChannelSpliterator} class is a {@link Spliterator} over the messages of an {@link InputChannel}.
+ * It receives messages in batches with {@link InputChannel#drainTo}, so a channel that supports batched draining is
+ * locked once per batch instead of once per message.
+ * When split, it hands a batch of messages to the new spliterator, with the batch size growing on every split, which
+ * allows a parallel stream to process the messages of a channel on every core of a {@code ForkJoinPool}.
+ * The spliterator ends once the channel is both closed and empty, or the thread is interrupted while waiting.
+ *
+ * @param <T> the type of messages handled by the channel
+ */
+class ChannelSpliterator<T> implements Spliterator<T> {
+
+	private static final int LOCAL_BATCH = 64;
+	private static final int SPLIT_BATCH_UNIT = 1 << 10;
+	private static final int MAX_SPLIT_BATCH = 1 << 25;
+
+	private final InputChannel<T> channel;
+	private final ArrayList<T> buffer = new ArrayList<>(LOCAL_BATCH);
+	private int position = 0;
+	private int splitBatch = 0;
+
+	/**
+	 * Constructs a {@code ChannelSpliterator} over the specified channel.
+	 *
+	 * @param channel the channel to receive messages from
+	 */
+	ChannelSpliterator(InputChannel<T> channel) {
+		this.channel = channel;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		if (position == buffer.size() && !refill()) {
+			return false;
+		}
+		action.accept(buffer.get(position++));
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		while (position < buffer.size() || refill()) {
+			while (position < buffer.size()) {
+				action.accept(buffer.get(position++));
+			}
+		}
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		int batch = Math.min(splitBatch + SPLIT_BATCH_UNIT, MAX_SPLIT_BATCH);
+		ArrayList<T> split = new ArrayList<>(Math.min(batch, LOCAL_BATCH));
+		while (position < buffer.size() && split.size() < batch) {
+			split.add(buffer.get(position++));
+		}
+		if (split.size() < batch) {
+			channel.drainTo(split, batch - split.size());
+		}
+		if (split.isEmpty()) {
+			return null;
+		}
+		splitBatch = batch;
+		return Spliterators.spliterator(split.toArray(), characteristics());
+	}
+
+	@Override
+	public long estimateSize() {
+		return Long.MAX_VALUE;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | NONNULL | CONCURRENT;
+	}
+
+	/**
+	 * Replaces the local buffer with the next batch of messages, waiting if necessary for a message to be sent.
+	 *
+	 * @return {@code true} if at least one message was received, {@code false} if the channel is closed and empty or
+	 * the thread was interrupted
+	 */
+	private boolean refill() {
+		buffer.clear();
+		position = 0;
+		return channel.drainTo(buffer, LOCAL_BATCH) > 0;
+	}
+}
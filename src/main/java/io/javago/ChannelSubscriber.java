@@ -0,0 +1,112 @@
+package io.javago;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+
+/**
+ * The {@code ChannelSubscriber} class adapts an {@link OutputChannel} to a {@link Flow.Subscriber}.
+ * Every item published to it is sent to the channel, and completing the subscriber closes the channel.
+ * The subscriber requests a limited amount of items at a time and only requests more once they have been sent, so a
+ * full channel stops the publisher instead of letting items pile up.
+ * If the channel is closed by its receiving side, the subscription is cancelled.
+ *
+ * @param <T> the type of messages handled by the channel
+ */
+public class ChannelSubscriber<T> implements Flow.Subscriber<T> {
+
+	private final OutputChannel<T> channel;
+	private final int prefetch;
+	private final int limit;
+	private Flow.Subscription subscription;
+	private int consumed = 0;
+	private volatile Throwable error;
+
+	/**
+	 * Constructs a {@code ChannelSubscriber} that requests items 16 at a time.
+	 *
+	 * @param channel the channel to send items to
+	 */
+	public ChannelSubscriber(OutputChannel<T> channel) {
+		this(channel, 16);
+	}
+
+	/**
+	 * Constructs a {@code ChannelSubscriber} that has at most the specified amount of items outstanding.
+	 *
+	 * @param channel the channel to send items to
+	 * @param prefetch the maximum amount of items requested but not yet sent to the channel
+	 * @throws IllegalArgumentException if prefetch is less than or equal to 0
+	 */
+	public ChannelSubscriber(OutputChannel<T> channel, int prefetch) {
+		if (prefetch <= 0) {
+			throw new IllegalArgumentException("prefetch must be greater than 0");
+		}
+		this.channel = channel;
+		this.prefetch = prefetch;
+		this.limit = Math.max(1, prefetch - (prefetch >> 2));
+	}
+
+	/**
+	 * Requests the first items from the publisher. A second subscription is cancelled.
+	 *
+	 * @param subscription the new subscription
+	 */
+	@Override
+	public void onSubscribe(Flow.Subscription subscription) {
+		Objects.requireNonNull(subscription);
+		if (this.subscription != null) {
+			subscription.cancel();
+			return;
+		}
+		this.subscription = subscription;
+		subscription.request(prefetch);
+	}
+
+	/**
+	 * Sends the item to the channel, waiting if necessary for space to become available, and requests more items once
+	 * enough have been sent.
+	 *
+	 * @param item the item
+	 */
+	@Override
+	public void onNext(T item) {
+		try {
+			channel.send(item);
+		} catch (IllegalStateException e) {
+			subscription.cancel();
+			return;
+		}
+		if (++consumed == limit) {
+			consumed = 0;
+			subscription.request(limit);
+		}
+	}
+
+	/**
+	 * Records the error and closes the channel.
+	 *
+	 * @param throwable the error signalled by the publisher
+	 */
+	@Override
+	public void onError(Throwable throwable) {
+		error = throwable;
+		channel.close();
+	}
+
+	/**
+	 * Closes the channel.
+	 */
+	@Override
+	public void onComplete() {
+		channel.close();
+	}
+
+	/**
+	 * Returns the error signalled by the publisher, if any.
+	 *
+	 * @return the error signalled by the publisher, or {@code null} if there was none
+	 */
+	public Throwable error() {
+		return error;
+	}
+}
@@ -5,6 +5,11 @@ import java.time.Instant;
 import java.util.Date;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -15,7 +20,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * instances of this class currently running should be kept to a minimum.
  * Additionally, it sends an identifier to a specified output channel before and after executing the callback.
  */
-public class DelayedCase implements Runnable {
+public class DelayedCase implements SelectCase {
+
+	/**
+	 * The scheduler shared by the cases fired asynchronously. Cancelled timers are removed from its queue right away,
+	 * so a case that loses does not hold on to its callback until its delay has elapsed.
+	 */
+	private static final ScheduledThreadPoolExecutor SCHEDULER = scheduler();
 
 	private final Duration delay;
 	private final Runnable callback;
@@ -77,6 +88,66 @@ public class DelayedCase implements Runnable {
 		}
 	}
 
+	/**
+	 * A delayed case is never ready before its delay has elapsed.
+	 *
+	 * @return {@code false}
+	 */
+	@Override
+	public boolean isReady() {
+		return false;
+	}
+
+	/**
+	 * A delayed case is never committed before its delay has elapsed.
+	 *
+	 * @return {@code null}
+	 */
+	@Override
+	public Runnable tryCommit() {
+		return null;
+	}
+
+	/**
+	 * Schedules the callback on a shared scheduler instead of reserving a platform thread. Once the delay has elapsed,
+	 * the callback is executed on the specified executor, or on a new goroutine if there is none, unless another case
+	 * has already won. Cancelling the returned future cancels the timer and removes it from the scheduler.
+	 *
+	 * @param executor the executor on which the callback is executed, or {@code null} to execute it on a goroutine
+	 * @return a future completed once the callback has been executed
+	 */
+	@Override
+	public CompletableFuture<Void> fireAsync(Executor executor) {
+		CompletableFuture<Void> done = new CompletableFuture<>();
+		Executor target = executor == null ? Go::go : executor;
+		ScheduledFuture<?> timer = SCHEDULER.schedule(() -> target.execute(() -> {
+			if (!done.isDone() && closed.compareAndSet(false, true)) {
+				try {
+					callback.run();
+					done.complete(null);
+				} catch (RuntimeException e) {
+					done.completeExceptionally(e);
+				}
+			}
+		}), delay.toNanos(), TimeUnit.NANOSECONDS);
+		done.whenComplete((result, e) -> timer.cancel(false));
+		return done;
+	}
+
+	/**
+	 * Creates the scheduler shared by the cases fired asynchronously, which runs on a single daemon thread.
+	 *
+	 * @return the shared scheduler
+	 */
+	private static ScheduledThreadPoolExecutor scheduler() {
+		ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(
+			1,
+			Thread.ofPlatform().name("javago-delayed-case").daemon().factory()
+		);
+		scheduler.setRemoveOnCancelPolicy(true);
+		return scheduler;
+	}
+
 	/**
 	 * Calculates the execution time by adding the delay to the current time.
 	 *
@@ -0,0 +1,209 @@
+package io.javago;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The {@code DynamicSelector} class implements Go's {@code reflect.Select} for receive cases.
+ * It selects over a variable number of input channels and returns the index of the chosen channel along with the
+ * received message.
+ * Unlike {@link Selector}, it does not create a thread per case. Each channel notifies the {@code DynamicSelector}
+ * when it becomes ready and is placed on a shared ready queue, so the cost of each selection depends on the number of
+ * ready channels rather than the total number of channels.
+ * Channels that become ready are served in the order they became ready, so no channel can starve the others.
+ * <p>
+ * Only channels created by {@link Channel#make()} or {@link Channel#make(int)} are supported.
+ * A {@code DynamicSelector} is intended to be reused for many selections and should be closed once it is no longer
+ * needed so that its channels stop notifying it.
+ *
+ * @param <T> the type of messages handled by the channels
+ */
+public class DynamicSelector<T> implements AutoCloseable {
+
+	private final List<Registration> registrations = new ArrayList<>();
+	private final LinkedBlockingQueue<Registration> readyQueue = new LinkedBlockingQueue<>();
+
+	/**
+	 * Constructs a {@code DynamicSelector} with no channels.
+	 */
+	public DynamicSelector() {}
+
+	/**
+	 * Constructs a {@code DynamicSelector} over the specified channels. The index of each channel is its position in
+	 * the iteration order of the collection.
+	 *
+	 * @param channels the channels to select over
+	 * @throws IllegalArgumentException if any of the channels is not supported
+	 */
+	public DynamicSelector(Collection<? extends InputChannel<? extends T>> channels) {
+		for (InputChannel<? extends T> ch : channels) {
+			add(ch);
+		}
+	}
+
+	/**
+	 * Constructs a {@code DynamicSelector} over the specified channels. The index of each channel is its position in
+	 * the array.
+	 *
+	 * @param channels the channels to select over
+	 * @throws IllegalArgumentException if any of the channels is not supported
+	 */
+	@SafeVarargs
+	public DynamicSelector(InputChannel<? extends T>... channels) {
+		for (InputChannel<? extends T> ch : channels) {
+			add(ch);
+		}
+	}
+
+	/**
+	 * Adds a channel to the selector.
+	 *
+	 * @param ch the channel to add
+	 * @return the index that identifies the channel in the results of {@link #select()}
+	 * @throws IllegalArgumentException if the channel is not supported
+	 */
+	public final synchronized int add(InputChannel<? extends T> ch) {
+		if (!(ch instanceof PollableChannel<? extends T> pollable)) {
+			throw new IllegalArgumentException("channel does not support ready notifications");
+		}
+		Registration registration = new Registration(registrations.size(), pollable);
+		registrations.add(registration);
+		pollable.addListener(registration);
+		if (!pollable.isEmpty() || pollable.isClosed()) {
+			registration.run();
+		}
+		return registration.index;
+	}
+
+	/**
+	 * Removes the channel with the specified index from the selector. The indices of the other channels do not change.
+	 * Removing a channel that has already been removed has no effect.
+	 *
+	 * @param index the index of the channel to remove
+	 * @throws IndexOutOfBoundsException if the index was never returned by {@link #add(InputChannel)}
+	 */
+	public synchronized void remove(int index) {
+		Registration registration = registrations.get(index);
+		if (!registration.removed) {
+			registration.removed = true;
+			registration.channel.removeListener(registration);
+		}
+	}
+
+	/**
+	 * Waits until one of the channels has a message or is closed and empty.
+	 * Returns {@code null} if it is interrupted while blocking.
+	 *
+	 * @return the index of the chosen channel and the received message, or a selection with {@code ok} set to
+	 * {@code false} if the chosen channel is closed and empty
+	 */
+	public Selection<T> select() {
+		while (true) {
+			Registration registration;
+			try {
+				registration = readyQueue.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+			Selection<T> selection = registration.attempt();
+			if (selection != null) {
+				return selection;
+			}
+		}
+	}
+
+	/**
+	 * Selects one of the channels without blocking, like a Go {@code select} statement with a {@code default} case.
+	 *
+	 * @return the index of the chosen channel and the received message, a selection with {@code ok} set to
+	 * {@code false} if the chosen channel is closed and empty, or {@code null} if no channel is ready
+	 */
+	public Selection<T> trySelect() {
+		Registration registration;
+		while ((registration = readyQueue.poll()) != null) {
+			Selection<T> selection = registration.attempt();
+			if (selection != null) {
+				return selection;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Removes every channel from the selector so they stop notifying it.
+	 */
+	@Override
+	public synchronized void close() {
+		for (int i = 0; i < registrations.size(); i++) {
+			remove(i);
+		}
+		readyQueue.clear();
+	}
+
+	/**
+	 * A record that holds the result of a selection.
+	 *
+	 * @param <T> the type of the received message
+	 * @param index the index of the chosen channel
+	 * @param value the received message, or {@code null} if the channel is closed and empty
+	 * @param ok {@code true} if a message was received, {@code false} if the channel is closed and empty
+	 */
+	public record Selection<T>(int index, T value, boolean ok) {}
+
+	/**
+	 * The {@code Registration} class links a channel to the ready queue of the {@code DynamicSelector}.
+	 * It is registered as a listener on its channel and places itself on the ready queue at most once at a time.
+	 */
+	private class Registration implements Runnable {
+
+		private final int index;
+		private final PollableChannel<? extends T> channel;
+		private final AtomicBoolean queued = new AtomicBoolean(false);
+		private volatile boolean removed = false;
+
+		private Registration(int index, PollableChannel<? extends T> channel) {
+			this.index = index;
+			this.channel = channel;
+		}
+
+		/**
+		 * Places this registration on the ready queue unless it is already there.
+		 */
+		@Override
+		public void run() {
+			if (!removed && queued.compareAndSet(false, true)) {
+				readyQueue.offer(this);
+			}
+		}
+
+		/**
+		 * Attempts to receive a message from the channel without blocking. If the channel is still ready afterwards,
+		 * this registration is placed back on the ready queue.
+		 *
+		 * @return the selection, or {@code null} if another receiver emptied the channel first
+		 */
+		private Selection<T> attempt() {
+			if (removed) {
+				return null;
+			}
+			queued.set(false);
+			boolean closed = channel.isClosed();
+			T message = channel.poll();
+			if (message != null) {
+				if (!channel.isEmpty() || channel.isClosed()) {
+					run();
+				}
+				return new Selection<>(index, message, true);
+			}
+			if (closed) {
+				run();
+				return new Selection<>(index, null, false);
+			}
+			return null;
+		}
+	}
+}
@@ -1,5 +1,9 @@
 package io.javago;
 
+import io.javago.runtime.Goroutines;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -9,7 +13,8 @@ import java.util.concurrent.ThreadFactory;
  * It provides a simple way to execute tasks asynchronously using a virtual thread per task executor.
  * It initializes a thread pool and ensures that it is properly shut down when the JVM exits.
  *
- * <p>This class is intended to be used for running {@link Runnable} tasks in a multi-threaded environment.</p>
+ * <p>This class is intended to be used for running {@link Runnable} tasks in a multi-threaded environment, and
+ * {@link Callable} tasks whose result is collected through a {@link Task} handle.</p>
  *
  * @see java.util.concurrent.ExecutorService
  * @see java.util.concurrent.Executors
@@ -34,11 +39,39 @@ public class Go {
 	/**
 	 * Executes the given task asynchronously using the thread pool.
 	 * Used to recreate Go's {@code go} keyword in Java.
+	 * While {@link Goroutines} tracking is enabled, the goroutine is recorded until the task completes.
 	 *
 	 * @param r the task to be executed
 	 * @throws NullPointerException if the task is null
 	 */
 	public static void go(Runnable r) {
-		threadPool.execute(r);
+		threadPool.execute(Goroutines.wrap(r));
+	}
+
+	/**
+	 * Executes the given task asynchronously using the thread pool and returns a handle to its result.
+	 * The handle can be joined, cancelled, or received from like a channel, and is the only object allocated for the
+	 * task besides its goroutine, so it replaces a {@link Channel} and a {@link io.javago.sync.WaitGroup} per task.
+	 *
+	 * @param <T> the type of the result of the task
+	 * @param c the task to be executed
+	 * @return the handle to the task
+	 * @throws NullPointerException if the task is null
+	 */
+	public static <T> Task<T> go(Callable<T> c) {
+		Task<T> task = new Task<>(Objects.requireNonNull(c));
+		threadPool.execute(Goroutines.wrap(task));
+		return task;
+	}
+
+	/**
+	 * Returns a dump of the live goroutines grouped by stack, blocking object and spawn site, like Go's goroutine
+	 * profile. Goroutines are only recorded while {@link Goroutines} tracking is enabled.
+	 *
+	 * @return the dump of the live goroutines
+	 * @see Goroutines#dump()
+	 */
+	public static String dump() {
+		return Goroutines.dump();
 	}
 }
@@ -1,6 +1,11 @@
 package io.javago;
 
+import java.util.Collection;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The {@code InputChannel} interface defines the operations for a Go {@code channel} in Java that can receive messages
@@ -62,6 +67,83 @@ public interface InputChannel<T> extends AutoCloseable, Iterable<T> {
 	 */
 	boolean hasNext();
 
+	/**
+	 * Waits until the channel has another message or is closed, then receives up to the specified amount of messages
+	 * without waiting any further and adds them to the collection.
+	 * By default, messages are received one at a time, and draining stops early if another receiver empties the
+	 * channel first or if {@link #receive()} returns {@code null} because the thread was interrupted, so that no
+	 * {@code null} is ever added to the collection.
+	 *
+	 * @param c the collection to add the received messages to
+	 * @param maxMessages the maximum amount of messages to receive
+	 * @return the amount of messages received, which is {@code 0} only if the channel is both closed and empty or the
+	 * thread was interrupted while waiting
+	 */
+	default int drainTo(Collection<? super T> c, int maxMessages) {
+		if (maxMessages <= 0 || !hasNext()) {
+			return 0;
+		}
+		int received = 0;
+		do {
+			T message;
+			try {
+				message = receive();
+			} catch (NoSuchElementException e) {
+				break;
+			}
+			if (message == null) {
+				break;
+			}
+			c.add(message);
+			received++;
+		} while (received < maxMessages && !isEmpty());
+		return received;
+	}
+
+	/**
+	 * Receives a message from the channel asynchronously.
+	 * By default, the message is received by a new goroutine. Implementations that can do so keep a pending receive
+	 * without a thread waiting for it.
+	 *
+	 * @return a future completed with the received message, or completed exceptionally with a
+	 * {@link NoSuchElementException} if the channel is both closed and empty
+	 */
+	default CompletableFuture<T> receiveAsync() {
+		return CompletableFuture.supplyAsync(this::receive, Go::go);
+	}
+
+	/**
+	 * Receives a message from the channel asynchronously, completing the returned future on the specified executor.
+	 *
+	 * @param executor the executor on which the returned future is completed
+	 * @return a future completed with the received message, or completed exceptionally with a
+	 * {@link NoSuchElementException} if the channel is both closed and empty
+	 */
+	default CompletableFuture<T> receiveAsync(Executor executor) {
+		return receiveAsync().thenApplyAsync(message -> message, executor);
+	}
+
+	/**
+	 * Returns a sequential {@link Stream} over the messages received from the channel.
+	 * The stream receives messages in batches and ends once the channel is both closed and empty.
+	 *
+	 * @return a sequential {@code Stream} over the messages of the channel
+	 */
+	default Stream<T> stream() {
+		return StreamSupport.stream(new ChannelSpliterator<>(this), false);
+	}
+
+	/**
+	 * Returns a parallel {@link Stream} over the messages received from the channel.
+	 * The stream receives messages in batches that are split across the common {@code ForkJoinPool}, and ends once
+	 * the channel is both closed and empty.
+	 *
+	 * @return a parallel {@code Stream} over the messages of the channel
+	 */
+	default Stream<T> parallelStream() {
+		return StreamSupport.stream(new ChannelSpliterator<>(this), true);
+	}
+
 	/**
 	 * Creates a new channel with a default capacity.
 	 *
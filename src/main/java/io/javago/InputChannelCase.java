@@ -1,6 +1,8 @@
 package io.javago;
 
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
@@ -12,7 +14,7 @@ import java.util.function.Consumer;
  *
  * @param <T> the type of messages handled by the input channel
  */
-public class InputChannelCase<T> implements Runnable {
+public class InputChannelCase<T> implements SelectCase {
 
 	private final InputChannel<T> inputChannel;
 	private final Consumer<T> callback;
@@ -71,4 +73,82 @@ public class InputChannelCase<T> implements Runnable {
 			toSelector.send(id);
 		}
 	}
+
+	/**
+	 * Checks, without blocking, if the input channel has a message waiting to be received.
+	 *
+	 * @return {@code true} if the input channel is not empty, {@code false} otherwise
+	 */
+	@Override
+	public boolean isReady() {
+		return !inputChannel.isEmpty();
+	}
+
+	/**
+	 * Receives a message from the input channel without blocking if it is a {@link BufferedQueueChannel}. Other
+	 * channels cannot be received from without blocking, so their case is never committed this way.
+	 *
+	 * @return the callback bound to the received message, or {@code null} if no message was received
+	 */
+	@Override
+	public Runnable tryCommit() {
+		if (!(inputChannel instanceof BufferedQueueChannel<T> channel)) {
+			return null;
+		}
+		T message = channel.selectPoll(closed);
+		return message == null ? null : () -> callback.accept(message);
+	}
+
+	/**
+	 * Registers a pending receive with the input channel and executes the callback once a message is received.
+	 * A {@link BufferedQueueChannel} keeps the pending receive as a node without a thread. Other channels are waited on
+	 * by a virtual thread that is interrupted when the case is withdrawn.
+	 *
+	 * @param executor the executor on which the callback is executed, or {@code null} to execute it inline
+	 * @return a future completed once the callback has been executed, or completed exceptionally with a
+	 * {@link NoSuchElementException} if the channel is closed and empty
+	 */
+	@Override
+	public CompletableFuture<Void> fireAsync(Executor executor) {
+		CompletableFuture<T> received = inputChannel instanceof BufferedQueueChannel<T> channel
+			? channel.selectReceive(closed)
+			: receiveOnThread();
+		CompletableFuture<Void> done = executor == null
+			? received.thenAccept(callback)
+			: received.thenAcceptAsync(callback, executor);
+		done.whenComplete((v, e) -> {
+			if (done.isCancelled()) {
+				received.cancel(false);
+			}
+		});
+		return done;
+	}
+
+	/**
+	 * Waits for a message on a new virtual thread, for channels that cannot keep a pending receive.
+	 *
+	 * @return a future completed with the received message if this case wins
+	 */
+	private CompletableFuture<T> receiveOnThread() {
+		CompletableFuture<T> received = new CompletableFuture<>();
+		Thread thread = Thread.ofVirtual().start(() -> {
+			boolean hasNext = inputChannel.hasNext();
+			if (Thread.currentThread().isInterrupted() && !inputChannel.isClosed()) {
+				return;
+			}
+			if ((hasNext || inputChannel.isClosed()) && closed.compareAndSet(false, true)) {
+				try {
+					received.complete(inputChannel.receive());
+				} catch (RuntimeException e) {
+					received.completeExceptionally(e);
+				}
+			}
+		});
+		received.whenComplete((m, e) -> {
+			if (received.isCancelled()) {
+				thread.interrupt();
+			}
+		});
+		return received;
+	}
 }
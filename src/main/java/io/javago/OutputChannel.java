@@ -1,5 +1,8 @@
 package io.javago;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * The {@code OutputChannel} interface defines the operations for a Go {@code channel} in Java that can send messages of
  * a specified type.
@@ -18,6 +21,31 @@ public interface OutputChannel<T> extends AutoCloseable, Iterable<T> {
 	 */
 	void send(T message);
 
+	/**
+	 * Sends a message through the channel asynchronously.
+	 * By default, the message is sent by a new goroutine. Implementations that can do so keep a pending send without a
+	 * thread waiting for it.
+	 *
+	 * @param message the message to be sent
+	 * @return a future completed once the message is in the channel, or completed exceptionally with an
+	 * {@link IllegalStateException} if the channel is closed
+	 */
+	default CompletableFuture<Void> sendAsync(T message) {
+		return CompletableFuture.runAsync(() -> send(message), Go::go);
+	}
+
+	/**
+	 * Sends a message through the channel asynchronously, completing the returned future on the specified executor.
+	 *
+	 * @param message the message to be sent
+	 * @param executor the executor on which the returned future is completed
+	 * @return a future completed once the message is in the channel, or completed exceptionally with an
+	 * {@link IllegalStateException} if the channel is closed
+	 */
+	default CompletableFuture<Void> sendAsync(T message, Executor executor) {
+		return sendAsync(message).thenRunAsync(() -> {}, executor);
+	}
+
 	/**
 	 * Checks if the channel is closed.
 	 *
@@ -1,5 +1,7 @@
 package io.javago;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -10,7 +12,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  *
  * @param <T> the type of message to be sent to the output channel
  */
-public class OutputChannelCase<T> implements Runnable {
+public class OutputChannelCase<T> implements SelectCase {
 
 	private final OutputChannel<T> outputChannel;
 	private final T message;
@@ -66,4 +68,82 @@ public class OutputChannelCase<T> implements Runnable {
 			toSelector.send(id);
 		}
 	}
+
+	/**
+	 * Checks, without blocking, if the output channel has space for the message.
+	 *
+	 * @return {@code true} if the output channel is neither closed nor full, {@code false} otherwise
+	 */
+	@Override
+	public boolean isReady() {
+		return !outputChannel.isClosed() && !outputChannel.isFull();
+	}
+
+	/**
+	 * Sends the message to the output channel without blocking if it is a {@link BufferedQueueChannel}. Other
+	 * channels cannot be sent to without blocking, so their case is never committed this way.
+	 *
+	 * @return the callback, or {@code null} if the message was not sent
+	 */
+	@Override
+	public Runnable tryCommit() {
+		if (outputChannel instanceof BufferedQueueChannel<T> channel && channel.selectOffer(message, closed)) {
+			return callback;
+		}
+		return null;
+	}
+
+	/**
+	 * Registers a pending send with the output channel and executes the callback once the message is sent.
+	 * A {@link BufferedQueueChannel} keeps the pending send as a node without a thread. Other channels are waited on
+	 * by a virtual thread that is interrupted when the case is withdrawn.
+	 * Like {@link #run()}, the case never completes if the output channel is closed.
+	 *
+	 * @param executor the executor on which the callback is executed, or {@code null} to execute it inline
+	 * @return a future completed once the callback has been executed
+	 */
+	@Override
+	public CompletableFuture<Void> fireAsync(Executor executor) {
+		CompletableFuture<Void> sent = outputChannel instanceof BufferedQueueChannel<T> channel
+			? channel.selectSend(message, closed)
+			: sendOnThread();
+		CompletableFuture<Void> done = executor == null
+			? sent.thenRun(callback)
+			: sent.thenRunAsync(callback, executor);
+		done.whenComplete((v, e) -> {
+			if (done.isCancelled()) {
+				sent.cancel(false);
+			}
+		});
+		return done;
+	}
+
+	/**
+	 * Waits for space on a new virtual thread, for channels that cannot keep a pending send.
+	 *
+	 * @return a future completed once the message is sent if this case wins
+	 */
+	private CompletableFuture<Void> sendOnThread() {
+		CompletableFuture<Void> sent = new CompletableFuture<>();
+		Thread thread = Thread.ofVirtual().start(() -> {
+			boolean hasSpace = outputChannel.hasSpace();
+			if (Thread.currentThread().isInterrupted()) {
+				return;
+			}
+			if (hasSpace && closed.compareAndSet(false, true)) {
+				try {
+					outputChannel.send(message);
+					sent.complete(null);
+				} catch (RuntimeException e) {
+					sent.completeExceptionally(e);
+				}
+			}
+		});
+		sent.whenComplete((v, e) -> {
+			if (sent.isCancelled()) {
+				thread.interrupt();
+			}
+		});
+		return sent;
+	}
 }
@@ -0,0 +1,375 @@
+package io.javago;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * The {@code Parallel} class runs loops in parallel on the common {@link ForkJoinPool}, as a replacement for spawning
+ * a goroutine per element and waiting for them with a {@code WaitGroup}. Goroutines suit tasks that block, while
+ * CPU-bound loops are better split into a few chunks that the workers of the pool steal from each other.
+ * <p>
+ * A loop is split in halves recursively, down to chunks no smaller than its grain. The splitting adapts to the load of
+ * the pool: a chunk is only split while few tasks are waiting to be stolen from the current worker, so that idle
+ * workers get work quickly while busy workers run larger chunks without the overhead of splitting them.
+ * <p>
+ * A loop can be cancelled cooperatively: once the body of a {@code While} loop returns {@code false} or the body of
+ * any loop throws, chunks that have not started are skipped and running {@code While} chunks stop at their next
+ * element. The exception thrown, if any, is then rethrown to the caller.
+ * <p>
+ * Every method blocks until the loop is done. It can be called from a goroutine or from a task of the pool itself.
+ */
+public final class Parallel {
+
+	/**
+	 * The amount of tasks that may be waiting to be stolen from a worker before it stops splitting its chunk.
+	 */
+	private static final int SURPLUS = 3;
+
+	/**
+	 * The amount of chunks per worker of the pool aimed for by the automatic grain.
+	 */
+	private static final int CHUNKS_PER_WORKER = 4;
+
+	private Parallel() {}
+
+	/**
+	 * Runs the body for every index from start inclusive to end exclusive, in parallel.
+	 *
+	 * @param start the first index, inclusive
+	 * @param end the last index, exclusive
+	 * @param grain the smallest amount of indices run as a chunk, or {@code 0} to pick one from the amount of indices
+	 * and the parallelism of the pool
+	 * @param body the body of the loop
+	 * @throws IllegalArgumentException if grain is negative
+	 */
+	public static void range(int start, int end, int grain, IntConsumer body) {
+		Objects.requireNonNull(body);
+		rangeWhile(start, end, grain, i -> {
+			body.accept(i);
+			return true;
+		});
+	}
+
+	/**
+	 * Runs the body for every index from start inclusive to end exclusive, in parallel, until the body returns
+	 * {@code false} for an index. Indices that were not run when the body returned {@code false} are skipped, though
+	 * indices of other chunks may still be run concurrently until they notice.
+	 *
+	 * @param start the first index, inclusive
+	 * @param end the last index, exclusive
+	 * @param grain the smallest amount of indices run as a chunk, or {@code 0} to pick one from the amount of indices
+	 * and the parallelism of the pool
+	 * @param body the body of the loop, which returns {@code false} to stop the loop
+	 * @return {@code true} if the body was run for every index, {@code false} if the loop was stopped
+	 * @throws IllegalArgumentException if grain is negative
+	 */
+	public static boolean rangeWhile(int start, int end, int grain, IntPredicate body) {
+		Objects.requireNonNull(body);
+		if (start >= end) {
+			return true;
+		}
+		ForEachTask root = new ForEachTask(null, null, body, start, end, grain(start, end, grain));
+		ForkJoinPool.commonPool().invoke(root);
+		return !root.stopped;
+	}
+
+	/**
+	 * Computes a result for every chunk of the indices from start inclusive to end exclusive, in parallel, and
+	 * combines the results of the chunks with the reducer. The chunk function typically loops over its indices,
+	 * accumulating into a local variable, so that the reducer is called once per chunk rather than once per index.
+	 * Results are combined in the order of their indices, so the reducer needs to be associative but not commutative.
+	 *
+	 * @param <R> the type of the result
+	 * @param start the first index, inclusive
+	 * @param end the last index, exclusive
+	 * @param grain the smallest amount of indices computed as a chunk, or {@code 0} to pick one from the amount of
+	 * indices and the parallelism of the pool
+	 * @param chunk the function computing the result of a chunk
+	 * @param reducer the function combining the results of two adjacent chunks
+	 * @return the combined result, or {@code null} if there are no indices
+	 * @throws IllegalArgumentException if grain is negative
+	 */
+	public static <R> R reduce(int start, int end, int grain, RangeFunction<R> chunk, BinaryOperator<R> reducer) {
+		Objects.requireNonNull(chunk);
+		Objects.requireNonNull(reducer);
+		if (start >= end) {
+			return null;
+		}
+		return ForkJoinPool.commonPool().invoke(
+			new ReduceTask<>(null, null, chunk, reducer, start, end, grain(start, end, grain), null)
+		);
+	}
+
+	/**
+	 * Performs the action for every element of the list, in parallel. A list that does not support fast random access
+	 * is copied to an array first.
+	 *
+	 * @param <T> the type of elements of the list
+	 * @param list the list whose elements to perform the action for
+	 * @param action the action to perform
+	 */
+	public static <T> void forEach(List<T> list, Consumer<? super T> action) {
+		Objects.requireNonNull(action);
+		forEachWhile(list, element -> {
+			action.accept(element);
+			return true;
+		});
+	}
+
+	/**
+	 * Performs the action for every element of the list, in parallel, until the action returns {@code false} for an
+	 * element. A list that does not support fast random access is copied to an array first.
+	 *
+	 * @param <T> the type of elements of the list
+	 * @param list the list whose elements to perform the action for
+	 * @param action the action to perform, which returns {@code false} to stop the loop
+	 * @return {@code true} if the action was performed for every element, {@code false} if the loop was stopped
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> boolean forEachWhile(List<T> list, Predicate<? super T> action) {
+		Objects.requireNonNull(action);
+		if (list instanceof RandomAccess) {
+			return rangeWhile(0, list.size(), 0, i -> action.test(list.get(i)));
+		}
+		Object[] elements = list.toArray();
+		return rangeWhile(0, elements.length, 0, i -> action.test((T) elements[i]));
+	}
+
+	/**
+	 * Validates the grain of a loop, or picks one so that each worker of the pool gets a few chunks.
+	 *
+	 * @param start the first index, inclusive
+	 * @param end the last index, exclusive
+	 * @param grain the requested grain, or {@code 0} to pick one
+	 * @return the grain of the loop
+	 */
+	private static int grain(int start, int end, int grain) {
+		if (grain < 0) {
+			throw new IllegalArgumentException("grain must not be negative");
+		} else if (grain > 0) {
+			return grain;
+		}
+		long chunks = (long) ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_WORKER;
+		return (int) Math.max(1, ((long) end - start) / chunks);
+	}
+
+	/**
+	 * Checks if the chunk of the current worker should be split again: it must be larger than the grain, and few
+	 * enough tasks must be waiting to be stolen from the worker that another one may be stolen soon.
+	 *
+	 * @param from the first index of the chunk, inclusive
+	 * @param to the last index of the chunk, exclusive
+	 * @param grain the smallest amount of indices run as a chunk
+	 * @return {@code true} if the chunk should be split, {@code false} if it should be run
+	 */
+	private static boolean split(int from, int to, int grain) {
+		return to - from > grain && ForkJoinTask.getSurplusQueuedTaskCount() <= SURPLUS;
+	}
+
+	/**
+	 * The {@code ForEachTask} class runs the body of a loop for a chunk, splitting it first while
+	 * {@link #split(int, int, int)} allows. Every task of a loop shares its root, whose flag stops the loop.
+	 */
+	private static final class ForEachTask extends CountedCompleter<Void> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final ForEachTask root;
+		private final transient IntPredicate body;
+		private final int from;
+		private final int to;
+		private final int grain;
+		private volatile boolean stopped = false;
+
+		/**
+		 * Constructs a {@code ForEachTask} for a chunk.
+		 *
+		 * @param parent the task that forked this task, or {@code null} for the root
+		 * @param root the root task of the loop, or {@code null} for the root
+		 * @param body the body of the loop
+		 * @param from the first index of the chunk, inclusive
+		 * @param to the last index of the chunk, exclusive
+		 * @param grain the smallest amount of indices run as a chunk
+		 */
+		private ForEachTask(ForEachTask parent, ForEachTask root, IntPredicate body, int from, int to, int grain) {
+			super(parent);
+			this.root = root == null ? this : root;
+			this.body = body;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		/**
+		 * Forks the upper halves of the chunk while it should be split, then runs the body for the rest of it.
+		 */
+		@Override
+		public void compute() {
+			int lo = from;
+			int hi = to;
+			while (!root.stopped && split(lo, hi, grain)) {
+				int mid = lo + ((hi - lo) >>> 1);
+				addToPendingCount(1);
+				new ForEachTask(this, root, body, mid, hi, grain).fork();
+				hi = mid;
+			}
+			for (int i = lo; i < hi && !root.stopped; i++) {
+				if (!body.test(i)) {
+					root.stopped = true;
+				}
+			}
+			propagateCompletion();
+		}
+
+		/**
+		 * Stops the loop once the body threw.
+		 *
+		 * @param ex the exception thrown
+		 * @param caller the task whose exception is propagated
+		 * @return {@code true}, so that the exception is propagated to the root
+		 */
+		@Override
+		public boolean onExceptionalCompletion(Throwable ex, CountedCompleter<?> caller) {
+			root.stopped = true;
+			return true;
+		}
+	}
+
+	/**
+	 * The {@code ReduceTask} class computes the result of a chunk, splitting it first while
+	 * {@link #split(int, int, int)} allows, and combines it with the results of the tasks it forked once they are
+	 * done. The forked tasks are kept in a list from the lowest chunk to the highest, so results are combined in the
+	 * order of their indices.
+	 *
+	 * @param <R> the type of the result
+	 */
+	private static final class ReduceTask<R> extends CountedCompleter<R> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final ReduceTask<R> root;
+		private final transient RangeFunction<R> chunk;
+		private final transient BinaryOperator<R> reducer;
+		private final int from;
+		private final int to;
+		private final int grain;
+		private final ReduceTask<R> next;
+		private ReduceTask<R> forks;
+		private transient R result;
+		private volatile boolean stopped = false;
+
+		/**
+		 * Constructs a {@code ReduceTask} for a chunk.
+		 *
+		 * @param parent the task that forked this task, or {@code null} for the root
+		 * @param root the root task of the loop, or {@code null} for the root
+		 * @param chunk the function computing the result of a chunk
+		 * @param reducer the function combining the results of two adjacent chunks
+		 * @param from the first index of the chunk, inclusive
+		 * @param to the last index of the chunk, exclusive
+		 * @param grain the smallest amount of indices computed as a chunk
+		 * @param next the task forked by the parent for the chunk after this one, or {@code null} if there is none
+		 */
+		private ReduceTask(
+			ReduceTask<R> parent,
+			ReduceTask<R> root,
+			RangeFunction<R> chunk,
+			BinaryOperator<R> reducer,
+			int from,
+			int to,
+			int grain,
+			ReduceTask<R> next
+		) {
+			super(parent);
+			this.root = root == null ? this : root;
+			this.chunk = chunk;
+			this.reducer = reducer;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+			this.next = next;
+		}
+
+		/**
+		 * Forks the upper halves of the chunk while it should be split, then computes the result of the rest of it.
+		 */
+		@Override
+		public void compute() {
+			int lo = from;
+			int hi = to;
+			while (!root.stopped && split(lo, hi, grain)) {
+				int mid = lo + ((hi - lo) >>> 1);
+				addToPendingCount(1);
+				forks = new ReduceTask<>(this, root, chunk, reducer, mid, hi, grain, forks);
+				forks.fork();
+				hi = mid;
+			}
+			if (!root.stopped) {
+				result = chunk.apply(lo, hi);
+			}
+			tryComplete();
+		}
+
+		/**
+		 * Combines the result of this task with the results of the tasks it forked, which are all done.
+		 *
+		 * @param caller the task that completed this task
+		 */
+		@Override
+		public void onCompletion(CountedCompleter<?> caller) {
+			for (ReduceTask<R> t = forks; t != null; t = t.next) {
+				result = result == null ? t.result : t.result == null ? result : reducer.apply(result, t.result);
+			}
+		}
+
+		/**
+		 * Stops the loop once the chunk function or the reducer threw.
+		 *
+		 * @param ex the exception thrown
+		 * @param caller the task whose exception is propagated
+		 * @return {@code true}, so that the exception is propagated to the root
+		 */
+		@Override
+		public boolean onExceptionalCompletion(Throwable ex, CountedCompleter<?> caller) {
+			root.stopped = true;
+			return true;
+		}
+
+		/**
+		 * Returns the combined result of the chunk of this task.
+		 *
+		 * @return the combined result
+		 */
+		@Override
+		public R getRawResult() {
+			return result;
+		}
+	}
+
+	/**
+	 * The {@code RangeFunction} interface represents a function computing a result for the indices of a chunk.
+	 *
+	 * @param <R> the type of the result
+	 */
+	@FunctionalInterface
+	public interface RangeFunction<R> {
+
+		/**
+		 * Computes the result of a chunk.
+		 *
+		 * @param from the first index of the chunk, inclusive
+		 * @param to the last index of the chunk, exclusive
+		 * @return the result of the chunk
+		 */
+		R apply(int from, int to);
+	}
+}
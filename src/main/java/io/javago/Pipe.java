@@ -0,0 +1,714 @@
+package io.javago;
+
+import io.javago.sync.Pool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The {@code Pipe} class implements Go's {@code io.Pipe}.
+ * It connects a writing {@link Sink} to a reading {@link Source} by handing over pooled {@link ByteBuffer} slabs
+ * through a bounded {@link Channel}, so the bytes written to a slab are never copied again on their way to the reader.
+ * At most {@code buffers} slabs can be in flight at once, which makes a fast writer block until the reader catches up.
+ * <p>
+ * The sink is both an {@link OutputChannel} of slabs and a {@link WritableByteChannel}, and the source is both an
+ * {@link InputChannel} of slabs and a {@link ReadableByteChannel}, so either end can be used in a {@link Selector}.
+ * Stream views of both ends are available through {@link Sink#outputStream()} and {@link Source#inputStream()}.
+ */
+public class Pipe implements AutoCloseable {
+
+	/**
+	 * The size in bytes of each slab used when no size is specified.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	/**
+	 * The maximum number of slabs in flight used when no amount is specified.
+	 */
+	public static final int DEFAULT_BUFFERS = 4;
+
+	private final Channel<ByteBuffer> slabs;
+	private final Pool<ByteBuffer> pool;
+	private final int bufferSize;
+	private final Sink sink = new Sink();
+	private final Source source = new Source();
+
+	/**
+	 * Constructs a {@code Pipe} with a slab size of {@link #DEFAULT_BUFFER_SIZE} and at most {@link #DEFAULT_BUFFERS}
+	 * slabs in flight.
+	 */
+	public Pipe() {
+		this(DEFAULT_BUFFER_SIZE, DEFAULT_BUFFERS);
+	}
+
+	/**
+	 * Constructs a {@code Pipe} with the specified slab size and maximum number of slabs in flight.
+	 *
+	 * @param bufferSize the size in bytes of each pooled slab
+	 * @param buffers the maximum number of filled slabs waiting to be read before the writer blocks
+	 * @throws IllegalArgumentException if bufferSize or buffers is less than or equal to 0
+	 */
+	public Pipe(int bufferSize, int buffers) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("bufferSize must be greater than 0");
+		}
+		this.slabs = Channel.make(buffers);
+		this.bufferSize = bufferSize;
+		this.pool = new Pool<>(() -> ByteBuffer.allocate(bufferSize));
+	}
+
+	/**
+	 * Returns the writing end of this pipe.
+	 *
+	 * @return the sink of this pipe
+	 */
+	public Sink sink() {
+		return sink;
+	}
+
+	/**
+	 * Returns the reading end of this pipe.
+	 *
+	 * @return the source of this pipe
+	 */
+	public Source source() {
+		return source;
+	}
+
+	/**
+	 * Closes the writing end of this pipe without waiting. Slabs already written can still be read.
+	 * Equivalent to calling {@link Sink#close()}.
+	 */
+	@Override
+	public void close() {
+		sink.close();
+	}
+
+	/**
+	 * Returns a slab to the pool if it was allocated by this pipe.
+	 *
+	 * @param slab the slab to recycle
+	 */
+	private void recycle(ByteBuffer slab) {
+		if (slab.capacity() == bufferSize && !slab.isReadOnly()) {
+			slab.clear();
+			pool.put(slab);
+		}
+	}
+
+	/**
+	 * The {@code Sink} class is the writing end of a {@link Pipe}.
+	 * Slabs obtained from {@link #allocate()} and filled by the caller are handed to the reader without copying by
+	 * {@link #send(ByteBuffer)}. The {@link #write(ByteBuffer)} and {@link #outputStream()} views copy the caller's bytes
+	 * into pooled slabs once and hand those over instead.
+	 * <p>
+	 * Like Go's {@code io.PipeWriter}, writes are serialized by a write lock held while they wait for the reader, and
+	 * {@link #close()} does not take it, so closing the pipe wakes a blocked writer instead of waiting behind it.
+	 */
+	public class Sink implements OutputChannel<ByteBuffer>, WritableByteChannel {
+
+		private final ReentrantLock writeLock = new ReentrantLock();
+		private ByteBuffer current;
+
+		private Sink() {}
+
+		/**
+		 * Takes an empty slab from the pool of this pipe, allocating a new one if the pool is empty.
+		 *
+		 * @return an empty slab ready to be filled
+		 */
+		public ByteBuffer allocate() {
+			return pool.get();
+		}
+
+		/**
+		 * Hands a filled slab over to the reader, waiting if necessary for one of the in-flight slabs to be read.
+		 * The slab is flipped before it is handed over and must not be used by the caller afterwards.
+		 * If the thread is interrupted while waiting, the slab is returned to the pool without being handed over and
+		 * the interrupt status is left set.
+		 *
+		 * @param slab the slab to hand over
+		 * @throws IllegalStateException if the pipe is closed
+		 */
+		@Override
+		public void send(ByteBuffer slab) {
+			writeLock.lock();
+			try {
+				if (!flushSlab() || !awaitSpace()) {
+					recycle(slab);
+					return;
+				}
+				slab.flip();
+				slabs.send(slab);
+			} finally {
+				writeLock.unlock();
+			}
+		}
+
+		/**
+		 * Copies the remaining bytes of the specified buffer into pooled slabs and hands them over to the reader.
+		 * Blocks while the maximum number of slabs are in flight.
+		 *
+		 * @param src the buffer from which bytes are to be retrieved
+		 * @return the number of bytes written
+		 * @throws ClosedChannelException if the pipe is closed
+		 * @throws InterruptedIOException if the thread is interrupted while blocking
+		 */
+		@Override
+		public int write(ByteBuffer src) throws IOException {
+			writeLock.lock();
+			try {
+				int written = src.remaining();
+				while (src.hasRemaining()) {
+					ByteBuffer slab = slab();
+					int n = Math.min(slab.remaining(), src.remaining());
+					slab.put(slab.position(), src, src.position(), n);
+					slab.position(slab.position() + n);
+					src.position(src.position() + n);
+					if (!slab.hasRemaining()) {
+						handOver();
+					}
+				}
+				handOver();
+				return written;
+			} finally {
+				writeLock.unlock();
+			}
+		}
+
+		/**
+		 * Returns an {@link OutputStream} view of this sink.
+		 * Bytes written to the stream are collected into a pooled slab which is handed over when it is full, when the
+		 * stream is flushed, or when the stream is closed. Closing the stream hands over the bytes collected so far,
+		 * then closes this sink.
+		 *
+		 * @return an output stream writing to this sink
+		 */
+		public OutputStream outputStream() {
+			return new PipeOutputStream();
+		}
+
+		/**
+		 * Checks if the pipe is closed.
+		 *
+		 * @return {@code true} if the pipe is closed, {@code false} otherwise
+		 */
+		@Override
+		public boolean isClosed() {
+			return slabs.isClosed();
+		}
+
+		/**
+		 * Checks if this sink is open.
+		 *
+		 * @return {@code true} if the pipe is not closed, {@code false} otherwise
+		 */
+		@Override
+		public boolean isOpen() {
+			return !slabs.isClosed();
+		}
+
+		/**
+		 * Closes the pipe without waiting for the writer or the reader. A writer blocked waiting for the reader fails
+		 * with an {@link IllegalStateException}, or a {@link ClosedChannelException} for the byte channel and stream
+		 * views. Bytes written to the {@link #outputStream()} view and not flushed yet are discarded, unless the stream
+		 * itself is closed.
+		 * Once closed, no more bytes can be written, but any slabs in flight can still be read.
+		 * Closing an already closed pipe has no effect.
+		 */
+		@Override
+		public void close() {
+			slabs.close();
+		}
+
+		/**
+		 * Checks if no slabs are in flight.
+		 *
+		 * @return {@code true} if no slabs are in flight, {@code false} otherwise
+		 */
+		@Override
+		public boolean isEmpty() {
+			return slabs.isEmpty();
+		}
+
+		/**
+		 * Checks if the maximum number of slabs are in flight.
+		 *
+		 * @return {@code true} if the maximum number of slabs are in flight, {@code false} otherwise
+		 */
+		@Override
+		public boolean isFull() {
+			return slabs.isFull();
+		}
+
+		/**
+		 * Waits until another slab can be handed over or the pipe is closed.
+		 *
+		 * @return {@code true} if another slab can be handed over, {@code false} if the pipe is closed
+		 */
+		@Override
+		public boolean hasSpace() {
+			return slabs.hasSpace();
+		}
+
+		/**
+		 * Waits until a slab is in flight or the pipe is closed.
+		 *
+		 * @return {@code true} if a slab is in flight, {@code false} if the pipe is both closed and empty
+		 */
+		@Override
+		public boolean hasNext() {
+			return slabs.hasNext();
+		}
+
+		/**
+		 * Returns an iterator over the slabs in flight. Each slab returned must be recycled with
+		 * {@link Source#release(ByteBuffer)}.
+		 *
+		 * @return an {@code Iterator} over the slabs in flight
+		 */
+		@Override
+		public Iterator<ByteBuffer> iterator() {
+			return slabs.iterator();
+		}
+
+		/**
+		 * Returns the slab currently being filled, taking a new one from the pool if there is none. Must be called
+		 * while holding the write lock.
+		 *
+		 * @return the current slab
+		 * @throws ClosedChannelException if the pipe is closed
+		 */
+		private ByteBuffer slab() throws ClosedChannelException {
+			if (slabs.isClosed()) {
+				throw new ClosedChannelException();
+			}
+			if (current == null) {
+				current = pool.get();
+			}
+			return current;
+		}
+
+		/**
+		 * Hands over the slab currently being filled if it contains any bytes. Must be called while holding the write
+		 * lock.
+		 *
+		 * @throws ClosedChannelException if the pipe is closed
+		 * @throws InterruptedIOException if the thread is interrupted while blocking, in which case the slab is kept
+		 * and handed over by the next write or flush
+		 */
+		private void handOver() throws IOException {
+			boolean handedOver;
+			try {
+				handedOver = flushSlab();
+			} catch (IllegalStateException e) {
+				throw new ClosedChannelException();
+			}
+			if (!handedOver) {
+				throw new InterruptedIOException();
+			}
+		}
+
+		/**
+		 * Hands over the slab currently being filled if it contains any bytes. Must be called while holding the write
+		 * lock. If the thread is interrupted while waiting, the slab is kept as the current slab so that no bytes are
+		 * lost.
+		 *
+		 * @return {@code true} if there was nothing to hand over or the slab was handed over, {@code false} if the
+		 * thread was interrupted
+		 * @throws IllegalStateException if the pipe is closed
+		 */
+		private boolean flushSlab() {
+			if (current == null || current.position() == 0) {
+				return true;
+			}
+			if (!awaitSpace()) {
+				return false;
+			}
+			ByteBuffer slab = current;
+			current = null;
+			slab.flip();
+			try {
+				slabs.send(slab);
+			} catch (IllegalStateException e) {
+				recycle(slab);
+				throw e;
+			}
+			return true;
+		}
+
+		/**
+		 * Waits until another slab can be handed over. Must be called while holding the write lock, so that no other
+		 * writer can take the space before the slab is sent.
+		 *
+		 * @return {@code true} if a slab can be handed over without waiting, {@code false} if the thread was
+		 * interrupted
+		 * @throws IllegalStateException if the pipe is closed
+		 */
+		private boolean awaitSpace() {
+			if (slabs.hasSpace()) {
+				return true;
+			}
+			if (slabs.isClosed()) {
+				throw new IllegalStateException("Channel is closed");
+			}
+			return false;
+		}
+
+		/**
+		 * The {@code PipeOutputStream} class provides an {@link OutputStream} view of the {@link Sink}.
+		 */
+		private class PipeOutputStream extends OutputStream {
+
+			@Override
+			public void write(int b) throws IOException {
+				writeLock.lock();
+				try {
+					ByteBuffer slab = slab();
+					slab.put((byte) b);
+					if (!slab.hasRemaining()) {
+						handOver();
+					}
+				} finally {
+					writeLock.unlock();
+				}
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				writeLock.lock();
+				try {
+					while (len > 0) {
+						ByteBuffer slab = slab();
+						int n = Math.min(slab.remaining(), len);
+						slab.put(b, off, n);
+						off += n;
+						len -= n;
+						if (!slab.hasRemaining()) {
+							handOver();
+						}
+					}
+				} finally {
+					writeLock.unlock();
+				}
+			}
+
+			@Override
+			public void flush() throws IOException {
+				writeLock.lock();
+				try {
+					handOver();
+				} finally {
+					writeLock.unlock();
+				}
+			}
+
+			@Override
+			public void close() throws IOException {
+				writeLock.lock();
+				try {
+					if (!slabs.isClosed()) {
+						handOver();
+					}
+				} finally {
+					writeLock.unlock();
+					Sink.this.close();
+				}
+			}
+		}
+	}
+
+	/**
+	 * The {@code Source} class is the reading end of a {@link Pipe}.
+	 * Slabs returned by {@link #receive()} are the exact buffers handed over by the writer and should be returned to the
+	 * pool with {@link #release(ByteBuffer)} once they have been consumed. The {@link #read(ByteBuffer)} and
+	 * {@link #inputStream()} views recycle slabs automatically.
+	 * <p>
+	 * Like the {@link Sink}, reads are serialized by a read lock held while they wait for the writer, and the status
+	 * methods do not take it, so checking the source, for example from a {@link Selector}, never waits behind a
+	 * blocked reader.
+	 */
+	public class Source implements InputChannel<ByteBuffer>, ReadableByteChannel {
+
+		private final ReentrantLock readLock = new ReentrantLock();
+		private volatile ByteBuffer current;
+
+		private Source() {}
+
+		/**
+		 * Receives the next filled slab, waiting if necessary for the writer to hand one over.
+		 * Returns {@code null} if it is interrupted while blocking.
+		 *
+		 * @return the next filled slab, flipped for reading
+		 * @throws NoSuchElementException if the pipe is closed and no slabs are in flight
+		 */
+		@Override
+		public ByteBuffer receive() {
+			readLock.lock();
+			try {
+				if (current != null) {
+					ByteBuffer slab = current;
+					current = null;
+					return slab;
+				}
+				return slabs.receive();
+			} finally {
+				readLock.unlock();
+			}
+		}
+
+		/**
+		 * Returns a slab received from this source to the pool so the writer can reuse it.
+		 *
+		 * @param slab the slab to release
+		 */
+		public void release(ByteBuffer slab) {
+			recycle(slab);
+		}
+
+		/**
+		 * Reads bytes from the pipe into the specified buffer, waiting if necessary for the writer to hand over a slab.
+		 * At most one slab is drained per call.
+		 *
+		 * @param dst the buffer into which bytes are to be transferred
+		 * @return the number of bytes read, or {@code -1} if the pipe is closed and no slabs are in flight
+		 * @throws InterruptedIOException if the thread is interrupted while blocking
+		 */
+		@Override
+		public int read(ByteBuffer dst) throws IOException {
+			if (!dst.hasRemaining()) {
+				return 0;
+			}
+			readLock.lock();
+			try {
+				ByteBuffer slab = slab();
+				if (slab == null) {
+					return -1;
+				}
+				int n = Math.min(slab.remaining(), dst.remaining());
+				dst.put(dst.position(), slab, slab.position(), n);
+				dst.position(dst.position() + n);
+				slab.position(slab.position() + n);
+				drained();
+				return n;
+			} finally {
+				readLock.unlock();
+			}
+		}
+
+		/**
+		 * Returns an {@link InputStream} view of this source.
+		 * Closing the stream closes this source.
+		 *
+		 * @return an input stream reading from this source
+		 */
+		public InputStream inputStream() {
+			return new PipeInputStream();
+		}
+
+		/**
+		 * Checks if the pipe is closed.
+		 *
+		 * @return {@code true} if the pipe is closed, {@code false} otherwise
+		 */
+		@Override
+		public boolean isClosed() {
+			return slabs.isClosed();
+		}
+
+		/**
+		 * Checks if this source is open.
+		 *
+		 * @return {@code true} if the pipe is not closed or still has slabs in flight, {@code false} otherwise
+		 */
+		@Override
+		public boolean isOpen() {
+			return current != null || !slabs.isClosed() || !slabs.isEmpty();
+		}
+
+		/**
+		 * Closes the pipe from the reading end and recycles every slab still in flight. A reader blocked waiting for the
+		 * writer is woken up and sees the end of the pipe, and the slabs are recycled once it is done.
+		 * Any further writes to the pipe will fail.
+		 */
+		@Override
+		public void close() {
+			slabs.close();
+			readLock.lock();
+			try {
+				if (current != null) {
+					recycle(current);
+					current = null;
+				}
+				while (!slabs.isEmpty()) {
+					recycle(slabs.receive());
+				}
+			} finally {
+				readLock.unlock();
+			}
+		}
+
+		/**
+		 * Checks if no slabs are in flight.
+		 *
+		 * @return {@code true} if no slabs are in flight, {@code false} otherwise
+		 */
+		@Override
+		public boolean isEmpty() {
+			return current == null && slabs.isEmpty();
+		}
+
+		/**
+		 * Checks if the maximum number of slabs are in flight.
+		 *
+		 * @return {@code true} if the maximum number of slabs are in flight, {@code false} otherwise
+		 */
+		@Override
+		public boolean isFull() {
+			return slabs.isFull();
+		}
+
+		/**
+		 * Waits until another slab can be handed over or the pipe is closed.
+		 *
+		 * @return {@code true} if another slab can be handed over, {@code false} if the pipe is closed
+		 */
+		@Override
+		public boolean hasSpace() {
+			return slabs.hasSpace();
+		}
+
+		/**
+		 * Waits until a slab is in flight or the pipe is closed.
+		 *
+		 * @return {@code true} if a slab is in flight, {@code false} if the pipe is both closed and empty
+		 */
+		@Override
+		public boolean hasNext() {
+			return current != null || slabs.hasNext();
+		}
+
+		/**
+		 * Returns an iterator over the slabs of this pipe. Each slab returned should be recycled with
+		 * {@link #release(ByteBuffer)}.
+		 *
+		 * @return an {@code Iterator} over the slabs of this pipe
+		 */
+		@Override
+		public Iterator<ByteBuffer> iterator() {
+			return new Iterator<>() {
+				@Override
+				public boolean hasNext() {
+					return Source.this.hasNext();
+				}
+
+				@Override
+				public ByteBuffer next() {
+					return receive();
+				}
+			};
+		}
+
+		/**
+		 * Returns the slab currently being read, receiving a new one if there is none. Must be called while holding the
+		 * read lock.
+		 *
+		 * @return the current slab, or {@code null} if the pipe is closed and no slabs are in flight
+		 * @throws InterruptedIOException if the thread is interrupted while blocking
+		 */
+		private ByteBuffer slab() throws InterruptedIOException {
+			if (current == null) {
+				if (!slabs.hasNext()) {
+					if (Thread.currentThread().isInterrupted()) {
+						throw new InterruptedIOException();
+					}
+					return null;
+				}
+				ByteBuffer slab;
+				try {
+					slab = slabs.receive();
+				} catch (NoSuchElementException e) {
+					return null;
+				}
+				if (slab == null) {
+					throw new InterruptedIOException();
+				}
+				current = slab;
+			}
+			return current;
+		}
+
+		/**
+		 * Recycles the slab currently being read if every byte in it has been read. Must be called while holding the
+		 * read lock.
+		 */
+		private void drained() {
+			if (!current.hasRemaining()) {
+				recycle(current);
+				current = null;
+			}
+		}
+
+		/**
+		 * The {@code PipeInputStream} class provides an {@link InputStream} view of the {@link Source}.
+		 */
+		private class PipeInputStream extends InputStream {
+
+			@Override
+			public int read() throws IOException {
+				readLock.lock();
+				try {
+					ByteBuffer slab = slab();
+					if (slab == null) {
+						return -1;
+					}
+					int b = slab.get() & 0xFF;
+					drained();
+					return b;
+				} finally {
+					readLock.unlock();
+				}
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				if (len == 0) {
+					return 0;
+				}
+				readLock.lock();
+				try {
+					ByteBuffer slab = slab();
+					if (slab == null) {
+						return -1;
+					}
+					int n = Math.min(slab.remaining(), len);
+					slab.get(b, off, n);
+					drained();
+					return n;
+				} finally {
+					readLock.unlock();
+				}
+			}
+
+			@Override
+			public int available() {
+				ByteBuffer slab = current;
+				return slab == null ? 0 : slab.remaining();
+			}
+
+			@Override
+			public void close() {
+				Source.this.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package io.javago;
+
+/**
+ * The {@code PollableChannel} interface defines the operations a channel must support to be watched without a thread.
+ * Instead of blocking in {@link #hasNext()}, a watcher registers a listener that is called whenever the channel may
+ * have become ready to receive from, and then takes messages with the non-blocking {@link #poll()}.
+ *
+ * @param <T> the type of messages handled by the channel
+ */
+interface PollableChannel<T> extends InputChannel<T> {
+
+	/**
+	 * Receives a message from the channel without blocking.
+	 *
+	 * @return the received message, or {@code null} if the channel is empty
+	 */
+	T poll();
+
+	/**
+	 * Registers a listener that is called whenever a message is sent to the channel or the channel is closed.
+	 * The listener is called while the channel is locked, so it must not block or operate on the channel.
+	 *
+	 * @param listener the listener to register
+	 */
+	void addListener(Runnable listener);
+
+	/**
+	 * Removes a listener registered with {@link #addListener(Runnable)}.
+	 *
+	 * @param listener the listener to remove
+	 */
+	void removeListener(Runnable listener);
+}
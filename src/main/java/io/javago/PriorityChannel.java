@@ -0,0 +1,583 @@
+package io.javago;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToIntFunction;
+
+/**
+ * The {@code PriorityChannel} class is an implementation of the {@link Channel} interface that delivers the most urgent
+ * message first instead of the oldest one.
+ * The urgency of a message is decided either by a {@link Comparator}, in which case the messages are kept in a heap, or
+ * by a small fixed number of priority levels, in which case each level is kept in its own lock-free ring and no lock
+ * is taken to send or receive a message unless the caller has to wait.
+ * Like {@link BufferedQueueChannel}, it has a bounded capacity shared by every level, supports closing, and can be
+ * used in a {@link Selector}.
+ * <p>
+ * With priority levels, an aging interval can be given so that messages waiting in a less urgent level are not
+ * starved: every time a message waits for the aging interval, it is treated as one level more urgent.
+ *
+ * @param <T> the type of messages handled by the channel
+ */
+public class PriorityChannel<T> implements Channel<T> {
+
+	private final Storage<T> storage;
+	private final int capacity;
+	private final AtomicInteger size = new AtomicInteger(0);
+	private volatile boolean closed = false;
+	private volatile int waitingSenders = 0;
+	private volatile int waitingReceivers = 0;
+
+	/**
+	 * Constructs a {@code PriorityChannel} with the specified capacity that delivers the smallest message according to
+	 * the comparator first.
+	 *
+	 * @param capacity the capacity of the channel
+	 * @param comparator the comparator deciding the order in which messages are received
+	 * @throws IllegalArgumentException if capacity is less than or equal to 0
+	 */
+	public PriorityChannel(int capacity, Comparator<? super T> comparator) {
+		this(capacity, new HeapStorage<>(capacity, comparator));
+	}
+
+	/**
+	 * Constructs a {@code PriorityChannel} with the specified capacity and amount of priority levels.
+	 * Level 0 is the most urgent, and messages with the same level are received in the order they were sent.
+	 *
+	 * @param capacity the capacity of the channel, shared by every level
+	 * @param levels the amount of priority levels
+	 * @param priority the function computing the level of a message
+	 * @throws IllegalArgumentException if capacity or levels is less than or equal to 0
+	 */
+	public PriorityChannel(int capacity, int levels, ToIntFunction<? super T> priority) {
+		this(capacity, levels, priority, Duration.ZERO);
+	}
+
+	/**
+	 * Constructs a {@code PriorityChannel} with the specified capacity, amount of priority levels, and aging interval.
+	 * Level 0 is the most urgent, and a message is treated as one level more urgent for every aging interval it has
+	 * waited.
+	 *
+	 * @param capacity the capacity of the channel, shared by every level
+	 * @param levels the amount of priority levels
+	 * @param priority the function computing the level of a message
+	 * @param aging the time after which a waiting message is promoted by one level, or {@link Duration#ZERO} to
+	 * disable aging
+	 * @throws IllegalArgumentException if capacity or levels is less than or equal to 0, or aging is negative
+	 */
+	public PriorityChannel(int capacity, int levels, ToIntFunction<? super T> priority, Duration aging) {
+		this(capacity, new LevelStorage<>(capacity, levels, priority, aging));
+	}
+
+	private PriorityChannel(int capacity, Storage<T> storage) {
+		this.capacity = capacity;
+		this.storage = storage;
+	}
+
+	/**
+	 * Sends a message through the channel. If the channel is full, this method blocks until space becomes available.
+	 * Returns immediately if it is interrupted while blocking.
+	 *
+	 * @param message the message to be sent
+	 * @throws IllegalStateException if the channel is closed
+	 * @throws IllegalArgumentException if the level of the message is out of range
+	 * @throws NullPointerException if the message is null
+	 */
+	@Override
+	public void send(T message) {
+		Objects.requireNonNull(message);
+		storage.check(message);
+		if (!reserve()) {
+			if (closed) {
+				throw new IllegalStateException("Channel is closed");
+			}
+			return;
+		}
+		storage.offer(message);
+		if (waitingReceivers > 0) {
+			synchronized (this) {
+				this.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Receives the most urgent message from the channel. If the channel is empty, this method blocks until a message
+	 * becomes available. Returns immediately if it is interrupted while blocking.
+	 *
+	 * @return the received message
+	 * @throws NoSuchElementException if the channel is closed and empty
+	 */
+	@Override
+	public T receive() {
+		while (true) {
+			T message = storage.poll();
+			if (message != null) {
+				size.decrementAndGet();
+				if (waitingSenders > 0) {
+					synchronized (this) {
+						this.notifyAll();
+					}
+				}
+				return message;
+			}
+			if (closed && size.get() == 0) {
+				throw new NoSuchElementException("Channel is closed and empty");
+			}
+			if (!awaitMessage()) {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Checks if the channel is closed.
+	 *
+	 * @return {@code true} if the channel is closed, {@code false} otherwise
+	 */
+	@Override
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Closes the channel.
+	 * Once closed, no more messages can be sent, but any remaining messages can still be received.
+	 * Closing an already closed channel has no effect.
+	 */
+	@Override
+	public synchronized void close() {
+		if (!closed) {
+			closed = true;
+			this.notifyAll();
+		}
+	}
+
+	/**
+	 * Checks if the channel is empty.
+	 *
+	 * @return {@code true} if the channel is empty, {@code false} otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size.get() == 0;
+	}
+
+	/**
+	 * Checks if the channel is full.
+	 *
+	 * @return {@code true} if the channel is full, {@code false} otherwise
+	 */
+	@Override
+	public boolean isFull() {
+		return size.get() >= capacity;
+	}
+
+	/**
+	 * Waits until the channel has space for another message or is closed. Returns immediately if it is interrupted
+	 * while blocking.
+	 *
+	 * @return {@code true} if the channel has space, {@code false} if the channel is closed
+	 */
+	@Override
+	public boolean hasSpace() {
+		while (true) {
+			if (closed) {
+				return false;
+			}
+			if (size.get() < capacity) {
+				return true;
+			}
+			if (!awaitSpace()) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Waits until the channel has another message or is closed. Returns immediately if it is interrupted while
+	 * blocking.
+	 *
+	 * @return {@code true} if there are more messages, {@code false} if the channel is empty and closed
+	 */
+	@Override
+	public boolean hasNext() {
+		while (true) {
+			if (size.get() > 0) {
+				return true;
+			}
+			if (closed) {
+				return false;
+			}
+			if (!awaitMessage()) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Returns an iterator over the elements in this channel, from the most urgent to the least urgent.
+	 *
+	 * @return an {@code Iterator} over the elements in this channel
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				return PriorityChannel.this.hasNext();
+			}
+
+			@Override
+			public T next() {
+				return receive();
+			}
+		};
+	}
+
+	/**
+	 * Reserves space for one message, waiting if necessary for space to become available.
+	 *
+	 * @return {@code true} if space was reserved, {@code false} if the channel is closed or the thread was interrupted
+	 */
+	private boolean reserve() {
+		while (true) {
+			if (closed) {
+				return false;
+			}
+			int current = size.get();
+			if (current < capacity) {
+				if (size.compareAndSet(current, current + 1)) {
+					if (closed) {
+						// Lost the race with close, so the reservation must not be counted by receivers.
+						size.decrementAndGet();
+						synchronized (this) {
+							this.notifyAll();
+						}
+						return false;
+					}
+					return true;
+				}
+			} else if (!awaitSpace()) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Waits until the channel is not full or is closed.
+	 *
+	 * @return {@code true} if it stopped waiting, {@code false} if the thread was interrupted
+	 */
+	private synchronized boolean awaitSpace() {
+		waitingSenders++;
+		try {
+			while (!closed && size.get() >= capacity) {
+				this.wait();
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			waitingSenders--;
+		}
+	}
+
+	/**
+	 * Waits until a message can be received or the channel is closed and empty.
+	 *
+	 * @return {@code true} if it stopped waiting, {@code false} if the thread was interrupted
+	 */
+	private synchronized boolean awaitMessage() {
+		waitingReceivers++;
+		try {
+			while (storage.isEmpty() && !(closed && size.get() == 0)) {
+				this.wait();
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			waitingReceivers--;
+		}
+	}
+
+	/**
+	 * The {@code Storage} interface defines how a {@link PriorityChannel} keeps its messages.
+	 * The channel reserves space before offering a message, so a storage never has to reject one.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 */
+	private interface Storage<T> {
+
+		/**
+		 * Validates a message before space is reserved for it.
+		 *
+		 * @param message the message to validate
+		 */
+		void check(T message);
+
+		/**
+		 * Adds a message for which space has been reserved.
+		 *
+		 * @param message the message to add
+		 */
+		void offer(T message);
+
+		/**
+		 * Removes the most urgent message without blocking.
+		 *
+		 * @return the most urgent message, or {@code null} if there are none
+		 */
+		T poll();
+
+		/**
+		 * Checks if no message can be polled.
+		 *
+		 * @return {@code true} if no message can be polled, {@code false} otherwise
+		 */
+		boolean isEmpty();
+	}
+
+	/**
+	 * The {@code HeapStorage} class keeps messages ordered by a comparator in a heap.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 */
+	private static class HeapStorage<T> implements Storage<T> {
+
+		private final PriorityQueue<T> heap;
+
+		private HeapStorage(int capacity, Comparator<? super T> comparator) {
+			if (capacity <= 0) {
+				throw new IllegalArgumentException("capacity must be greater than 0");
+			}
+			this.heap = new PriorityQueue<>(Math.min(capacity, 16), comparator);
+		}
+
+		@Override
+		public void check(T message) {}
+
+		@Override
+		public synchronized void offer(T message) {
+			heap.add(message);
+		}
+
+		@Override
+		public synchronized T poll() {
+			return heap.poll();
+		}
+
+		@Override
+		public synchronized boolean isEmpty() {
+			return heap.isEmpty();
+		}
+	}
+
+	/**
+	 * The {@code LevelStorage} class keeps the messages of each priority level in its own lock-free ring.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 */
+	private static class LevelStorage<T> implements Storage<T> {
+
+		private final Ring[] rings;
+		private final ToIntFunction<? super T> priority;
+		private final long agingNanos;
+
+		private LevelStorage(int capacity, int levels, ToIntFunction<? super T> priority, Duration aging) {
+			if (capacity <= 0) {
+				throw new IllegalArgumentException("capacity must be greater than 0");
+			}
+			if (levels <= 0) {
+				throw new IllegalArgumentException("levels must be greater than 0");
+			}
+			if (aging.isNegative()) {
+				throw new IllegalArgumentException("aging must not be negative");
+			}
+			this.rings = new Ring[levels];
+			for (int i = 0; i < levels; i++) {
+				rings[i] = new Ring(capacity);
+			}
+			this.priority = priority;
+			this.agingNanos = aging.toNanos();
+		}
+
+		@Override
+		public void check(T message) {
+			int level = priority.applyAsInt(message);
+			if (level < 0 || level >= rings.length) {
+				throw new IllegalArgumentException("priority level out of range: " + level);
+			}
+		}
+
+		@Override
+		public void offer(T message) {
+			Ring ring = rings[priority.applyAsInt(message)];
+			Object element = agingNanos > 0 ? new Aged(message, System.nanoTime()) : message;
+			while (!ring.offer(element)) {
+				// A receiver has claimed a slot but not released it yet.
+				Thread.onSpinWait();
+			}
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public T poll() {
+			if (agingNanos > 0) {
+				return pollAged();
+			}
+			for (Ring ring : rings) {
+				Object element = ring.poll();
+				if (element != null) {
+					return (T) element;
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			for (Ring ring : rings) {
+				if (ring.peek() != null) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Removes the message with the most urgent effective level, where the effective level of a message is its
+		 * level minus the amount of aging intervals it has waited.
+		 *
+		 * @return the most urgent message, or {@code null} if there are none
+		 */
+		@SuppressWarnings("unchecked")
+		private T pollAged() {
+			while (true) {
+				long now = System.nanoTime();
+				int best = -1;
+				long bestLevel = Long.MAX_VALUE;
+				for (int i = 0; i < rings.length; i++) {
+					Object head = rings[i].peek();
+					if (head != null) {
+						long level = i - (now - ((Aged) head).sentAt) / agingNanos;
+						if (level < bestLevel) {
+							best = i;
+							bestLevel = level;
+						}
+					}
+				}
+				if (best < 0) {
+					return null;
+				}
+				Object element = rings[best].poll();
+				if (element != null) {
+					return (T) ((Aged) element).message;
+				}
+			}
+		}
+
+		/**
+		 * A record that holds a message along with the time it was sent.
+		 *
+		 * @param message the message
+		 * @param sentAt the value of {@link System#nanoTime()} when the message was sent
+		 */
+		private record Aged(Object message, long sentAt) {}
+	}
+
+	/**
+	 * The {@code Ring} class is a bounded lock-free multi-producer multi-consumer queue in which every slot carries a
+	 * sequence number telling producers and consumers whose turn it is to use the slot.
+	 */
+	private static class Ring {
+
+		private final AtomicReferenceArray<Object> buffer;
+		private final AtomicLongArray sequences;
+		private final int mask;
+		private final AtomicLong enqueuePosition = new AtomicLong(0);
+		private final AtomicLong dequeuePosition = new AtomicLong(0);
+
+		private Ring(int capacity) {
+			int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+			this.buffer = new AtomicReferenceArray<>(size);
+			this.sequences = new AtomicLongArray(size);
+			this.mask = size - 1;
+			for (int i = 0; i < size; i++) {
+				sequences.set(i, i);
+			}
+		}
+
+		/**
+		 * Adds an element to the ring.
+		 *
+		 * @param element the element to add
+		 * @return {@code true} if the element was added, {@code false} if the ring is full
+		 */
+		private boolean offer(Object element) {
+			long position = enqueuePosition.get();
+			while (true) {
+				int index = (int) (position & mask);
+				long difference = sequences.get(index) - position;
+				if (difference == 0) {
+					if (enqueuePosition.compareAndSet(position, position + 1)) {
+						buffer.set(index, element);
+						sequences.set(index, position + 1);
+						return true;
+					}
+				} else if (difference < 0) {
+					return false;
+				}
+				position = enqueuePosition.get();
+			}
+		}
+
+		/**
+		 * Removes the oldest element from the ring.
+		 *
+		 * @return the oldest element, or {@code null} if the ring is empty
+		 */
+		private Object poll() {
+			long position = dequeuePosition.get();
+			while (true) {
+				int index = (int) (position & mask);
+				long difference = sequences.get(index) - (position + 1);
+				if (difference == 0) {
+					if (dequeuePosition.compareAndSet(position, position + 1)) {
+						Object element = buffer.get(index);
+						buffer.set(index, null);
+						sequences.set(index, position + mask + 1);
+						return element;
+					}
+				} else if (difference < 0) {
+					return null;
+				}
+				position = dequeuePosition.get();
+			}
+		}
+
+		/**
+		 * Returns the oldest element without removing it.
+		 *
+		 * @return the oldest element, or {@code null} if the ring is empty
+		 */
+		private Object peek() {
+			long position = dequeuePosition.get();
+			int index = (int) (position & mask);
+			if (sequences.get(index) == position + 1) {
+				return buffer.get(index);
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package io.javago;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * The {@code SegmentedQueue} class is a FIFO queue that stores its elements in a linked list of array segments.
+ * Segments are allocated as elements are added, starting small and doubling up to a maximum size, and each segment
+ * is released as soon as every element in it has been removed. The memory used by the queue therefore tracks the
+ * amount of elements in it, and an empty queue holds no segment at all.
+ * The queue is not thread-safe; {@link BufferedQueueChannel} only uses it while holding its lock.
+ *
+ * @param <T> the type of elements held in the queue
+ */
+final class SegmentedQueue<T> extends AbstractQueue<T> {
+
+	private static final int MIN_SEGMENT = 8;
+	private static final int MAX_SEGMENT = 1024;
+
+	private Segment head;
+	private Segment tail;
+	private int headIndex = 0;
+	private int tailIndex = 0;
+	private int size = 0;
+
+	/**
+	 * Adds an element at the tail of the queue, allocating a new segment if the tail segment is full.
+	 *
+	 * @param e the element to add
+	 * @return {@code true}
+	 * @throws NullPointerException if the element is {@code null}
+	 */
+	@Override
+	public boolean offer(T e) {
+		Objects.requireNonNull(e);
+		if (tail == null) {
+			head = tail = new Segment(MIN_SEGMENT);
+		} else if (tailIndex == tail.items.length) {
+			Segment next = new Segment(Math.min(MAX_SEGMENT, tail.items.length * 2));
+			tail.next = next;
+			tail = next;
+			tailIndex = 0;
+		}
+		tail.items[tailIndex++] = e;
+		size++;
+		return true;
+	}
+
+	/**
+	 * Removes the element at the head of the queue, releasing the head segment once it has been drained.
+	 *
+	 * @return the removed element, or {@code null} if the queue is empty
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T poll() {
+		if (size == 0) {
+			return null;
+		}
+		T e = (T) head.items[headIndex];
+		head.items[headIndex++] = null;
+		if (--size == 0) {
+			head = tail = null;
+			headIndex = tailIndex = 0;
+		} else if (headIndex == head.items.length) {
+			head = head.next;
+			headIndex = 0;
+		}
+		return e;
+	}
+
+	/**
+	 * Returns the element at the head of the queue without removing it.
+	 *
+	 * @return the element at the head, or {@code null} if the queue is empty
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T peek() {
+		return size == 0 ? null : (T) head.items[headIndex];
+	}
+
+	/**
+	 * Returns the amount of elements in the queue.
+	 *
+	 * @return the amount of elements in the queue
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns an iterator over the elements in the queue, from head to tail. The iterator does not support removal.
+	 *
+	 * @return an {@code Iterator} over the elements in the queue
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<>() {
+
+			private Segment segment = head;
+			private int index = headIndex;
+			private int remaining = size;
+
+			@Override
+			public boolean hasNext() {
+				return remaining > 0;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public T next() {
+				if (remaining == 0) {
+					throw new NoSuchElementException();
+				}
+				if (index == segment.items.length) {
+					segment = segment.next;
+					index = 0;
+				}
+				remaining--;
+				return (T) segment.items[index++];
+			}
+		};
+	}
+
+	/**
+	 * The {@code Segment} class holds a fixed-size array of elements and a link to the next segment.
+	 */
+	private static final class Segment {
+
+		private final Object[] items;
+		private Segment next;
+
+		/**
+		 * Constructs an empty {@code Segment}.
+		 *
+		 * @param size the amount of elements the segment can hold
+		 */
+		private Segment(int size) {
+			items = new Object[size];
+		}
+	}
+}
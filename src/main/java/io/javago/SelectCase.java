@@ -0,0 +1,41 @@
+package io.javago;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The {@code SelectCase} interface defines the operations the {@link Selector} class needs from each of its cases.
+ * When run as a {@link Runnable}, a case waits on its own virtual thread until it can be committed.
+ * When a case is already ready at the time the {@code Selector} is run, the {@code Selector} commits it without
+ * blocking on the calling thread instead.
+ * When the {@code Selector} is run asynchronously, a case registers a continuation instead of waiting on a thread.
+ */
+interface SelectCase extends Runnable {
+
+	/**
+	 * Checks, without blocking, if the case could be committed immediately.
+	 *
+	 * @return {@code true} if the case is ready, {@code false} otherwise
+	 */
+	boolean isReady();
+
+	/**
+	 * Attempts to commit the case without blocking, winning the {@link Selector}'s shared flag under the lock of its
+	 * channel. If the case cannot be committed without blocking, the flag is left unclaimed.
+	 *
+	 * @return the callback of the committed case, to be executed on the calling thread, or {@code null} if the case
+	 * could not be committed
+	 */
+	Runnable tryCommit();
+
+	/**
+	 * Registers the case with its channel or timer without blocking. Once the case can be committed and wins the
+	 * {@link Selector}'s shared flag, it is committed and its callback is executed, either inline by the thread that
+	 * made the case ready or on the specified executor.
+	 * Cancelling the returned future withdraws the case.
+	 *
+	 * @param executor the executor on which the callback is executed, or {@code null} to execute it inline
+	 * @return a future completed once the callback has been executed
+	 */
+	CompletableFuture<Void> fireAsync(Executor executor);
+}
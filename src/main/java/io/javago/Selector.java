@@ -1,7 +1,16 @@
 package io.javago;
 
+import io.javago.runtime.Goroutines;
+import io.javago.runtime.SelectEvent;
+import io.javago.runtime.TraceEvent;
+import io.javago.runtime.Tracer;
+import io.javago.runtime.Wait;
+
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
@@ -15,16 +24,19 @@ import java.util.function.Consumer;
  * This means that the amount of delayed cases in a {@code Selector} and their duration should be kept to a minimum.
  * When a case is executed, the virtual threads for all other tasks are interrupted and any pending tasks on them are
  * cancelled.
+ * Like Go, when several cases are ready at the time {@link #run} is called, one of them is chosen uniformly at random
+ * and run on the calling thread without starting any virtual threads, so no case can starve the others.
+ * Calling {@link #biased()} instead gives priority to the cases in the order they were added.
+ * Calling {@link #runAsync()} instead of {@link #run} returns immediately and registers each case as a small pending
+ * node on its channel, or on a shared timer for delayed cases, so no thread waits while the selector is pending.
  */
 public class Selector {
 
-	private final List<Thread> threads = new ArrayList<>();
-	private final List<Runnable> cases = new ArrayList<>();
+	private final List<SelectCase> cases = new ArrayList<>();
 	private final Channel<Integer> toCases = Channel.make();
-	private final List<InputChannel<?>> inputChannels = new ArrayList<>();
-	private final List<OutputChannel<?>> outputChannels = new ArrayList<>();
 	private final AtomicBoolean closed = new AtomicBoolean(false);
 	private Runnable defaultCase;
+	private boolean biased = false;
 
 	/**
 	 * Private constructor for creating instances of {@code Selector}. Use {@link #select()} method to instantiate.
@@ -52,7 +64,6 @@ public class Selector {
 	 */
 	public <T> Selector addCase(InputChannel<T> ch, Consumer<T> c) {
 		cases.add(new InputChannelCase<>(ch, c, toCases, cases.size(), closed));
-		inputChannels.add(ch);
 		return this;
 	}
 
@@ -68,7 +79,6 @@ public class Selector {
 	 */
 	public <T> Selector addCase(OutputChannel<T> ch, T message, Runnable r) {
 		cases.add(new OutputChannelCase<>(ch, message, r, toCases, cases.size(), closed));
-		outputChannels.add(ch);
 		return this;
 	}
 
@@ -100,9 +110,25 @@ public class Selector {
 		return this;
 	}
 
+	/**
+	 * Makes the selector prefer cases in the order they were added instead of choosing uniformly at random.
+	 * When several cases are ready, the one added first is run. This can starve the cases added later under sustained
+	 * load and should only be used when the cases have an explicit priority.
+	 *
+	 * @return this {@code Selector} instance for method chaining
+	 */
+	public Selector biased() {
+		biased = true;
+		return this;
+	}
+
 	/**
 	 * Executes the selector logic.
-	 * Creates a virtual thread for each case.
+	 * If any case is ready, one of the ready cases is chosen uniformly at random, or the first one if the selector is
+	 * {@link #biased()}, committed without blocking and run on the calling thread. A case is only committed this way
+	 * if its channel is a {@link BufferedQueueChannel}, since other channels cannot be operated on without blocking.
+	 * Otherwise, the default case is run if there is one and no case is ready, or a virtual thread is created for
+	 * each case.
 	 * In the event that one of the cases is a {@link DelayedCase}, the delayed case will also reserve a platform thread
 	 * until either another case in the {@code Selector} or the delayed case's method is completed.
 	 * This means that the amount of delayed cases in a {@code Selector} and their duration should be kept to a minimum.
@@ -110,34 +136,173 @@ public class Selector {
 	 * are cancelled.
 	 */
 	public void run() {
-		if (defaultCase != null) {
-			boolean goToDefaultCase = true;
-			for (InputChannel<?> ch : inputChannels) {
-				if (!ch.isEmpty()) {
-					goToDefaultCase = false;
+		SelectEvent event = SelectEvent.start();
+		Committed committed = commitReadyCase();
+		if (committed != null) {
+			toCases.close();
+			SelectEvent.finish(event, cases.size(), committed.index());
+			Tracer.record(TraceEvent.SELECT, this, committed.index());
+			committed.callback().run();
+			return;
+		}
+		if (defaultCase != null && !anyReady()) {
+			toCases.close();
+			SelectEvent.finish(event, cases.size(), -1);
+			Tracer.record(TraceEvent.SELECT, this, -1);
+			defaultCase.run();
+			return;
+		}
+
+		int offset = biased || cases.isEmpty() ? 0 : ThreadLocalRandom.current().nextInt(cases.size());
+		Thread[] threads = new Thread[cases.size()];
+		for (int i = 0; i < cases.size(); i++) {
+			int id = (offset + i) % cases.size();
+			threads[id] = Thread.ofVirtual().start(Goroutines.wrap(cases.get(id)));
+		}
+		Wait blocked = Wait.begin(this, "select");
+		int runningThreadId;
+		try {
+			runningThreadId = toCases.receive();
+		} finally {
+			Wait.end(blocked);
+		}
+		SelectEvent.finish(event, cases.size(), runningThreadId);
+		Tracer.record(TraceEvent.SELECT, this, runningThreadId);
+		for (int i = 0; i < threads.length; i++) {
+			if (i != runningThreadId) {
+				threads[i].interrupt();
+			}
+		}
+		toCases.receive();
+		toCases.close();
+	}
+
+	/**
+	 * Executes the selector logic asynchronously, running the winning case's callback inline on the thread that made
+	 * it ready.
+	 *
+	 * @return a future completed once the winning case's callback has been executed
+	 * @see #runAsync(Executor)
+	 */
+	public CompletableFuture<Void> runAsync() {
+		return runAsync(null);
+	}
+
+	/**
+	 * Executes the selector logic asynchronously.
+	 * If any case can be committed without blocking, or if there is a default case and no case is ready, it is chosen
+	 * like {@link #run} does and only its callback is executed, inline or on the executor.
+	 * Otherwise, every case is registered with its channel or timer without blocking, and the first case that can be
+	 * committed wins. The pending registrations of the other cases are then withdrawn. Only a case whose channel
+	 * cannot keep a pending registration waits, on a virtual thread of its own.
+	 * Cancelling the returned future withdraws every case.
+	 *
+	 * @param executor the executor on which the winning case's callback is executed, or {@code null} to execute it
+	 * inline
+	 * @return a future completed once the winning case's callback has been executed
+	 */
+	public CompletableFuture<Void> runAsync(Executor executor) {
+		toCases.close();
+		Committed committed = commitReadyCase();
+		if (committed != null) {
+			return execute(committed.callback(), executor);
+		}
+		if (defaultCase != null && !anyReady()) {
+			return execute(defaultCase, executor);
+		}
+
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		List<CompletableFuture<Void>> pending = new ArrayList<>(cases.size());
+		int offset = biased || cases.isEmpty() ? 0 : ThreadLocalRandom.current().nextInt(cases.size());
+		for (int i = 0; i < cases.size(); i++) {
+			CompletableFuture<Void> future = cases.get((offset + i) % cases.size()).fireAsync(executor);
+			pending.add(future);
+			future.whenComplete((v, e) -> {
+				if (e == null) {
+					result.complete(null);
+				} else {
+					result.completeExceptionally(e);
 				}
+			});
+		}
+		result.whenComplete((v, e) -> {
+			for (CompletableFuture<Void> future : pending) {
+				future.cancel(false);
 			}
-			for (OutputChannel<?> ch : outputChannels) {
-				if (!ch.isClosed() && !ch.isFull()) {
-					goToDefaultCase = false;
+		});
+		return result;
+	}
+
+	/**
+	 * Executes a callback chosen without waiting, inline or on the specified executor.
+	 *
+	 * @param callback the callback to execute
+	 * @param executor the executor on which the callback is executed, or {@code null} to execute it inline
+	 * @return a future completed once the callback has been executed
+	 */
+	private static CompletableFuture<Void> execute(Runnable callback, Executor executor) {
+		if (executor != null) {
+			return CompletableFuture.runAsync(callback, executor);
+		}
+		try {
+			callback.run();
+			return CompletableFuture.completedFuture(null);
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	/**
+	 * Commits one of the ready cases without blocking.
+	 * Unless the selector is biased, every ready case has the same probability of being chosen. A case that can no
+	 * longer be committed by the time it is chosen, because another thread got to its channel first or because its
+	 * channel cannot be operated on without blocking, is skipped and another ready case is chosen.
+	 *
+	 * @return the committed case, or {@code null} if no case could be committed
+	 */
+	private Committed commitReadyCase() {
+		int[] ready = null;
+		int readyCount = 0;
+		for (int i = 0; i < cases.size(); i++) {
+			if (cases.get(i).isReady()) {
+				if (ready == null) {
+					ready = new int[cases.size() - i];
 				}
+				ready[readyCount++] = i;
 			}
-			if (goToDefaultCase) {
-				defaultCase.run();
-				return;
+		}
+		while (readyCount > 0) {
+			int chosen = biased ? 0 : ThreadLocalRandom.current().nextInt(readyCount);
+			int id = ready[chosen];
+			Runnable callback = cases.get(id).tryCommit();
+			if (callback != null) {
+				return new Committed(id, callback);
 			}
+			System.arraycopy(ready, chosen + 1, ready, chosen, readyCount - chosen - 1);
+			readyCount--;
 		}
+		return null;
+	}
 
-		for (Runnable r : cases) {
-			threads.add(Thread.ofVirtual().start(r));
-		}
-		int runningThreadId = toCases.receive();
-		for (int i = 0; i < threads.size(); i++) {
-			if (i != runningThreadId) {
-				threads.get(i).interrupt();
+	/**
+	 * Checks, without blocking, if any case is ready.
+	 *
+	 * @return {@code true} if a case is ready, {@code false} otherwise
+	 */
+	private boolean anyReady() {
+		for (SelectCase c : cases) {
+			if (c.isReady()) {
+				return true;
 			}
 		}
-		toCases.receive();
-		toCases.close();
+		return false;
 	}
+
+	/**
+	 * A record that holds a case committed without blocking.
+	 *
+	 * @param index the index of the case in the order the cases were added
+	 * @param callback the callback of the case, to be executed on the calling thread
+	 */
+	private record Committed(int index, Runnable callback) {}
 }
@@ -0,0 +1,472 @@
+package io.javago;
+
+import io.javago.runtime.Wait;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
+
+/**
+ * The {@code ShardedChannel} class is an implementation of the {@link Channel} interface for work queues that need
+ * eventual delivery but not a global order. Its messages are spread over several shards, each with its own lock and
+ * its own share of the capacity, so that producers and consumers on different threads rarely contend.
+ * A thread sends to its home shard, chosen from its thread identifier, and only moves on to the other shards when its
+ * home shard is full. A thread receives from its home shard first and steals from the other shards when it is empty.
+ * <p>
+ * Messages sent by one thread are received in the order they were sent as long as they stay in the same shard, but
+ * messages sent by different threads may be received in any order. The channel is full only when every shard is full,
+ * and empty only when every shard is empty, so it never holds more than its capacity.
+ *
+ * @param <T> the type of messages handled by the channel
+ */
+public class ShardedChannel<T> implements Channel<T> {
+
+	private final Shard<T>[] shards;
+	private volatile boolean closed = false;
+	private volatile boolean sealed = false;
+	private volatile int waitingSenders = 0;
+	private volatile int waitingReceivers = 0;
+
+	/**
+	 * Constructs a {@code ShardedChannel} with the specified capacity and one shard per available processor.
+	 *
+	 * @param capacity the capacity of the channel, shared by every shard
+	 * @throws IllegalArgumentException if capacity is less than or equal to 0
+	 */
+	public ShardedChannel(int capacity) {
+		this(capacity, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs a {@code ShardedChannel} with the specified capacity and amount of shards.
+	 * The capacity is split evenly between the shards, and there are never more shards than the capacity.
+	 *
+	 * @param capacity the capacity of the channel, shared by every shard
+	 * @param shards the amount of shards
+	 * @throws IllegalArgumentException if capacity or shards is less than or equal to 0
+	 */
+	@SuppressWarnings("unchecked")
+	public ShardedChannel(int capacity, int shards) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be greater than 0");
+		}
+		if (shards <= 0) {
+			throw new IllegalArgumentException("shards must be greater than 0");
+		}
+		int n = Math.min(capacity, shards);
+		this.shards = (Shard<T>[]) new Shard<?>[n];
+		for (int i = 0; i < n; i++) {
+			this.shards[i] = new Shard<>(capacity / n + (i < capacity % n ? 1 : 0));
+		}
+	}
+
+	/**
+	 * Sends a message through the channel. If every shard is full, this method blocks until space becomes available.
+	 * Returns immediately if it is interrupted while blocking.
+	 *
+	 * @param message the message to be sent
+	 * @throws IllegalStateException if the channel is closed
+	 * @throws NullPointerException if the message is null
+	 */
+	@Override
+	public void send(T message) {
+		Objects.requireNonNull(message);
+		int home = home();
+		Wait blocked = null;
+		try {
+			while (true) {
+				for (int i = 0; i < shards.length; i++) {
+					int offered = shards[(home + i) % shards.length].offer(message, this);
+					if (offered > 0) {
+						if (waitingReceivers > 0) {
+							synchronized (this) {
+								this.notifyAll();
+							}
+						}
+						return;
+					} else if (offered < 0) {
+						throw new IllegalStateException("Channel is closed");
+					}
+				}
+				if (blocked == null) {
+					blocked = Wait.begin(this, "chan send");
+				}
+				if (!awaitSpace()) {
+					return;
+				}
+			}
+		} finally {
+			Wait.end(blocked);
+		}
+	}
+
+	/**
+	 * Receives a message from the channel, from the home shard of the calling thread if it has one and from another
+	 * shard otherwise. If every shard is empty, this method blocks until a message becomes available. Returns
+	 * immediately if it is interrupted while blocking.
+	 *
+	 * @return the received message
+	 * @throws NoSuchElementException if the channel is closed and empty
+	 */
+	@Override
+	public T receive() {
+		int home = home();
+		Wait blocked = null;
+		try {
+			while (true) {
+				T message = poll(home);
+				if (message != null) {
+					return message;
+				}
+				if (sealed && isEmpty()) {
+					throw new NoSuchElementException("Channel is closed and empty");
+				}
+				if (blocked == null) {
+					blocked = Wait.begin(this, "chan receive");
+				}
+				if (!awaitMessage()) {
+					return null;
+				}
+			}
+		} finally {
+			Wait.end(blocked);
+		}
+	}
+
+	/**
+	 * Waits until the channel has another message or is closed, then receives up to the specified amount of messages
+	 * without waiting any further and adds them to the collection, taking each shard's lock once per shard.
+	 * Returns immediately if it is interrupted while blocking.
+	 *
+	 * @param c the collection to add the received messages to
+	 * @param maxMessages the maximum amount of messages to receive
+	 * @return the amount of messages received, which is {@code 0} only if the channel is both closed and empty or the
+	 * thread was interrupted while waiting
+	 */
+	@Override
+	public int drainTo(Collection<? super T> c, int maxMessages) {
+		int home = home();
+		int received = 0;
+		while (maxMessages > 0 && received == 0 && hasNext()) {
+			for (int i = 0; i < shards.length && received < maxMessages; i++) {
+				received += shards[(home + i) % shards.length].drainTo(c, maxMessages - received);
+			}
+		}
+		if (received > 0 && waitingSenders > 0) {
+			synchronized (this) {
+				this.notifyAll();
+			}
+		}
+		return received;
+	}
+
+	/**
+	 * Checks if the channel is closed.
+	 *
+	 * @return {@code true} if the channel is closed, {@code false} otherwise
+	 */
+	@Override
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Closes the channel.
+	 * Once closed, no more messages can be sent, but any remaining messages can still be received.
+	 * Closing an already closed channel has no effect.
+	 */
+	@Override
+	public void close() {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+		}
+		for (Shard<T> shard : shards) {
+			shard.awaitSends();
+		}
+		synchronized (this) {
+			sealed = true;
+			this.notifyAll();
+		}
+	}
+
+	/**
+	 * Checks if every shard of the channel is empty.
+	 *
+	 * @return {@code true} if the channel is empty, {@code false} otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		for (Shard<T> shard : shards) {
+			if (shard.size > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if every shard of the channel is full.
+	 *
+	 * @return {@code true} if the channel is full, {@code false} otherwise
+	 */
+	@Override
+	public boolean isFull() {
+		for (Shard<T> shard : shards) {
+			if (shard.size < shard.capacity) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Waits until the channel has space for another message or is closed. Returns immediately if it is interrupted
+	 * while blocking.
+	 *
+	 * @return {@code true} if the channel has space, {@code false} if the channel is closed
+	 */
+	@Override
+	public boolean hasSpace() {
+		Wait blocked = null;
+		try {
+			while (true) {
+				if (closed) {
+					return false;
+				}
+				if (!isFull()) {
+					return true;
+				}
+				if (blocked == null) {
+					blocked = Wait.begin(this, "chan send");
+				}
+				if (!awaitSpace()) {
+					return false;
+				}
+			}
+		} finally {
+			Wait.end(blocked);
+		}
+	}
+
+	/**
+	 * Waits until the channel has another message or is closed. Returns immediately if it is interrupted while
+	 * blocking.
+	 *
+	 * @return {@code true} if there are more messages, {@code false} if the channel is empty and closed
+	 */
+	@Override
+	public boolean hasNext() {
+		Wait blocked = null;
+		try {
+			while (true) {
+				if (!isEmpty()) {
+					return true;
+				}
+				if (sealed) {
+					return false;
+				}
+				if (blocked == null) {
+					blocked = Wait.begin(this, "chan receive");
+				}
+				if (!awaitMessage()) {
+					return false;
+				}
+			}
+		} finally {
+			Wait.end(blocked);
+		}
+	}
+
+	/**
+	 * Returns an iterator over the elements in this channel.
+	 *
+	 * @return an {@code Iterator} over the elements in this channel
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				return ShardedChannel.this.hasNext();
+			}
+
+			@Override
+			public T next() {
+				return receive();
+			}
+		};
+	}
+
+	/**
+	 * Returns the amount of shards of the channel.
+	 *
+	 * @return the amount of shards
+	 */
+	public int shards() {
+		return shards.length;
+	}
+
+	/**
+	 * Returns the home shard of the calling thread, spreading consecutive thread identifiers over the shards.
+	 *
+	 * @return the index of the home shard
+	 */
+	private int home() {
+		long hash = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+		return (int) ((hash >>> 32) % shards.length);
+	}
+
+	/**
+	 * Receives a message without blocking, from the home shard first and then from the other shards.
+	 *
+	 * @param home the index of the home shard
+	 * @return the received message, or {@code null} if every shard was empty
+	 */
+	private T poll(int home) {
+		for (int i = 0; i < shards.length; i++) {
+			Shard<T> shard = shards[(home + i) % shards.length];
+			if (shard.size == 0) {
+				continue;
+			}
+			T message = shard.poll();
+			if (message != null) {
+				if (waitingSenders > 0) {
+					synchronized (this) {
+						this.notifyAll();
+					}
+				}
+				return message;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Waits until a shard is not full or the channel is closed.
+	 *
+	 * @return {@code true} if it stopped waiting, {@code false} if the thread was interrupted
+	 */
+	private synchronized boolean awaitSpace() {
+		waitingSenders++;
+		try {
+			while (!closed && isFull()) {
+				this.wait();
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			waitingSenders--;
+		}
+	}
+
+	/**
+	 * Waits until a shard has a message or the channel is closed and empty.
+	 *
+	 * @return {@code true} if it stopped waiting, {@code false} if the thread was interrupted
+	 */
+	private synchronized boolean awaitMessage() {
+		waitingReceivers++;
+		try {
+			while (isEmpty() && !sealed) {
+				this.wait();
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			waitingReceivers--;
+		}
+	}
+
+	/**
+	 * The {@code Shard} class holds the messages of one shard and its share of the capacity.
+	 * Its size is written while holding its lock and read without it, so that empty and full shards can be skipped
+	 * without locking them.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 */
+	private static final class Shard<T> {
+
+		private final Queue<T> queue;
+		private final int capacity;
+		private volatile int size = 0;
+
+		/**
+		 * Constructs an empty {@code Shard}, with its storage chosen like the one of a {@link BufferedQueueChannel}.
+		 *
+		 * @param capacity the amount of messages the shard can hold
+		 */
+		private Shard(int capacity) {
+			this.capacity = capacity;
+			this.queue = capacity <= BufferedQueueChannel.PREALLOCATED_CAPACITY
+				? new ArrayDeque<>(capacity)
+				: new SegmentedQueue<>();
+		}
+
+		/**
+		 * Waits for a send in progress on the shard to finish. A send that saw the channel open while holding the
+		 * shard's lock has added its message once the lock is released, so once the channel is closed and every
+		 * shard has been waited for, no more messages can be added.
+		 */
+		private synchronized void awaitSends() {}
+
+		/**
+		 * Adds a message if the shard has space and the channel is open.
+		 *
+		 * @param message the message to add
+		 * @param channel the channel of the shard
+		 * @return {@code 1} if the message was added, {@code 0} if the shard is full, {@code -1} if the channel is
+		 * closed
+		 */
+		private synchronized int offer(T message, ShardedChannel<T> channel) {
+			if (channel.closed) {
+				return -1;
+			}
+			if (size >= capacity) {
+				return 0;
+			}
+			queue.add(message);
+			size = size + 1;
+			return 1;
+		}
+
+		/**
+		 * Removes the oldest message of the shard.
+		 *
+		 * @return the removed message, or {@code null} if the shard is empty
+		 */
+		private synchronized T poll() {
+			T message = queue.poll();
+			if (message != null) {
+				size = size - 1;
+			}
+			return message;
+		}
+
+		/**
+		 * Removes up to the specified amount of messages and adds them to the collection.
+		 *
+		 * @param c the collection to add the removed messages to
+		 * @param maxMessages the maximum amount of messages to remove
+		 * @return the amount of messages removed
+		 */
+		private synchronized int drainTo(Collection<? super T> c, int maxMessages) {
+			int drained = 0;
+			while (drained < maxMessages && !queue.isEmpty()) {
+				c.add(queue.poll());
+				drained++;
+			}
+			size = size - drained;
+			return drained;
+		}
+	}
+}
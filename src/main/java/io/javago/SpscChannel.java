@@ -0,0 +1,435 @@
+package io.javago;
+
+import io.javago.runtime.Wait;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code SpscChannel} class is an implementation of the {@link Channel} interface for a hop between exactly one
+ * sending goroutine and one receiving goroutine.
+ * Its messages are kept in a lock-free ring. The index of the next message to receive and the index of the next
+ * message to send are each kept on their own cache lines and published with release stores, and each side keeps a
+ * cached copy of the other side's index so that it only reads the other side's cache line when the ring looks empty or
+ * full. Sending and receiving therefore take no lock and, while the ring is neither empty nor full, touch no cache line
+ * written by the other side.
+ * <p>
+ * At most one thread may send and at most one thread may receive at any time, although the sending and receiving
+ * threads may change over time if the hand-over is synchronized. Violations of this contract are not detected by
+ * default and corrupt the channel; when the {@code javago.debug} system property is set to {@code true}, a send or
+ * receive that overlaps another one throws an {@link IllegalStateException}.
+ * <p>
+ * A thread that has to wait spins briefly, then yields, then parks until the other side wakes it up. Because indices
+ * are published with release stores rather than full fences, a wake-up can be missed if it races with the waiting
+ * thread going to sleep, so the first park of a wait is bounded and the thread checks the ring again when it ends.
+ * The channel should be closed by the sending goroutine: a send that races with a close by another thread may be
+ * lost.
+ *
+ * @param <T> the type of messages handled by the channel
+ */
+public class SpscChannel<T> implements Channel<T> {
+
+	private static final boolean DEBUG = Boolean.getBoolean("javago.debug");
+	private static final VarHandle INDICES = MethodHandles.arrayElementVarHandle(long[].class);
+	private static final int PAD = 16;
+	private static final int HEAD = PAD;
+	private static final int TAIL_CACHE = PAD + 1;
+	private static final int TAIL = 3 * PAD;
+	private static final int HEAD_CACHE = 3 * PAD + 1;
+	private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 1 << 10 : 0;
+	private static final int YIELDS = 8;
+	private static final long FIRST_PARK_NANOS = 50_000;
+
+	private final Object[] ring;
+	private final int mask;
+	private final int capacity;
+	private final long[] indices = new long[5 * PAD];
+	private volatile boolean closed = false;
+	private volatile Thread waitingSender;
+	private volatile Thread waitingReceiver;
+	private final AtomicBoolean sending = DEBUG ? new AtomicBoolean() : null;
+	private final AtomicBoolean receiving = DEBUG ? new AtomicBoolean() : null;
+
+	/**
+	 * Constructs a {@code SpscChannel} with the specified capacity.
+	 *
+	 * @param capacity the capacity of the channel
+	 * @throws IllegalArgumentException if capacity is less than or equal to 0 or greater than {@code 2^30}
+	 */
+	public SpscChannel(int capacity) {
+		if (capacity <= 0 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("capacity must be greater than 0 and at most 2^30");
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		this.ring = new Object[size];
+		this.mask = size - 1;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Sends a message through the channel. If the channel is full, this method waits until space becomes available.
+	 * Returns immediately if it is interrupted while waiting.
+	 *
+	 * @param message the message to be sent
+	 * @throws IllegalStateException if the channel is closed, or if another send is in progress in debug mode
+	 * @throws NullPointerException if the message is null
+	 */
+	@Override
+	public void send(T message) {
+		Objects.requireNonNull(message);
+		enter(sending, "send");
+		try {
+			if (closed) {
+				throw new IllegalStateException("Channel is closed");
+			}
+			long tail = indices[TAIL];
+			if (tail - indices[HEAD_CACHE] >= capacity) {
+				indices[HEAD_CACHE] = (long) INDICES.getAcquire(indices, HEAD);
+				if (tail - indices[HEAD_CACHE] >= capacity && !awaitSpace(tail)) {
+					if (closed) {
+						throw new IllegalStateException("Channel is closed");
+					}
+					return;
+				}
+			}
+			ring[(int) tail & mask] = message;
+			INDICES.setRelease(indices, TAIL, tail + 1);
+			Thread receiver = waitingReceiver;
+			if (receiver != null) {
+				LockSupport.unpark(receiver);
+			}
+		} finally {
+			exit(sending);
+		}
+	}
+
+	/**
+	 * Receives a message from the channel. If the channel is empty, this method waits until a message becomes
+	 * available. Returns immediately if it is interrupted while waiting.
+	 *
+	 * @return the received message
+	 * @throws NoSuchElementException if the channel is closed and empty
+	 * @throws IllegalStateException if another receive is in progress in debug mode
+	 */
+	@Override
+	public T receive() {
+		enter(receiving, "receive");
+		try {
+			long head = indices[HEAD];
+			if (head >= indices[TAIL_CACHE] && !awaitMessage(head)) {
+				if (Thread.currentThread().isInterrupted()) {
+					return null;
+				}
+				throw new NoSuchElementException("Channel is closed and empty");
+			}
+			return take(head);
+		} finally {
+			exit(receiving);
+		}
+	}
+
+	/**
+	 * Waits until the channel has another message or is closed, then receives up to the specified amount of messages
+	 * without waiting any further and adds them to the collection, publishing the new index once for the whole batch.
+	 * Returns immediately if it is interrupted while waiting.
+	 *
+	 * @param c the collection to add the received messages to
+	 * @param maxMessages the maximum amount of messages to receive
+	 * @return the amount of messages received, which is {@code 0} only if the channel is both closed and empty or the
+	 * thread was interrupted while waiting
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public int drainTo(Collection<? super T> c, int maxMessages) {
+		if (maxMessages <= 0) {
+			return 0;
+		}
+		enter(receiving, "receive");
+		try {
+			long head = indices[HEAD];
+			if (head >= indices[TAIL_CACHE] && !awaitMessage(head)) {
+				return 0;
+			}
+			long end = Math.min(indices[TAIL_CACHE], head + maxMessages);
+			for (long i = head; i < end; i++) {
+				int slot = (int) i & mask;
+				c.add((T) ring[slot]);
+				ring[slot] = null;
+			}
+			release(end);
+			return (int) (end - head);
+		} finally {
+			exit(receiving);
+		}
+	}
+
+	/**
+	 * Checks if the channel is closed.
+	 *
+	 * @return {@code true} if the channel is closed, {@code false} otherwise
+	 */
+	@Override
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Closes the channel and wakes up the waiting sender and receiver.
+	 * Once closed, no more messages can be sent, but any remaining messages can still be received.
+	 * Closing an already closed channel has no effect.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		LockSupport.unpark(waitingSender);
+		LockSupport.unpark(waitingReceiver);
+	}
+
+	/**
+	 * Checks if the channel is empty.
+	 *
+	 * @return {@code true} if the channel is empty, {@code false} otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		return (long) INDICES.getAcquire(indices, HEAD) >= (long) INDICES.getAcquire(indices, TAIL);
+	}
+
+	/**
+	 * Checks if the channel is full.
+	 *
+	 * @return {@code true} if the channel is full, {@code false} otherwise
+	 */
+	@Override
+	public boolean isFull() {
+		return (long) INDICES.getAcquire(indices, TAIL) - (long) INDICES.getAcquire(indices, HEAD) >= capacity;
+	}
+
+	/**
+	 * Waits until the channel has space for another message or is closed. Returns immediately if it is interrupted
+	 * while waiting. Must only be called by the sending thread.
+	 *
+	 * @return {@code true} if the channel has space, {@code false} if the channel is closed
+	 */
+	@Override
+	public boolean hasSpace() {
+		long tail = indices[TAIL];
+		if (tail - indices[HEAD_CACHE] >= capacity) {
+			indices[HEAD_CACHE] = (long) INDICES.getAcquire(indices, HEAD);
+			if (tail - indices[HEAD_CACHE] >= capacity) {
+				return awaitSpace(tail);
+			}
+		}
+		return !closed;
+	}
+
+	/**
+	 * Waits until the channel has another message or is closed. Returns immediately if it is interrupted while
+	 * waiting. Must only be called by the receiving thread.
+	 *
+	 * @return {@code true} if there are more messages, {@code false} if the channel is empty and closed
+	 */
+	@Override
+	public boolean hasNext() {
+		long head = indices[HEAD];
+		return head < indices[TAIL_CACHE] || awaitMessage(head);
+	}
+
+	/**
+	 * Returns an iterator over the elements in this channel. Must only be used by the receiving thread.
+	 *
+	 * @return an {@code Iterator} over the elements in this channel
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				return SpscChannel.this.hasNext();
+			}
+
+			@Override
+			public T next() {
+				return receive();
+			}
+		};
+	}
+
+	/**
+	 * Takes the message at the specified index, which must have been published, and publishes the next index.
+	 *
+	 * @param head the index of the message
+	 * @return the message
+	 */
+	@SuppressWarnings("unchecked")
+	private T take(long head) {
+		int slot = (int) head & mask;
+		T message = (T) ring[slot];
+		ring[slot] = null;
+		release(head + 1);
+		return message;
+	}
+
+	/**
+	 * Publishes the index of the next message to receive and wakes up the sender if it waits for space.
+	 *
+	 * @param head the index of the next message to receive
+	 */
+	private void release(long head) {
+		INDICES.setRelease(indices, HEAD, head);
+		Thread sender = waitingSender;
+		if (sender != null) {
+			LockSupport.unpark(sender);
+		}
+	}
+
+	/**
+	 * Waits until the message at the specified index has been published or the channel is closed and empty, and
+	 * refreshes the cached index of the sender.
+	 *
+	 * @param head the index of the next message to receive
+	 * @return {@code true} if a message can be received, {@code false} if the channel is closed and empty or the thread
+	 * was interrupted
+	 */
+	private boolean awaitMessage(long head) {
+		if (hasMessage(head)) {
+			return true;
+		}
+		Wait blocked = Wait.begin(this, "chan receive");
+		try {
+			for (int i = 0; i < SPINS + YIELDS; i++) {
+				if (i < SPINS) {
+					Thread.onSpinWait();
+				} else {
+					Thread.yield();
+				}
+				if (hasMessage(head)) {
+					return true;
+				} else if (closed) {
+					return hasMessage(head);
+				}
+			}
+			waitingReceiver = Thread.currentThread();
+			try {
+				long park = FIRST_PARK_NANOS;
+				while (!hasMessage(head)) {
+					if (closed) {
+						return hasMessage(head);
+					}
+					if (Thread.currentThread().isInterrupted()) {
+						return false;
+					}
+					if (park > 0) {
+						LockSupport.parkNanos(this, park);
+						park = 0;
+					} else {
+						LockSupport.park(this);
+					}
+				}
+				return true;
+			} finally {
+				waitingReceiver = null;
+			}
+		} finally {
+			Wait.end(blocked);
+		}
+	}
+
+	/**
+	 * Checks if the message at the specified index has been published, refreshing the cached index of the sender.
+	 *
+	 * @param head the index of the next message to receive
+	 * @return {@code true} if the message has been published
+	 */
+	private boolean hasMessage(long head) {
+		long tail = (long) INDICES.getAcquire(indices, TAIL);
+		indices[TAIL_CACHE] = tail;
+		return head < tail;
+	}
+
+	/**
+	 * Waits until the slot at the specified index has been released by the receiver or the channel is closed, and
+	 * refreshes the cached index of the receiver.
+	 *
+	 * @param tail the index of the next message to send
+	 * @return {@code true} if the channel has space, {@code false} if the channel is closed or the thread was
+	 * interrupted
+	 */
+	private boolean awaitSpace(long tail) {
+		Wait blocked = Wait.begin(this, "chan send");
+		try {
+			int i = 0;
+			while (!hasSpace(tail)) {
+				if (closed || Thread.currentThread().isInterrupted()) {
+					return false;
+				}
+				if (i < SPINS) {
+					Thread.onSpinWait();
+				} else if (i < SPINS + YIELDS) {
+					Thread.yield();
+				} else if (i == SPINS + YIELDS) {
+					waitingSender = Thread.currentThread();
+					LockSupport.parkNanos(this, FIRST_PARK_NANOS);
+				} else {
+					LockSupport.park(this);
+				}
+				i++;
+			}
+			return !closed;
+		} finally {
+			waitingSender = null;
+			Wait.end(blocked);
+		}
+	}
+
+	/**
+	 * Checks if the slot at the specified index has been released by the receiver, refreshing the cached index of the
+	 * receiver.
+	 *
+	 * @param tail the index of the next message to send
+	 * @return {@code true} if the channel has space for the message
+	 */
+	private boolean hasSpace(long tail) {
+		long head = (long) INDICES.getAcquire(indices, HEAD);
+		indices[HEAD_CACHE] = head;
+		return tail - head < capacity;
+	}
+
+	/**
+	 * Marks the start of a send or receive in debug mode.
+	 *
+	 * @param side the flag of the side, or {@code null} if debug mode is disabled
+	 * @param operation the operation starting
+	 * @throws IllegalStateException if another operation of the same side is in progress
+	 */
+	private static void enter(AtomicBoolean side, String operation) {
+		if (side != null && !side.compareAndSet(false, true)) {
+			throw new IllegalStateException(
+				"Concurrent " + operation + " on a single-producer single-consumer channel"
+			);
+		}
+	}
+
+	/**
+	 * Marks the end of a send or receive in debug mode.
+	 *
+	 * @param side the flag of the side, or {@code null} if debug mode is disabled
+	 */
+	private static void exit(AtomicBoolean side) {
+		if (side != null) {
+			side.set(false);
+		}
+	}
+}
@@ -0,0 +1,389 @@
+package io.javago;
+
+import io.javago.runtime.Wait;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The {@code Task} class is a handle to a goroutine started by {@link Go#go(Callable)} that computes a result.
+ * The goroutine can be joined, with or without a timeout, and cancelled, which interrupts it if it is running.
+ * <p>
+ * A task is also the channel its result is sent to: once the task completes, its result is the only message of the
+ * channel, which is then closed. {@link #result()} returns the task as an {@link InputChannel} so that it can be
+ * received from, for example in a {@link Selector} case alongside other channels. Since the task is its own
+ * {@code Runnable}, its own result holder and its own channel, starting a task allocates no other object.
+ * <p>
+ * If the task throws, {@link #join()} and {@link #receive()} rethrow the {@link RuntimeException} or {@link Error} it
+ * threw, or a {@link CompletionException} wrapping a checked exception. If the task is cancelled before it
+ * completes, they throw a {@link CancellationException}.
+ *
+ * @param <T> the type of the result of the task
+ */
+public final class Task<T> implements InputChannel<T>, Runnable {
+
+	private static final int NEW = 0;
+	private static final int RUNNING = 1;
+	private static final int SUCCEEDED = 2;
+	private static final int FAILED = 3;
+	private static final int CANCELLED = 4;
+
+	/**
+	 * Most tasks are joined shortly before or after they complete, so joining first waits adaptively before blocking.
+	 */
+	private static final WaitStrategy WAIT_STRATEGY = WaitStrategy.adaptive();
+
+	private static final VarHandle STATE;
+	private static final VarHandle TAKEN;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			STATE = lookup.findVarHandle(Task.class, "state", int.class);
+			TAKEN = lookup.findVarHandle(Task.class, "taken", boolean.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private Callable<T> callable;
+	private volatile int state = NEW;
+	private volatile boolean taken = false;
+	private volatile int waiters = 0;
+	private Thread runner;
+	private Object outcome;
+
+	/**
+	 * Constructs a {@code Task} that computes its result with the specified {@link Callable} once it is run.
+	 *
+	 * @param callable the computation of the result
+	 */
+	Task(Callable<T> callable) {
+		this.callable = callable;
+	}
+
+	/**
+	 * Runs the task on the calling thread. Called by the goroutine started by {@link Go#go(Callable)}.
+	 * Has no effect if the task was already run or cancelled.
+	 */
+	@Override
+	public void run() {
+		runner = Thread.currentThread();
+		if (!STATE.compareAndSet(this, NEW, RUNNING)) {
+			runner = null;
+			return;
+		}
+		Callable<T> c = callable;
+		callable = null;
+		int completed;
+		try {
+			outcome = c.call();
+			completed = SUCCEEDED;
+		} catch (Throwable e) {
+			outcome = e;
+			completed = FAILED;
+		}
+		if (!STATE.compareAndSet(this, RUNNING, completed)) {
+			// Cancelled while running: wait for cancel() to deliver its interrupt, then clear it so that it does not
+			// leak into whatever the thread runs next.
+			synchronized (this) {
+				runner = null;
+			}
+			Thread.interrupted();
+			outcome = null;
+		} else {
+			runner = null;
+		}
+		signal();
+	}
+
+	/**
+	 * Waits for the task to complete and returns its result. Returns {@code null} if it is interrupted while waiting.
+	 *
+	 * @return the result of the task
+	 * @throws CancellationException if the task was cancelled
+	 * @throws CompletionException if the task threw a checked exception
+	 */
+	public T join() {
+		if (!await(false, 0)) {
+			return null;
+		}
+		return report();
+	}
+
+	/**
+	 * Waits at most the specified duration for the task to complete and returns its result. Returns {@code null} if it
+	 * is interrupted while waiting.
+	 *
+	 * @param timeout the maximum duration to wait
+	 * @return the result of the task
+	 * @throws TimeoutException if the task did not complete in time
+	 * @throws CancellationException if the task was cancelled
+	 * @throws CompletionException if the task threw a checked exception
+	 */
+	public T join(Duration timeout) throws TimeoutException {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		if (!await(true, deadline)) {
+			if (Thread.currentThread().isInterrupted()) {
+				return null;
+			}
+			throw new TimeoutException("Task did not complete within " + timeout);
+		}
+		return report();
+	}
+
+	/**
+	 * Cancels the task if it has not completed yet. A task that has not started never runs, and a running task is
+	 * interrupted and its result discarded.
+	 *
+	 * @return {@code true} if the task was cancelled by this call, {@code false} if it had already completed or been
+	 * cancelled
+	 */
+	public boolean cancel() {
+		if (STATE.compareAndSet(this, NEW, CANCELLED)) {
+			callable = null;
+			signal();
+			return true;
+		}
+		synchronized (this) {
+			if (!STATE.compareAndSet(this, RUNNING, CANCELLED)) {
+				return false;
+			}
+			Thread thread = runner;
+			if (thread != null) {
+				thread.interrupt();
+			}
+		}
+		signal();
+		return true;
+	}
+
+	/**
+	 * Checks if the task has completed, normally, by throwing, or by being cancelled.
+	 *
+	 * @return {@code true} if the task has completed, {@code false} otherwise
+	 */
+	public boolean isDone() {
+		return state >= SUCCEEDED;
+	}
+
+	/**
+	 * Checks if the task was cancelled before it completed.
+	 *
+	 * @return {@code true} if the task was cancelled, {@code false} otherwise
+	 */
+	public boolean isCancelled() {
+		return state == CANCELLED;
+	}
+
+	/**
+	 * Returns the channel the result of the task is sent to, which is the task itself.
+	 *
+	 * @return the channel the result of the task is sent to
+	 */
+	public InputChannel<T> result() {
+		return this;
+	}
+
+	/**
+	 * Waits for the task to complete and receives its result. The result can be received only once, even though
+	 * {@link #join()} can still return it afterward. Returns {@code null} if it is interrupted while waiting.
+	 *
+	 * @return the result of the task
+	 * @throws NoSuchElementException if the result was already received
+	 * @throws CancellationException if the task was cancelled
+	 * @throws CompletionException if the task threw a checked exception
+	 */
+	@Override
+	public T receive() {
+		if (!await(false, 0)) {
+			return null;
+		}
+		if (!TAKEN.compareAndSet(this, false, true)) {
+			throw new NoSuchElementException("Channel is closed and empty");
+		}
+		return report();
+	}
+
+	/**
+	 * Checks if the task has completed, which closes its channel.
+	 *
+	 * @return {@code true} if the task has completed, {@code false} otherwise
+	 */
+	@Override
+	public boolean isClosed() {
+		return isDone();
+	}
+
+	/**
+	 * Cancels the task if it has not completed yet, which closes its channel.
+	 *
+	 * @see #cancel()
+	 */
+	@Override
+	public void close() {
+		cancel();
+	}
+
+	/**
+	 * Checks if there is no result to receive, either because the task has not completed or because its result was
+	 * already received.
+	 *
+	 * @return {@code true} if there is no result to receive, {@code false} otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		return !isDone() || taken;
+	}
+
+	/**
+	 * Checks if the result of the task is waiting to be received.
+	 *
+	 * @return {@code true} if the result is waiting to be received, {@code false} otherwise
+	 */
+	@Override
+	public boolean isFull() {
+		return !isEmpty();
+	}
+
+	/**
+	 * Waits for the task to complete, since nothing can be sent to its channel. Returns immediately if it is
+	 * interrupted while waiting.
+	 *
+	 * @return {@code false}, since the channel is closed once the task has completed
+	 */
+	@Override
+	public boolean hasSpace() {
+		await(false, 0);
+		return false;
+	}
+
+	/**
+	 * Waits for the task to complete. Returns immediately if it is interrupted while waiting.
+	 *
+	 * @return {@code true} if the result is waiting to be received, {@code false} if it was already received or the
+	 * thread was interrupted
+	 */
+	@Override
+	public boolean hasNext() {
+		return await(false, 0) && !taken;
+	}
+
+	/**
+	 * Returns an iterator over the result of the task, which blocks until the task completes.
+	 *
+	 * @return an {@code Iterator} over the result of the task
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<>() {
+
+			@Override
+			public boolean hasNext() {
+				return Task.this.hasNext();
+			}
+
+			@Override
+			public T next() {
+				return receive();
+			}
+		};
+	}
+
+	/**
+	 * Returns a string describing the state of the task.
+	 *
+	 * @return a string describing the state of the task
+	 */
+	@Override
+	public String toString() {
+		String status = switch (state) {
+			case NEW -> "new";
+			case RUNNING -> "running";
+			case SUCCEEDED -> "succeeded";
+			case FAILED -> "failed";
+			default -> "cancelled";
+		};
+		return "Task[" + status + "]";
+	}
+
+	/**
+	 * Waits until the task has completed, or until the deadline if there is one. Without a deadline, waits as decided
+	 * by the shared adaptive {@link WaitStrategy} before blocking.
+	 *
+	 * @param timed {@code true} to stop waiting at the deadline, {@code false} to wait without one
+	 * @param deadline the {@link System#nanoTime()} after which to stop waiting, ignored if not timed
+	 * @return {@code true} if the task has completed, {@code false} if the deadline passed or the thread was
+	 * interrupted
+	 */
+	private boolean await(boolean timed, long deadline) {
+		if (isDone() || !timed && WAIT_STRATEGY.await(this::isDone)) {
+			return true;
+		}
+		Wait blocked = Wait.begin(this, "chan receive");
+		try {
+			synchronized (this) {
+				waiters++;
+				try {
+					while (!isDone()) {
+						if (!timed) {
+							this.wait();
+						} else {
+							long remaining = deadline - System.nanoTime();
+							if (remaining <= 0) {
+								return false;
+							}
+							this.wait(remaining / 1_000_000, (int) (remaining % 1_000_000));
+						}
+					}
+					return true;
+				} finally {
+					waiters--;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			Wait.end(blocked);
+		}
+	}
+
+	/**
+	 * Wakes up the threads waiting for the task to complete, if there are any.
+	 */
+	private void signal() {
+		if (waiters > 0) {
+			synchronized (this) {
+				this.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Returns the result of the completed task, or throws what it threw.
+	 *
+	 * @return the result of the task
+	 */
+	@SuppressWarnings("unchecked")
+	private T report() {
+		int s = state;
+		if (s == SUCCEEDED) {
+			return (T) outcome;
+		} else if (s == CANCELLED) {
+			throw new CancellationException("Task was cancelled");
+		} else if (outcome instanceof RuntimeException e) {
+			throw e;
+		} else if (outcome instanceof Error e) {
+			throw e;
+		}
+		throw new CompletionException((Throwable) outcome);
+	}
+}
@@ -0,0 +1,87 @@
+package io.javago;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * The {@code WaitStrategies} class holds the implementations of {@link WaitStrategy}.
+ */
+final class WaitStrategies {
+
+	/**
+	 * The strategy that blocks right away.
+	 */
+	static final WaitStrategy BLOCKING = ready -> false;
+
+	/**
+	 * The strategy that spins until the channel is ready or the calling thread is interrupted.
+	 */
+	static final WaitStrategy BUSY_SPIN = ready -> {
+		Thread thread = Thread.currentThread();
+		while (!ready.getAsBoolean()) {
+			if (thread.isInterrupted()) {
+				return false;
+			}
+			Thread.onSpinWait();
+		}
+		return true;
+	};
+
+	private WaitStrategies() {}
+
+	/**
+	 * The {@code Adaptive} class spins, then yields, then blocks, adapting its spin count to the recent waits.
+	 * The spin count is read and written without synchronization: concurrent waits may overwrite each other's update,
+	 * which only delays the adaptation. On a single processor, spinning can only delay the thread that would make the
+	 * channel ready, so the strategy only yields.
+	 */
+	static final class Adaptive implements WaitStrategy {
+
+		private static final boolean SPIN = Runtime.getRuntime().availableProcessors() > 1;
+		private static final int MIN_SPINS = 1 << 4;
+		private static final int MAX_SPINS = 1 << 14;
+		private static final int YIELDS = 8;
+
+		private int spins = 1 << 8;
+
+		/**
+		 * Spins up to the learned spin count, then yields a few times, and updates the spin count from the outcome.
+		 *
+		 * @param ready checks without locking the channel whether it may be ready
+		 * @return {@code true} if the channel became ready, {@code false} if the calling thread should block
+		 */
+		@Override
+		public boolean await(BooleanSupplier ready) {
+			Thread thread = Thread.currentThread();
+			int limit = SPIN ? spins : 0;
+			for (int i = 0; i < limit; i++) {
+				if (ready.getAsBoolean()) {
+					spins = clamp((3 * limit + 2 * i) / 4);
+					return true;
+				}
+				if (thread.isInterrupted()) {
+					return false;
+				}
+				Thread.onSpinWait();
+			}
+			for (int i = 0; i < YIELDS; i++) {
+				Thread.yield();
+				if (ready.getAsBoolean()) {
+					spins = clamp(2 * spins);
+					return true;
+				}
+			}
+			spins = clamp(spins / 2);
+			return false;
+		}
+
+		/**
+		 * Bounds a spin count.
+		 *
+		 * @param spins the spin count
+		 * @return the spin count, bounded by the minimum and maximum spin counts
+		 */
+		private static int clamp(int spins) {
+			return Math.max(MIN_SPINS, Math.min(MAX_SPINS, spins));
+		}
+	}
+}
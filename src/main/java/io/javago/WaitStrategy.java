@@ -0,0 +1,58 @@
+package io.javago;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * The {@code WaitStrategy} interface defines how a thread waits for a channel created by
+ * {@link Channel#make(int, WaitStrategy)} to become ready before it blocks on the channel.
+ * Blocking parks the thread until another thread wakes it up, which costs tens of microseconds per wake-up. A
+ * spinning strategy keeps the thread running and watching the channel instead, trading CPU time for latency, so it
+ * should only be chosen for the channels on a latency-critical path.
+ * <p>
+ * A strategy only decides how long to wait before blocking: if it gives up, the thread blocks as it would with
+ * {@link #blocking()}, so every strategy sends and receives the same messages in the same order.
+ */
+public interface WaitStrategy {
+
+	/**
+	 * Waits until the channel is ready or until the strategy decides the calling thread should block instead.
+	 * Called without holding the channel's lock.
+	 *
+	 * @param ready checks without locking the channel whether it may be ready, and may see a stale state
+	 * @return {@code true} if the channel became ready, {@code false} if the calling thread should block
+	 */
+	boolean await(BooleanSupplier ready);
+
+	/**
+	 * Returns the strategy that blocks right away, which is the default of every channel.
+	 * It uses no CPU time while waiting, at the cost of the latency of waking up the blocked thread.
+	 *
+	 * @return the blocking strategy
+	 */
+	static WaitStrategy blocking() {
+		return WaitStrategies.BLOCKING;
+	}
+
+	/**
+	 * Returns a new strategy that spins, then yields, then blocks, and learns from the recent waits of its channel how
+	 * long to spin: a wait that ends while spinning keeps the spin count close to its length, a wait that ends while
+	 * yielding doubles the spin count, and a wait that ends blocked halves it.
+	 * Each channel should be given its own instance, since the spin count is learned per strategy.
+	 *
+	 * @return a new adaptive strategy
+	 */
+	static WaitStrategy adaptive() {
+		return new WaitStrategies.Adaptive();
+	}
+
+	/**
+	 * Returns the strategy that spins with {@link Thread#onSpinWait()} until the channel is ready or the calling thread
+	 * is interrupted. It gives the lowest latency but keeps a core busy for as long as the thread waits, and pins the
+	 * carrier of a virtual thread, so it is meant for platform threads on dedicated cores.
+	 *
+	 * @return the busy-spin strategy
+	 */
+	static WaitStrategy busySpin() {
+		return WaitStrategies.BUSY_SPIN;
+	}
+}
@@ -0,0 +1,277 @@
+package io.javago.actor;
+
+import io.javago.OutputChannel;
+import io.javago.runtime.Wait;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The {@code Actor} class is an actor spawned by an {@link ActorSystem}: an {@link OutputChannel} whose messages are
+ * processed one at a time by a {@link Behavior}.
+ * <p>
+ * The mailbox of an actor is an unbounded multiple-producer single-consumer queue, so sending a message never blocks
+ * and costs an atomic swap. An actor is only scheduled on the executor of its system when a message is sent to its
+ * empty mailbox, so an idle actor holds no thread. Once scheduled, it processes up to the throughput of its system
+ * and then yields the executor to other actors, scheduling itself again if messages remain.
+ * <p>
+ * Closing an actor stops it from accepting messages. The messages already in its mailbox are still processed, after
+ * which the actor terminates. If its behavior throws, the actor terminates right away and drops its remaining
+ * messages; the exception is then available from {@link #failure()}.
+ *
+ * @param <M> the type of messages processed by the actor
+ */
+public final class Actor<M> extends Mailbox<M> implements OutputChannel<M> {
+
+	private static final int SCHEDULED = 1;
+	private static final int CLOSED = 2;
+	private static final int TERMINATED = 4;
+
+	private static final VarHandle STATE;
+
+	static {
+		try {
+			STATE = MethodHandles.lookup().findVarHandle(Actor.class, "state", int.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Behavior<M> behavior;
+	private final Executor executor;
+	private final int throughput;
+	private final Runnable activation = this::activate;
+	private volatile int state = 0;
+	private volatile Throwable failure;
+
+	/**
+	 * Constructs an idle {@code Actor}.
+	 *
+	 * @param behavior the behavior processing the messages
+	 * @param executor the executor the actor is scheduled on
+	 * @param throughput the maximum amount of messages processed per activation
+	 */
+	Actor(Behavior<M> behavior, Executor executor, int throughput) {
+		this.behavior = behavior;
+		this.executor = executor;
+		this.throughput = throughput;
+	}
+
+	/**
+	 * Sends a message to the actor without blocking, scheduling the actor if it is idle.
+	 * A message sent concurrently with {@link #close()} may be dropped if the actor terminates before it is enqueued.
+	 *
+	 * @param message the message to be sent
+	 * @throws IllegalStateException if the actor is closed
+	 * @throws NullPointerException if the message is null
+	 */
+	@Override
+	public void send(M message) {
+		Objects.requireNonNull(message);
+		if ((state & CLOSED) != 0) {
+			throw new IllegalStateException("Channel is closed");
+		}
+		offer(message);
+		schedule();
+	}
+
+	/**
+	 * Sends a message to the actor, which never blocks.
+	 *
+	 * @param message the message to be sent
+	 * @return a future already completed, or already completed exceptionally with an {@link IllegalStateException} if
+	 * the actor is closed
+	 */
+	@Override
+	public CompletableFuture<Void> sendAsync(M message) {
+		try {
+			send(message);
+			return CompletableFuture.completedFuture(null);
+		} catch (IllegalStateException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	/**
+	 * Checks if the actor is closed, in which case it accepts no more messages.
+	 *
+	 * @return {@code true} if the actor is closed, {@code false} otherwise
+	 */
+	@Override
+	public boolean isClosed() {
+		return (state & CLOSED) != 0;
+	}
+
+	/**
+	 * Closes the actor. The messages already in its mailbox are processed, then the actor terminates.
+	 * Closing an already closed actor has no effect.
+	 */
+	@Override
+	public void close() {
+		int s;
+		do {
+			s = state;
+			if ((s & CLOSED) != 0) {
+				return;
+			}
+		} while (!STATE.compareAndSet(this, s, s | CLOSED));
+		schedule();
+	}
+
+	/**
+	 * Checks if the mailbox of the actor is empty. The result is only a snapshot when called by another thread than
+	 * the one running the behavior.
+	 *
+	 * @return {@code true} if the mailbox is empty, {@code false} otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		return isMailboxEmpty();
+	}
+
+	/**
+	 * An actor's mailbox is unbounded, so it is never full.
+	 *
+	 * @return {@code false}
+	 */
+	@Override
+	public boolean isFull() {
+		return false;
+	}
+
+	/**
+	 * Checks if the actor accepts messages, which never requires waiting since its mailbox is unbounded.
+	 *
+	 * @return {@code true} if the actor is open, {@code false} if it is closed
+	 */
+	@Override
+	public boolean hasSpace() {
+		return !isClosed();
+	}
+
+	/**
+	 * Checks if messages are waiting to be processed. Does not wait, since the messages are received by the behavior
+	 * rather than by the callers of this method.
+	 *
+	 * @return {@code true} if the mailbox is not empty, {@code false} otherwise
+	 */
+	@Override
+	public boolean hasNext() {
+		return !isMailboxEmpty();
+	}
+
+	/**
+	 * Returns an empty iterator, since the messages are received by the behavior.
+	 *
+	 * @return an empty {@code Iterator}
+	 */
+	@Override
+	public Iterator<M> iterator() {
+		return Collections.emptyIterator();
+	}
+
+	/**
+	 * Checks if the actor has terminated, either after being closed and processing its remaining messages, or
+	 * because its behavior threw.
+	 *
+	 * @return {@code true} if the actor has terminated, {@code false} otherwise
+	 */
+	public boolean isTerminated() {
+		return (state & TERMINATED) != 0;
+	}
+
+	/**
+	 * Returns the exception thrown by the behavior, which terminated the actor.
+	 *
+	 * @return the exception thrown by the behavior, or {@code null} if it has not thrown
+	 */
+	public Throwable failure() {
+		return failure;
+	}
+
+	/**
+	 * Waits until the actor has terminated. Returns immediately if it is interrupted while waiting.
+	 */
+	public void awaitTermination() {
+		if (isTerminated()) {
+			return;
+		}
+		Wait blocked = Wait.begin(this, "actor termination");
+		try {
+			synchronized (this) {
+				while (!isTerminated()) {
+					this.wait();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			Wait.end(blocked);
+		}
+	}
+
+	/**
+	 * Schedules the actor on the executor unless it is already scheduled or has terminated.
+	 */
+	private void schedule() {
+		int s;
+		do {
+			s = state;
+			if ((s & (SCHEDULED | TERMINATED)) != 0) {
+				return;
+			}
+		} while (!STATE.compareAndSet(this, s, s | SCHEDULED));
+		executor.execute(activation);
+	}
+
+	/**
+	 * Processes up to the throughput of messages, then either schedules the actor again if messages remain,
+	 * terminates it if it is closed and its mailbox is empty, or leaves it idle.
+	 */
+	private void activate() {
+		for (int i = 0; i < throughput; i++) {
+			M message = poll();
+			if (message == null) {
+				break;
+			}
+			try {
+				behavior.receive(this, message);
+			} catch (RuntimeException | Error e) {
+				failure = e;
+				STATE.getAndBitwiseOr(this, CLOSED);
+				clear();
+				terminate();
+				return;
+			}
+		}
+		if (!isMailboxEmpty()) {
+			executor.execute(activation);
+			return;
+		}
+		if (isClosed()) {
+			terminate();
+			return;
+		}
+		STATE.getAndBitwiseAnd(this, ~SCHEDULED);
+		// A message sent after the mailbox was found empty but before the actor became idle saw it scheduled, so
+		// the actor must schedule itself for it. The same goes for a close.
+		if (!isMailboxEmpty() || isClosed()) {
+			schedule();
+		}
+	}
+
+	/**
+	 * Terminates the actor and wakes up the threads waiting for it.
+	 */
+	private void terminate() {
+		STATE.getAndBitwiseOr(this, TERMINATED);
+		synchronized (this) {
+			this.notifyAll();
+		}
+	}
+}
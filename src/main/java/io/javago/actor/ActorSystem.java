@@ -0,0 +1,89 @@
+package io.javago.actor;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The {@code ActorSystem} class spawns {@link Actor}s that share an executor.
+ * By default, the executor is a {@link ForkJoinPool} in asynchronous mode with a worker per processor, so that
+ * actors scheduled by a worker are run in the order they were scheduled, and idle workers steal scheduled actors
+ * from busy ones. An actor holds a thread of the executor only while it processes messages.
+ * <p>
+ * The throughput of a system is the maximum amount of messages an actor processes per activation before it yields
+ * the executor to other actors. A higher throughput amortizes the cost of scheduling over more messages, while a
+ * lower one makes busy actors delay the other actors less.
+ */
+public final class ActorSystem implements AutoCloseable {
+
+	/**
+	 * The throughput of a system constructed without one.
+	 */
+	public static final int DEFAULT_THROUGHPUT = 32;
+
+	private final Executor executor;
+	private final ForkJoinPool ownedPool;
+	private final int throughput;
+
+	/**
+	 * Constructs an {@code ActorSystem} running its actors on its own {@link ForkJoinPool} with the default
+	 * throughput. The pool is shut down when the system is closed.
+	 */
+	public ActorSystem() {
+		this.ownedPool = new ForkJoinPool(
+			Runtime.getRuntime().availableProcessors(),
+			ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+			null,
+			true
+		);
+		this.executor = ownedPool;
+		this.throughput = DEFAULT_THROUGHPUT;
+	}
+
+	/**
+	 * Constructs an {@code ActorSystem} running its actors on the specified executor, which is left running when the
+	 * system is closed.
+	 *
+	 * @param executor the executor the actors are scheduled on
+	 * @param throughput the maximum amount of messages an actor processes per activation
+	 * @throws IllegalArgumentException if throughput is less than or equal to 0
+	 */
+	public ActorSystem(Executor executor, int throughput) {
+		if (throughput <= 0) {
+			throw new IllegalArgumentException("throughput must be greater than 0");
+		}
+		this.executor = Objects.requireNonNull(executor);
+		this.ownedPool = null;
+		this.throughput = throughput;
+	}
+
+	/**
+	 * Spawns an idle actor with the specified behavior.
+	 *
+	 * @param <M> the type of messages processed by the actor
+	 * @param behavior the behavior processing the messages of the actor
+	 * @return the new actor
+	 */
+	public <M> Actor<M> spawn(Behavior<M> behavior) {
+		return new Actor<>(Objects.requireNonNull(behavior), executor, throughput);
+	}
+
+	/**
+	 * Returns the maximum amount of messages an actor processes per activation.
+	 *
+	 * @return the throughput of the system
+	 */
+	public int throughput() {
+		return throughput;
+	}
+
+	/**
+	 * Shuts down the pool of the system if it created it. Actors scheduled after the pool is shut down are rejected.
+	 */
+	@Override
+	public void close() {
+		if (ownedPool != null) {
+			ownedPool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package io.javago.actor;
+
+/**
+ * The {@code Behavior} interface defines how an {@link Actor} processes its messages.
+ * The behavior of an actor is never run concurrently with itself, so it can keep state without synchronization.
+ * It should not block, since it runs on the shared executor of its {@link ActorSystem}: blocking work is better
+ * handed over to a goroutine, which can tell the actor the outcome.
+ *
+ * @param <M> the type of messages processed by the actor
+ */
+@FunctionalInterface
+public interface Behavior<M> {
+
+	/**
+	 * Processes a message. If this method throws, the actor stops and its remaining messages are dropped.
+	 *
+	 * @param self the actor processing the message
+	 * @param message the message to process
+	 */
+	void receive(Actor<M> self, M message);
+}
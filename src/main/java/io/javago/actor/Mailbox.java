@@ -0,0 +1,107 @@
+package io.javago.actor;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * The {@code Mailbox} class is a lock-free, unbounded, multiple-producer single-consumer queue of messages.
+ * Producers append a node by swapping the tail and then linking the previous tail to it, so an offer costs a single
+ * atomic swap whatever the contention. The consumer follows the links from the head without any atomic operation.
+ * <p>
+ * Between the swap and the link, a message is in the queue but not yet visible to the consumer, which sees the queue
+ * as empty until the producer has linked it. The producer is expected to check whether the consumer needs to be
+ * scheduled only after its offer has returned.
+ *
+ * @param <M> the type of messages in the mailbox
+ */
+class Mailbox<M> {
+
+	private static final VarHandle TAIL;
+
+	static {
+		try {
+			TAIL = MethodHandles.lookup().findVarHandle(Mailbox.class, "tail", Node.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private Node<M> head;
+	@SuppressWarnings("unused")
+	private volatile Node<M> tail;
+
+	/**
+	 * Constructs an empty {@code Mailbox}.
+	 */
+	Mailbox() {
+		head = new Node<>(null);
+		tail = head;
+	}
+
+	/**
+	 * Appends a message. May be called by any thread.
+	 *
+	 * @param message the message to append
+	 */
+	final void offer(M message) {
+		Node<M> node = new Node<>(message);
+		@SuppressWarnings("unchecked")
+		Node<M> previous = (Node<M>) TAIL.getAndSet(this, node);
+		previous.next = node;
+	}
+
+	/**
+	 * Removes the first message. Must only be called by the consumer.
+	 *
+	 * @return the first message, or {@code null} if the mailbox is empty
+	 */
+	final M poll() {
+		Node<M> next = head.next;
+		if (next == null) {
+			return null;
+		}
+		M message = next.message;
+		next.message = null;
+		head = next;
+		return message;
+	}
+
+	/**
+	 * Removes every message. Must only be called by the consumer.
+	 */
+	final void clear() {
+		while (poll() != null) {
+			// Drop the message.
+		}
+	}
+
+	/**
+	 * Checks if the mailbox has no message visible to the consumer. May be called by any thread.
+	 *
+	 * @return {@code true} if the mailbox is empty, {@code false} otherwise
+	 */
+	final boolean isMailboxEmpty() {
+		return head.next == null;
+	}
+
+	/**
+	 * A node of the mailbox. The link is volatile so that a link written by a producer before it checks the state of
+	 * the actor is seen by the consumer after it updates that state.
+	 *
+	 * @param <M> the type of messages in the mailbox
+	 */
+	private static final class Node<M> {
+
+		private M message;
+		private volatile Node<M> next;
+
+		/**
+		 * Constructs a {@code Node} holding the specified message.
+		 *
+		 * @param message the message, or {@code null} for the initial node
+		 */
+		private Node(M message) {
+			this.message = message;
+		}
+	}
+}
@@ -0,0 +1,6 @@
+/**
+ * Provides Java classes implementing actors on top of JavaGo channels: an {@link io.javago.actor.Actor} processes the
+ * messages of its mailbox one at a time with its {@link io.javago.actor.Behavior}, on the shared executor of an
+ * {@link io.javago.actor.ActorSystem}, and holds no thread while its mailbox is empty.
+ */
+package io.javago.actor;
@@ -0,0 +1,224 @@
+package io.javago.ipc;
+
+import io.javago.BufferedQueueChannel;
+import io.javago.OutputChannel;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.javago.Go.go;
+
+/**
+ * The {@code ChannelExporter} class exports local channels over TCP so that goroutines in other processes can send to
+ * them through a {@link RemoteChannel}, like an exporter of Go's former {@code netchan} package.
+ * Each channel is exported under a name, and every connection importing it is served by its own goroutine, which
+ * decodes the messages it receives and sends them to the local channel.
+ * <p>
+ * The exporter grants each importer a window of messages, which defaults to the capacity of the channel, and grants a
+ * credit back each time a message has been sent to the local channel. While the local channel is full, the goroutine
+ * serving a connection blocks and grants nothing, so the importer blocks once its window is used up. Credits are
+ * granted in batches, once no more frames are waiting to be read or half the window has been delivered.
+ * <p>
+ * When an importer closes its {@code RemoteChannel}, the local channel is closed. When the local channel is closed, the
+ * importer is told the next time it sends a message.
+ */
+public final class ChannelExporter implements AutoCloseable {
+
+	private static final int MAX_WINDOW = 1 << 16;
+
+	private final ServerSocket server;
+	private final Map<String, Export<?>> exports = new ConcurrentHashMap<>();
+	private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Constructs a {@code ChannelExporter} listening on the specified address.
+	 *
+	 * @param address the address to listen on, with port {@code 0} to pick a free port
+	 * @throws IOException if the address cannot be bound
+	 */
+	public ChannelExporter(InetSocketAddress address) throws IOException {
+		server = new ServerSocket();
+		server.bind(address);
+		go(this::accept);
+	}
+
+	/**
+	 * Returns the address the exporter listens on.
+	 *
+	 * @return the address the exporter listens on
+	 */
+	public InetSocketAddress address() {
+		return (InetSocketAddress) server.getLocalSocketAddress();
+	}
+
+	/**
+	 * Exports a channel under the specified name, with a window equal to the capacity of the channel if it is a
+	 * {@link BufferedQueueChannel}, capped at 65536 messages, and of one message otherwise.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 * @param name the name to export the channel under
+	 * @param channel the channel to send the received messages to
+	 * @param codec the codec of the messages, which must match the one of the importers
+	 * @throws IllegalStateException if a channel is already exported under that name
+	 */
+	public <T> void export(String name, OutputChannel<T> channel, Codec<T> codec) {
+		if (channel instanceof BufferedQueueChannel<?> buffered) {
+			export(name, channel, codec, Math.min(buffered.capacity(), MAX_WINDOW));
+		} else {
+			export(name, channel, codec, 1);
+		}
+	}
+
+	/**
+	 * Exports a channel under the specified name with the specified window.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 * @param name the name to export the channel under
+	 * @param channel the channel to send the received messages to
+	 * @param codec the codec of the messages, which must match the one of the importers
+	 * @param window the amount of messages an importer may have in flight
+	 * @throws IllegalArgumentException if window is less than or equal to 0
+	 * @throws IllegalStateException if a channel is already exported under that name
+	 */
+	public <T> void export(String name, OutputChannel<T> channel, Codec<T> codec, int window) {
+		if (window <= 0) {
+			throw new IllegalArgumentException("window must be greater than 0");
+		}
+		Export<T> export = new Export<>(Objects.requireNonNull(channel), Objects.requireNonNull(codec), window);
+		if (exports.putIfAbsent(name, export) != null) {
+			throw new IllegalStateException("A channel is already exported as " + name);
+		}
+	}
+
+	/**
+	 * Stops exporting the channel with the specified name. Connections already importing it are not affected.
+	 *
+	 * @param name the name the channel was exported under
+	 */
+	public void unexport(String name) {
+		exports.remove(name);
+	}
+
+	/**
+	 * Stops listening and closes every connection. The exported channels are not closed.
+	 *
+	 * @throws IOException if the server socket cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		server.close();
+		for (Socket connection : connections) {
+			connection.close();
+		}
+	}
+
+	/**
+	 * Accepts connections until the exporter is closed or can no longer accept, serving each on its own goroutine.
+	 */
+	private void accept() {
+		try {
+			while (true) {
+				Socket connection = server.accept();
+				connection.setTcpNoDelay(true);
+				connections.add(connection);
+				go(() -> serve(connection));
+			}
+		} catch (IOException e) {
+			// The exporter was closed, or can no longer accept connections.
+		}
+	}
+
+	/**
+	 * Serves a connection: looks up the channel it imports, grants the window, then delivers its messages.
+	 *
+	 * @param connection the connection to serve
+	 */
+	private void serve(Socket connection) {
+		try (connection) {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+			int length = Frames.readLength(in);
+			if (length < 0 || Frames.readType(in) != Frames.HELLO) {
+				return;
+			}
+			String name = Frames.readString(in, length - 1);
+			Export<?> export = exports.get(name);
+			if (export == null) {
+				Frames.write(out, Frames.ERROR, "No channel exported as " + name);
+				out.flush();
+				return;
+			}
+			Frames.write(out, Frames.CREDIT, export.window());
+			out.flush();
+			deliver(export, in, out);
+		} catch (IOException e) {
+			// The importer is gone, so there is nobody left to report to.
+		} finally {
+			connections.remove(connection);
+		}
+	}
+
+	/**
+	 * Sends the messages received on a connection to the exported channel and grants credits back, until the importer
+	 * closes the channel or either channel is closed.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 * @param export the exported channel
+	 * @param in the stream of frames from the importer
+	 * @param out the stream of frames to the importer
+	 * @throws IOException if the connection fails
+	 */
+	private static <T> void deliver(Export<T> export, DataInputStream in, DataOutputStream out) throws IOException {
+		byte[] payload = new byte[256];
+		int delivered = 0;
+		while (true) {
+			int length = Frames.readLength(in);
+			if (length < 0) {
+				return;
+			}
+			byte type = Frames.readType(in);
+			if (type == Frames.CLOSE) {
+				export.channel().close();
+				return;
+			} else if (type != Frames.MESSAGE) {
+				throw new IOException("Unexpected frame: " + type);
+			}
+			if (payload.length < length - 1) {
+				payload = new byte[Math.max(length - 1, payload.length * 2)];
+			}
+			in.readFully(payload, 0, length - 1);
+			T message = export.codec().decode(ByteBuffer.wrap(payload, 0, length - 1));
+			try {
+				export.channel().send(message);
+			} catch (IllegalStateException e) {
+				out.writeInt(1);
+				out.writeByte(Frames.CLOSE);
+				out.flush();
+				return;
+			}
+			delivered++;
+			if (in.available() == 0 || delivered >= Math.max(1, export.window() / 2)) {
+				Frames.write(out, Frames.CREDIT, delivered);
+				out.flush();
+				delivered = 0;
+			}
+		}
+	}
+
+	/**
+	 * A record that holds an exported channel.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 * @param channel the channel to send the received messages to
+	 * @param codec the codec of the messages
+	 * @param window the amount of messages an importer may have in flight
+	 */
+	private record Export<T>(OutputChannel<T> channel, Codec<T> codec, int window) {}
+}
@@ -0,0 +1,72 @@
+package io.javago.ipc;
+
+import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * The {@code Codec} interface defines how the messages of a channel between processes are turned into bytes and back.
+ * A codec must be stateless or thread-safe, since both ends of a channel may use it at the same time.
+ *
+ * @param <T> the type of messages handled by the codec
+ */
+public interface Codec<T> {
+
+	/**
+	 * Writes a message into the buffer, starting at its position and advancing it past the encoded message.
+	 *
+	 * @param message the message to encode
+	 * @param buffer the buffer to write the message into
+	 * @throws BufferOverflowException if the message does not fit in the remaining bytes of the buffer, in which case
+	 * the caller retries with a larger buffer
+	 */
+	void encode(T message, ByteBuffer buffer);
+
+	/**
+	 * Reads a message from the remaining bytes of the buffer, which hold exactly one encoded message.
+	 * The buffer is only valid during the call and must not be kept.
+	 *
+	 * @param buffer the buffer holding the encoded message
+	 * @return the decoded message
+	 */
+	T decode(ByteBuffer buffer);
+
+	/**
+	 * Returns a codec that passes byte arrays through unchanged.
+	 *
+	 * @return the byte array codec
+	 */
+	static Codec<byte[]> bytes() {
+		return Codecs.BYTES;
+	}
+
+	/**
+	 * Returns a codec that encodes strings in UTF-8.
+	 *
+	 * @return the string codec
+	 */
+	static Codec<String> string() {
+		return Codecs.STRING;
+	}
+
+	/**
+	 * Returns a codec that encodes longs as 8 bytes, for instance to pass sequence numbers or identifiers.
+	 *
+	 * @return the long codec
+	 */
+	static Codec<Long> int64() {
+		return Codecs.INT64;
+	}
+
+	/**
+	 * Returns a codec that encodes messages with Java serialization. It works with any {@link Serializable} message
+	 * but is much slower and larger than a dedicated codec, and must only be used between trusted processes.
+	 *
+	 * @param <T> the type of messages handled by the codec
+	 * @return the serialization codec
+	 */
+	@SuppressWarnings("unchecked")
+	static <T extends Serializable> Codec<T> serializable() {
+		return (Codec<T>) Codecs.SERIALIZABLE;
+	}
+}
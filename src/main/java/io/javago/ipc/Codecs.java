@@ -0,0 +1,122 @@
+package io.javago.ipc;
+
+import java.io.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The {@code Codecs} class holds the implementations of {@link Codec} returned by its static methods.
+ */
+final class Codecs {
+
+	/**
+	 * The codec that passes byte arrays through unchanged.
+	 */
+	static final Codec<byte[]> BYTES = new Codec<>() {
+		@Override
+		public void encode(byte[] message, ByteBuffer buffer) {
+			buffer.put(message);
+		}
+
+		@Override
+		public byte[] decode(ByteBuffer buffer) {
+			byte[] message = new byte[buffer.remaining()];
+			buffer.get(message);
+			return message;
+		}
+	};
+
+	/**
+	 * The codec that encodes strings in UTF-8.
+	 */
+	static final Codec<String> STRING = new Codec<>() {
+		@Override
+		public void encode(String message, ByteBuffer buffer) {
+			buffer.put(message.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public String decode(ByteBuffer buffer) {
+			return StandardCharsets.UTF_8.decode(buffer).toString();
+		}
+	};
+
+	/**
+	 * The codec that encodes longs as 8 bytes.
+	 */
+	static final Codec<Long> INT64 = new Codec<>() {
+		@Override
+		public void encode(Long message, ByteBuffer buffer) {
+			buffer.putLong(message);
+		}
+
+		@Override
+		public Long decode(ByteBuffer buffer) {
+			return buffer.getLong();
+		}
+	};
+
+	/**
+	 * The codec that encodes messages with Java serialization.
+	 */
+	static final Codec<Serializable> SERIALIZABLE = new Codec<>() {
+		@Override
+		public void encode(Serializable message, ByteBuffer buffer) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+				out.writeObject(message);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			buffer.put(bytes.toByteArray());
+		}
+
+		@Override
+		public Serializable decode(ByteBuffer buffer) {
+			byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+				return (Serializable) in.readObject();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} catch (ClassNotFoundException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	};
+
+	private Codecs() {}
+
+	/**
+	 * Encodes a message into a buffer after its position, replacing the buffer with a larger one, with the same content
+	 * up to its position, as long as the message does not fit.
+	 *
+	 * @param <T> the type of messages handled by the codec
+	 * @param codec the codec of the message
+	 * @param message the message to encode
+	 * @param buffer the buffer to encode the message into
+	 * @param max the maximum position of the buffer once the message is encoded
+	 * @return the buffer holding the encoded message, positioned after it
+	 * @throws IllegalArgumentException if the buffer would have to extend past the maximum position
+	 */
+	static <T> ByteBuffer encode(Codec<T> codec, T message, ByteBuffer buffer, int max) {
+		int start = buffer.position();
+		while (true) {
+			try {
+				codec.encode(message, buffer);
+				if (buffer.position() <= max) {
+					return buffer;
+				}
+			} catch (BufferOverflowException e) {
+				if (buffer.capacity() <= max) {
+					ByteBuffer larger = ByteBuffer.allocate((int) Math.min((long) buffer.capacity() * 2, max + 1L));
+					buffer.position(start).flip();
+					buffer = larger.put(buffer);
+					continue;
+				}
+			}
+			throw new IllegalArgumentException("message too large: at most " + (max - start) + " bytes");
+		}
+	}
+}
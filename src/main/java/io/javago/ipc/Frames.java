@@ -0,0 +1,118 @@
+package io.javago.ipc;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The {@code Frames} class holds the wire format shared by {@link RemoteChannel} and {@link ChannelExporter}.
+ * Every frame starts with the length of the rest of the frame as a 4-byte integer, followed by a 1-byte type and the
+ * payload of the frame.
+ * <ul>
+ *     <li>{@link #HELLO}: sent once by the importer, with the UTF-8 name of the exported channel.</li>
+ *     <li>{@link #CREDIT}: sent by the exporter, with the amount of messages the importer may send in addition to the
+ *     ones already granted as a 4-byte integer. The first credit frame is the size of the window.</li>
+ *     <li>{@link #MESSAGE}: sent by the importer, with a message encoded by the codec.</li>
+ *     <li>{@link #CLOSE}: sent by either side once the channel is closed, with no payload.</li>
+ *     <li>{@link #ERROR}: sent by the exporter instead of the first credit frame, with a UTF-8 reason.</li>
+ * </ul>
+ */
+final class Frames {
+
+	static final byte HELLO = 1;
+	static final byte CREDIT = 2;
+	static final byte MESSAGE = 3;
+	static final byte CLOSE = 4;
+	static final byte ERROR = 5;
+
+	/**
+	 * The maximum length of a frame, excluding its length prefix.
+	 */
+	static final int MAX_LENGTH = 1 << 24;
+
+	/**
+	 * The length of the header of a frame, made of its length prefix and its type.
+	 */
+	static final int HEADER = Integer.BYTES + 1;
+
+	private Frames() {}
+
+	/**
+	 * Writes a frame with a UTF-8 payload. The stream is not flushed.
+	 *
+	 * @param out the stream to write the frame to
+	 * @param type the type of the frame
+	 * @param payload the payload of the frame
+	 * @throws IOException if the frame cannot be written
+	 */
+	static void write(DataOutputStream out, byte type, String payload) throws IOException {
+		byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(1 + bytes.length);
+		out.writeByte(type);
+		out.write(bytes);
+	}
+
+	/**
+	 * Writes a frame with a 4-byte integer payload. The stream is not flushed.
+	 *
+	 * @param out the stream to write the frame to
+	 * @param type the type of the frame
+	 * @param payload the payload of the frame
+	 * @throws IOException if the frame cannot be written
+	 */
+	static void write(DataOutputStream out, byte type, int payload) throws IOException {
+		out.writeInt(1 + Integer.BYTES);
+		out.writeByte(type);
+		out.writeInt(payload);
+	}
+
+	/**
+	 * Reads the length prefix of the next frame.
+	 *
+	 * @param in the stream to read the frame from
+	 * @return the length of the frame, excluding its length prefix, or {@code -1} if the stream ended between frames
+	 * @throws IOException if the stream cannot be read, ends within the prefix, or the length is out of range
+	 */
+	static int readLength(DataInputStream in) throws IOException {
+		int first = in.read();
+		if (first < 0) {
+			return -1;
+		}
+		int length = first << 24 | in.readUnsignedByte() << 16 | in.readUnsignedByte() << 8 | in.readUnsignedByte();
+		if (length < 1 || length > MAX_LENGTH) {
+			throw new IOException("Invalid frame length: " + length);
+		}
+		return length;
+	}
+
+	/**
+	 * Reads the payload of a frame as a UTF-8 string.
+	 *
+	 * @param in the stream to read the payload from
+	 * @param length the length of the payload
+	 * @return the payload
+	 * @throws IOException if the stream cannot be read or ends within the payload
+	 */
+	static String readString(DataInputStream in, int length) throws IOException {
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads the type of the next frame, which the stream must not end before.
+	 *
+	 * @param in the stream to read the frame from
+	 * @return the type of the frame
+	 * @throws IOException if the stream cannot be read or has ended
+	 */
+	static byte readType(DataInputStream in) throws IOException {
+		int type = in.read();
+		if (type < 0) {
+			throw new EOFException("Connection closed within a frame");
+		}
+		return (byte) type;
+	}
+}
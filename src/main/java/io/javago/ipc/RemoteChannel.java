@@ -0,0 +1,411 @@
+package io.javago.ipc;
+
+import io.javago.OutputChannel;
+import io.javago.runtime.Wait;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Objects;
+
+import static io.javago.Go.go;
+
+/**
+ * The {@code RemoteChannel} class is an implementation of the {@link OutputChannel} interface that sends messages to a
+ * channel exported by a {@link ChannelExporter} in another process, like an imported channel of Go's former
+ * {@code netchan} package.
+ * <p>
+ * Messages are encoded by a {@link Codec} into length-prefixed frames. Sent messages are queued in an outbox that a
+ * writer goroutine writes to the socket in batches: every message sent while a batch is being written is written with
+ * the next batch, and a linger time can be given to wait for more messages before writing a batch, like Nagle's
+ * algorithm.
+ * <p>
+ * Flow control is based on credits: the exporter grants a window of messages when the channel is imported, and grants
+ * another credit each time a message has been sent to its local channel. A send uses one credit, and blocks while
+ * there is none left, so a full channel on the exporting side blocks the sender once the window is used up.
+ * <p>
+ * Closing a {@code RemoteChannel} closes the exported channel once every message sent before has been delivered. If
+ * the exported channel is closed, the exporter reports it the next time it receives a message, and later sends fail.
+ *
+ * @param <T> the type of messages handled by the channel
+ */
+public final class RemoteChannel<T> implements OutputChannel<T> {
+
+	private final Socket socket;
+	private final Codec<T> codec;
+	private final int window;
+	private final long lingerNanos;
+	private ByteBuffer outbox = ByteBuffer.allocate(1 << 12);
+	private int credits;
+	private boolean closed = false;
+	private IOException failure;
+
+	/**
+	 * Constructs a {@code RemoteChannel} over a connection whose handshake is done.
+	 *
+	 * @param socket the connection to the exporter
+	 * @param codec the codec of the messages
+	 * @param window the amount of messages initially granted by the exporter
+	 * @param linger the time to wait for more messages before writing a batch
+	 */
+	private RemoteChannel(Socket socket, Codec<T> codec, int window, Duration linger) {
+		this.socket = socket;
+		this.codec = codec;
+		this.window = window;
+		this.credits = window;
+		this.lingerNanos = linger.toNanos();
+	}
+
+	/**
+	 * Imports a channel exported by a {@link ChannelExporter}, writing every batch as soon as possible.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 * @param address the address of the exporter
+	 * @param name the name the channel was exported under
+	 * @param codec the codec of the messages, which must match the one of the exporter
+	 * @return the imported channel
+	 * @throws IOException if the connection fails or the exporter has no channel with that name
+	 */
+	public static <T> RemoteChannel<T> dial(InetSocketAddress address, String name, Codec<T> codec) throws IOException {
+		return dial(address, name, codec, Duration.ZERO);
+	}
+
+	/**
+	 * Imports a channel exported by a {@link ChannelExporter}, waiting for the specified linger time before writing a
+	 * batch so that messages sent in quick succession are written together.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 * @param address the address of the exporter
+	 * @param name the name the channel was exported under
+	 * @param codec the codec of the messages, which must match the one of the exporter
+	 * @param linger the time to wait for more messages before writing a batch
+	 * @return the imported channel
+	 * @throws IOException if the connection fails or the exporter has no channel with that name
+	 */
+	public static <T> RemoteChannel<T> dial(
+		InetSocketAddress address,
+		String name,
+		Codec<T> codec,
+		Duration linger
+	) throws IOException {
+		Objects.requireNonNull(codec);
+		if (linger.isNegative()) {
+			throw new IllegalArgumentException("linger must not be negative");
+		}
+		Socket socket = new Socket();
+		try {
+			socket.setTcpNoDelay(true);
+			socket.connect(address);
+			DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+			Frames.write(out, Frames.HELLO, name);
+			out.flush();
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			int length = Frames.readLength(in);
+			if (length < 0) {
+				throw new EOFException("Connection closed by the exporter");
+			}
+			byte type = Frames.readType(in);
+			if (type == Frames.ERROR) {
+				throw new IOException(Frames.readString(in, length - 1));
+			} else if (type != Frames.CREDIT || length != 1 + Integer.BYTES) {
+				throw new IOException("Unexpected frame: " + type);
+			}
+			RemoteChannel<T> channel = new RemoteChannel<>(socket, codec, in.readInt(), linger);
+			go(() -> channel.read(in));
+			go(channel::write);
+			return channel;
+		} catch (IOException | RuntimeException e) {
+			socket.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Sends a message to the exported channel. If the exporter has granted no credit left, this method blocks until it
+	 * grants one. Returns immediately if it is interrupted while blocking.
+	 *
+	 * @param message the message to be sent
+	 * @throws IllegalStateException if the channel is closed or the connection failed
+	 * @throws IllegalArgumentException if the encoded message is larger than the maximum frame length
+	 * @throws NullPointerException if the message is null
+	 */
+	@Override
+	public void send(T message) {
+		Objects.requireNonNull(message);
+		if (!sendLocked(message, false)) {
+			Wait blocked = Wait.begin(this, "chan send");
+			try {
+				sendLocked(message, true);
+			} finally {
+				Wait.end(blocked);
+			}
+		}
+	}
+
+	/**
+	 * Sends a message to the exported channel while holding the channel's lock. The caller records the wait with
+	 * {@link Wait} before calling this method to block, so that nothing but the channel is done under its lock.
+	 *
+	 * @param message the message to be sent
+	 * @param block whether to wait for a credit if the exporter has granted none
+	 * @return {@code false} if there is no credit and {@code block} is {@code false}, {@code true} otherwise
+	 * @throws IllegalStateException if the channel is closed or the connection failed
+	 * @throws IllegalArgumentException if the encoded message is larger than the maximum frame length
+	 */
+	private synchronized boolean sendLocked(T message, boolean block) {
+		if (!block && !closed && credits <= 0) {
+			return false;
+		}
+		if (!awaitCredit()) {
+			if (closed) {
+				throw new IllegalStateException("Channel is closed", failure);
+			}
+			return true;
+		}
+		reserve(Frames.HEADER);
+		int start = outbox.position();
+		outbox.position(start + Frames.HEADER);
+		try {
+			outbox = Codecs.encode(codec, message, outbox, start + Integer.BYTES + Frames.MAX_LENGTH);
+		} catch (RuntimeException e) {
+			outbox.position(start);
+			throw e;
+		}
+		outbox.putInt(start, outbox.position() - start - Integer.BYTES);
+		outbox.put(start + Integer.BYTES, Frames.MESSAGE);
+		credits--;
+		if (start == 0) {
+			this.notifyAll();
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if the channel is closed, either locally, by the exporter, or because the connection failed.
+	 *
+	 * @return {@code true} if the channel is closed, {@code false} otherwise
+	 */
+	@Override
+	public synchronized boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Closes the channel. The exported channel is closed once every message sent before has been delivered.
+	 * Closing an already closed channel has no effect.
+	 */
+	@Override
+	public synchronized void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		reserve(Frames.HEADER);
+		outbox.putInt(1).put(Frames.CLOSE);
+		this.notifyAll();
+	}
+
+	/**
+	 * Checks if every message sent has been delivered to the exported channel.
+	 *
+	 * @return {@code true} if no message is in flight, {@code false} otherwise
+	 */
+	@Override
+	public synchronized boolean isEmpty() {
+		return credits >= window;
+	}
+
+	/**
+	 * Checks if the exporter has granted no credit left.
+	 *
+	 * @return {@code true} if sending a message would block, {@code false} otherwise
+	 */
+	@Override
+	public synchronized boolean isFull() {
+		return credits <= 0;
+	}
+
+	/**
+	 * Waits until the exporter grants a credit or the channel is closed. Returns immediately if it is interrupted while
+	 * blocking.
+	 *
+	 * @return {@code true} if a message can be sent, {@code false} if the channel is closed
+	 */
+	@Override
+	public boolean hasSpace() {
+		synchronized (this) {
+			if (closed || credits > 0) {
+				return !closed;
+			}
+		}
+		Wait blocked = Wait.begin(this, "chan send");
+		try {
+			synchronized (this) {
+				return awaitCredit();
+			}
+		} finally {
+			Wait.end(blocked);
+		}
+	}
+
+	/**
+	 * Waits until a message is in flight or the channel is closed. Returns immediately if it is interrupted while
+	 * blocking.
+	 *
+	 * @return {@code true} if a message is in flight, {@code false} if the channel is closed and every message has been
+	 * delivered
+	 */
+	@Override
+	public synchronized boolean hasNext() {
+		try {
+			while (credits >= window) {
+				if (closed) {
+					return false;
+				}
+				this.wait();
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Returns an empty iterator, since the messages are received in another process.
+	 *
+	 * @return an empty {@code Iterator}
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return Collections.emptyIterator();
+	}
+
+	/**
+	 * Waits until the exporter grants a credit or the channel is closed. Must be called while holding the channel's
+	 * lock.
+	 *
+	 * @return {@code true} if a credit is available, {@code false} if the channel is closed or the thread was
+	 * interrupted
+	 */
+	private boolean awaitCredit() {
+		try {
+			while (!closed && credits <= 0) {
+				this.wait();
+			}
+			return !closed;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Makes sure the outbox has space for the specified amount of bytes, replacing it with a larger one if needed.
+	 * Must be called while holding the channel's lock.
+	 *
+	 * @param bytes the amount of bytes to make space for
+	 */
+	private void reserve(int bytes) {
+		if (outbox.remaining() < bytes) {
+			outbox = ByteBuffer.allocate(Math.max(outbox.capacity() * 2, outbox.position() + bytes)).put(outbox.flip());
+		}
+	}
+
+	/**
+	 * Writes the outbox to the socket in batches until the channel is closed and its close frame has been written.
+	 * Runs on its own goroutine.
+	 */
+	private void write() {
+		ByteBuffer spare = ByteBuffer.allocate(outbox.capacity());
+		try {
+			OutputStream out = socket.getOutputStream();
+			while (true) {
+				ByteBuffer batch;
+				synchronized (this) {
+					while (outbox.position() == 0 && !closed) {
+						this.wait();
+					}
+					if (outbox.position() == 0) {
+						break;
+					}
+				}
+				if (lingerNanos > 0) {
+					Thread.sleep(Duration.ofNanos(lingerNanos));
+				}
+				boolean last;
+				synchronized (this) {
+					batch = outbox;
+					outbox = spare.capacity() >= batch.capacity() ? spare : ByteBuffer.allocate(batch.capacity());
+					last = closed;
+				}
+				out.write(batch.array(), 0, batch.position());
+				out.flush();
+				spare = batch.clear();
+				if (last) {
+					break;
+				}
+			}
+			socket.shutdownOutput();
+		} catch (IOException e) {
+			fail(e);
+		} catch (InterruptedException e) {
+			fail(new InterruptedIOException("Writer interrupted"));
+		}
+	}
+
+	/**
+	 * Reads the frames sent by the exporter until the connection is closed. Runs on its own goroutine.
+	 *
+	 * @param in the stream of the connection
+	 */
+	private void read(DataInputStream in) {
+		try (socket) {
+			while (true) {
+				int length = Frames.readLength(in);
+				if (length < 0) {
+					break;
+				}
+				byte type = Frames.readType(in);
+				if (type == Frames.CREDIT) {
+					int granted = in.readInt();
+					synchronized (this) {
+						credits += granted;
+						this.notifyAll();
+					}
+				} else if (type == Frames.CLOSE) {
+					break;
+				} else {
+					throw new IOException("Unexpected frame: " + type);
+				}
+			}
+			synchronized (this) {
+				closed = true;
+				this.notifyAll();
+			}
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Closes the channel because the connection failed.
+	 *
+	 * @param e the failure
+	 */
+	private synchronized void fail(IOException e) {
+		if (failure == null) {
+			failure = e;
+		}
+		closed = true;
+		this.notifyAll();
+		try {
+			socket.close();
+		} catch (IOException ignored) {
+		}
+	}
+}
@@ -0,0 +1,363 @@
+package io.javago.ipc;
+
+import io.javago.Channel;
+import io.javago.runtime.Wait;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code SharedMemoryChannel} class is an implementation of the {@link Channel} interface between two processes
+ * on the same machine, whose messages are kept in a ring buffer in a memory-mapped file.
+ * One process creates the channel with {@link #create(Path, int, Codec)} and the other opens it with
+ * {@link #open(Path, Codec)}; putting the file under {@code /dev/shm} on Linux keeps it in memory only. Messages are
+ * turned into bytes by a {@link Codec} and copied into the ring, so they are exchanged at the speed of memory with no
+ * system call.
+ * <p>
+ * The channel has a single producer and a single consumer: at most one thread, in either process, may send at any
+ * time, and at most one thread may receive. The file starts with a header holding the index of the next message to
+ * send and the index of the next message to receive, each on its own cache line and published with release stores,
+ * and a flag set by {@link #close()}. Since a process cannot wake up a thread of another process, a thread that has to
+ * wait spins briefly, then yields, then sleeps for increasing periods of up to a millisecond until the channel is
+ * ready.
+ * <p>
+ * A message is stored as its length followed by its bytes, padded to 8 bytes, and may be at most half the capacity of
+ * the ring. Closing the channel does not delete the file.
+ *
+ * @param <T> the type of messages handled by the channel
+ */
+public final class SharedMemoryChannel<T> implements Channel<T> {
+
+	private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+	private static final long MAGIC = 0x4A617661476F4348L;
+	private static final int MAGIC_OFFSET = 0;
+	private static final int CAPACITY_OFFSET = 8;
+	private static final int TAIL_OFFSET = 64;
+	private static final int HEAD_OFFSET = 128;
+	private static final int CLOSED_OFFSET = 192;
+	private static final int DATA_OFFSET = 256;
+	private static final int WRAP = -1;
+	private static final int MIN_CAPACITY = 64;
+	private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 1 << 10 : 0;
+	private static final int YIELDS = 8;
+	private static final long MAX_SLEEP_NANOS = 1_000_000;
+
+	private final MappedByteBuffer memory;
+	private final int capacity;
+	private final int mask;
+	private final Codec<T> codec;
+	private ByteBuffer scratch = ByteBuffer.allocate(256);
+
+	/**
+	 * Constructs a {@code SharedMemoryChannel} over a mapped file whose header has been initialized.
+	 *
+	 * @param memory the mapped file
+	 * @param capacity the capacity of the ring in bytes
+	 * @param codec the codec of the messages
+	 */
+	private SharedMemoryChannel(MappedByteBuffer memory, int capacity, Codec<T> codec) {
+		this.memory = memory;
+		this.capacity = capacity;
+		this.mask = capacity - 1;
+		this.codec = Objects.requireNonNull(codec);
+	}
+
+	/**
+	 * Creates the file of a new channel, replacing any existing file, and maps it.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 * @param file the file to create, for instance under {@code /dev/shm}
+	 * @param capacity the capacity of the ring in bytes, rounded up to a power of two of at least 64
+	 * @param codec the codec of the messages
+	 * @return the new channel
+	 * @throws IOException if the file cannot be created or mapped
+	 * @throws IllegalArgumentException if capacity is less than or equal to 0 or greater than {@code 2^30}
+	 */
+	public static <T> SharedMemoryChannel<T> create(Path file, int capacity, Codec<T> codec) throws IOException {
+		if (capacity <= 0 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("capacity must be greater than 0 and at most 2^30");
+		}
+		int size = Math.max(MIN_CAPACITY, Integer.highestOneBit(capacity));
+		if (size < capacity) {
+			size <<= 1;
+		}
+		MappedByteBuffer memory;
+		try (FileChannel channel = FileChannel.open(
+			file,
+			StandardOpenOption.CREATE,
+			StandardOpenOption.TRUNCATE_EXISTING,
+			StandardOpenOption.READ,
+			StandardOpenOption.WRITE
+		)) {
+			memory = channel.map(FileChannel.MapMode.READ_WRITE, 0, DATA_OFFSET + size);
+		}
+		memory.order(ByteOrder.nativeOrder());
+		LONGS.set(memory, CAPACITY_OFFSET, (long) size);
+		LONGS.setRelease(memory, MAGIC_OFFSET, MAGIC);
+		return new SharedMemoryChannel<>(memory, size, codec);
+	}
+
+	/**
+	 * Opens and maps the file of a channel created by {@link #create(Path, int, Codec)}.
+	 *
+	 * @param <T> the type of messages handled by the channel
+	 * @param file the file of the channel
+	 * @param codec the codec of the messages, which must match the one of the other process
+	 * @return the channel
+	 * @throws IOException if the file cannot be opened or mapped, or is not the file of a channel
+	 */
+	public static <T> SharedMemoryChannel<T> open(Path file, Codec<T> codec) throws IOException {
+		MappedByteBuffer memory;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			if (channel.size() < DATA_OFFSET) {
+				throw new IOException("Not a shared memory channel: " + file);
+			}
+			memory = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+		}
+		memory.order(ByteOrder.nativeOrder());
+		if ((long) LONGS.getAcquire(memory, MAGIC_OFFSET) != MAGIC) {
+			throw new IOException("Not a shared memory channel: " + file);
+		}
+		long capacity = (long) LONGS.get(memory, CAPACITY_OFFSET);
+		if (capacity < MIN_CAPACITY || Long.bitCount(capacity) != 1 || DATA_OFFSET + capacity > memory.capacity()) {
+			throw new IOException("Corrupted shared memory channel: " + file);
+		}
+		return new SharedMemoryChannel<>(memory, (int) capacity, codec);
+	}
+
+	/**
+	 * Sends a message through the channel. If the ring does not have space for the message, this method waits until
+	 * the other process has received enough messages. Returns immediately if it is interrupted while waiting.
+	 *
+	 * @param message the message to be sent
+	 * @throws IllegalStateException if the channel is closed
+	 * @throws IllegalArgumentException if the encoded message is larger than half the capacity of the ring
+	 * @throws NullPointerException if the message is null
+	 */
+	@Override
+	public void send(T message) {
+		Objects.requireNonNull(message);
+		if (isClosed()) {
+			throw new IllegalStateException("Channel is closed");
+		}
+		scratch = Codecs.encode(codec, message, scratch.clear(), capacity / 2 - Integer.BYTES);
+		int length = scratch.position();
+		int size = align(Integer.BYTES + length);
+		long tail = (long) LONGS.getAcquire(memory, TAIL_OFFSET);
+		int offset = (int) tail & mask;
+		int skip = capacity - offset < size ? capacity - offset : 0;
+		if (!await(tail + skip + size - capacity, "chan send")) {
+			if (isClosed()) {
+				throw new IllegalStateException("Channel is closed");
+			}
+			return;
+		}
+		if (skip > 0) {
+			memory.putInt(DATA_OFFSET + offset, WRAP);
+			offset = 0;
+		}
+		memory.putInt(DATA_OFFSET + offset, length);
+		memory.put(DATA_OFFSET + offset + Integer.BYTES, scratch, 0, length);
+		LONGS.setRelease(memory, TAIL_OFFSET, tail + skip + size);
+	}
+
+	/**
+	 * Receives a message from the channel. If the channel is empty, this method waits until the other process sends a
+	 * message. Returns immediately if it is interrupted while waiting.
+	 *
+	 * @return the received message
+	 * @throws NoSuchElementException if the channel is closed and empty
+	 */
+	@Override
+	public T receive() {
+		if (!hasNext()) {
+			if (Thread.currentThread().isInterrupted()) {
+				return null;
+			}
+			throw new NoSuchElementException("Channel is closed and empty");
+		}
+		long head = (long) LONGS.getAcquire(memory, HEAD_OFFSET);
+		int offset = (int) head & mask;
+		int length = memory.getInt(DATA_OFFSET + offset);
+		if (length == WRAP) {
+			head += capacity - offset;
+			offset = 0;
+			length = memory.getInt(DATA_OFFSET);
+		}
+		T message = codec.decode(memory.slice(DATA_OFFSET + offset + Integer.BYTES, length));
+		LONGS.setRelease(memory, HEAD_OFFSET, head + align(Integer.BYTES + length));
+		return message;
+	}
+
+	/**
+	 * Checks if the channel has been closed by either process.
+	 *
+	 * @return {@code true} if the channel is closed, {@code false} otherwise
+	 */
+	@Override
+	public boolean isClosed() {
+		return (long) LONGS.getAcquire(memory, CLOSED_OFFSET) != 0;
+	}
+
+	/**
+	 * Closes the channel for both processes by setting the closed flag in the header of the file.
+	 * Once closed, no more messages can be sent, but any remaining messages can still be received.
+	 * Closing an already closed channel has no effect.
+	 */
+	@Override
+	public void close() {
+		LONGS.setVolatile(memory, CLOSED_OFFSET, 1L);
+	}
+
+	/**
+	 * Checks if the channel is empty.
+	 *
+	 * @return {@code true} if the channel is empty, {@code false} otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		return (long) LONGS.getAcquire(memory, HEAD_OFFSET) >= (long) LONGS.getAcquire(memory, TAIL_OFFSET);
+	}
+
+	/**
+	 * Checks if the ring is too full to hold even an empty message.
+	 *
+	 * @return {@code true} if the channel is full, {@code false} otherwise
+	 */
+	@Override
+	public boolean isFull() {
+		long used = (long) LONGS.getAcquire(memory, TAIL_OFFSET) - (long) LONGS.getAcquire(memory, HEAD_OFFSET);
+		return used > capacity - align(Integer.BYTES);
+	}
+
+	/**
+	 * Waits until the ring has space for an empty message or the channel is closed. A larger message may still have to
+	 * wait. Returns immediately if it is interrupted while waiting.
+	 *
+	 * @return {@code true} if the channel has space, {@code false} if the channel is closed
+	 */
+	@Override
+	public boolean hasSpace() {
+		long tail = (long) LONGS.getAcquire(memory, TAIL_OFFSET);
+		return await(tail + align(Integer.BYTES) - capacity, "chan send") && !isClosed();
+	}
+
+	/**
+	 * Waits until the channel has another message or is closed. Returns immediately if it is interrupted while
+	 * waiting.
+	 *
+	 * @return {@code true} if there are more messages, {@code false} if the channel is empty and closed
+	 */
+	@Override
+	public boolean hasNext() {
+		if (!isEmpty()) {
+			return true;
+		}
+		Wait blocked = Wait.begin(this, "chan receive");
+		try {
+			long sleep = 1;
+			for (int i = 0; isEmpty(); i++) {
+				if (isClosed()) {
+					return !isEmpty();
+				}
+				if (!backOff(i, sleep)) {
+					return false;
+				}
+				if (i >= SPINS + YIELDS) {
+					sleep = Math.min(MAX_SLEEP_NANOS, sleep * 2);
+				}
+			}
+			return true;
+		} finally {
+			Wait.end(blocked);
+		}
+	}
+
+	/**
+	 * Returns an iterator over the elements in this channel.
+	 *
+	 * @return an {@code Iterator} over the elements in this channel
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				return SharedMemoryChannel.this.hasNext();
+			}
+
+			@Override
+			public T next() {
+				return receive();
+			}
+		};
+	}
+
+	/**
+	 * Waits until the index of the next message to receive reaches the specified index, so that the ring has space
+	 * up to it, or the channel is closed.
+	 *
+	 * @param head the index the next message to receive must reach
+	 * @param operation the operation waiting
+	 * @return {@code true} if the ring has space, {@code false} if the channel is closed or the thread was interrupted
+	 */
+	private boolean await(long head, String operation) {
+		if ((long) LONGS.getAcquire(memory, HEAD_OFFSET) >= head) {
+			return true;
+		}
+		Wait blocked = Wait.begin(this, operation);
+		try {
+			long sleep = 1;
+			for (int i = 0; (long) LONGS.getAcquire(memory, HEAD_OFFSET) < head; i++) {
+				if (isClosed() || !backOff(i, sleep)) {
+					return false;
+				}
+				if (i >= SPINS + YIELDS) {
+					sleep = Math.min(MAX_SLEEP_NANOS, sleep * 2);
+				}
+			}
+			return true;
+		} finally {
+			Wait.end(blocked);
+		}
+	}
+
+	/**
+	 * Waits a little before the channel is checked again: spins first, then yields, then sleeps.
+	 *
+	 * @param attempt the amount of checks made so far
+	 * @param sleep the time to sleep once spinning and yielding are done, in nanoseconds
+	 * @return {@code true} to check again, {@code false} if the thread was interrupted
+	 */
+	private static boolean backOff(int attempt, long sleep) {
+		if (attempt < SPINS) {
+			Thread.onSpinWait();
+		} else if (attempt < SPINS + YIELDS) {
+			Thread.yield();
+		} else {
+			LockSupport.parkNanos(sleep);
+		}
+		return !Thread.currentThread().isInterrupted();
+	}
+
+	/**
+	 * Rounds a size up to a multiple of 8 bytes.
+	 *
+	 * @param size the size in bytes
+	 * @return the size rounded up to a multiple of 8
+	 */
+	private static int align(int size) {
+		return (size + 7) & ~7;
+	}
+}
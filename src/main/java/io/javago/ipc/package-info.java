@@ -0,0 +1,6 @@
+/**
+ * Provides Java classes implementing channels between processes, like Go's former {@code netchan} package: a channel
+ * over a ring buffer in a memory-mapped file for processes on the same machine, and channels exported and imported
+ * over TCP. Messages are turned into bytes by a pluggable {@link io.javago.ipc.Codec}.
+ */
+package io.javago.ipc;
@@ -2,5 +2,10 @@
  * Provides Java class implementing core Go concurrency features such as the {@code go} and {@code select} keywords and
  * channels.
  * For Java implementations of Go's {@code sync} package, use the {@link io.javago.sync} package.
+ * For Java implementations of Go's {@code golang.org/x/time/rate} package, use the {@link io.javago.rate} package.
+ * For goroutine diagnostics like Go's {@code runtime} and {@code runtime/pprof} packages, use the
+ * {@link io.javago.runtime} package.
+ * For channels between processes, use the {@link io.javago.ipc} package.
+ * For actors processing their messages on a shared executor, use the {@link io.javago.actor} package.
  */
 package io.javago;
\ No newline at end of file
@@ -0,0 +1,429 @@
+package io.javago.rate;
+
+import io.javago.InputChannel;
+import io.javago.Selector;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code Limiter} class implements Go's {@code rate.Limiter}.
+ * A token bucket that fills at a rate of {@code limit} tokens per second up to a maximum of {@code burst} tokens, and
+ * from which each event takes one or more tokens.
+ * <p>
+ * The bucket is never refilled by a background thread. Its whole state is the time at which the bucket would next be
+ * full, kept in a single {@link AtomicLong} and updated with compare-and-set, and the amount of tokens is computed
+ * lazily from {@link System#nanoTime()} whenever the limiter is used. An idle limiter therefore costs only a few
+ * dozen bytes and no threads.
+ * Waiting callers park their own thread until their tokens are available, and {@link #ready()} exposes the limiter as
+ * an {@link InputChannel} so that a token can be waited on in a {@link Selector}.
+ */
+public class Limiter {
+
+	/**
+	 * A limit that allows every event.
+	 */
+	public static final double INF = Double.POSITIVE_INFINITY;
+
+	/**
+	 * The furthest in the future, in nanoseconds, that the bucket may be full. Times are compared by their difference
+	 * with {@link System#nanoTime()}, which must never overflow, so filling the whole bucket and reserving tokens in
+	 * advance are both limited to a quarter of the range of a {@code long}, about 73 years.
+	 */
+	private static final long MAX_HORIZON = Long.MAX_VALUE / 4;
+
+	private final double limit;
+	private final int burst;
+	private final long interval;
+	private final long tolerance;
+	private final AtomicLong full;
+	private final Ready ready = new Ready();
+
+	/**
+	 * Constructs a {@code Limiter} that allows events up to the specified rate and permits bursts of at most the
+	 * specified amount of tokens. The bucket starts full.
+	 *
+	 * @param limit the amount of tokens added to the bucket per second, or {@link #INF} to allow every event
+	 * @param burst the maximum amount of tokens in the bucket
+	 * @throws IllegalArgumentException if limit or burst is less than or equal to 0, or if filling the bucket at that
+	 * limit would take longer than about 73 years
+	 */
+	public Limiter(double limit, int burst) {
+		if (!(limit > 0)) {
+			throw new IllegalArgumentException("limit must be greater than 0");
+		}
+		if (burst <= 0) {
+			throw new IllegalArgumentException("burst must be greater than 0");
+		}
+		if (limit != INF && 1_000_000_000.0 / limit * burst > MAX_HORIZON) {
+			throw new IllegalArgumentException("limit is too low to fill a bucket of burst tokens");
+		}
+		this.limit = limit;
+		this.burst = burst;
+		this.interval = limit == INF ? 0 : Math.max(1, (long) (1_000_000_000L / limit));
+		this.tolerance = interval * burst;
+		this.full = new AtomicLong(System.nanoTime());
+	}
+
+	/**
+	 * Converts a minimum time between events to a limit.
+	 *
+	 * @param interval the minimum time between events
+	 * @return the limit allowing one event per interval, or {@link #INF} if the interval is zero or negative
+	 */
+	public static double every(Duration interval) {
+		if (interval.isZero() || interval.isNegative()) {
+			return INF;
+		}
+		return 1_000_000_000.0 / interval.toNanos();
+	}
+
+	/**
+	 * Returns the amount of tokens added to the bucket per second.
+	 *
+	 * @return the limit of this limiter
+	 */
+	public double limit() {
+		return limit;
+	}
+
+	/**
+	 * Returns the maximum amount of tokens in the bucket.
+	 *
+	 * @return the burst size of this limiter
+	 */
+	public int burst() {
+		return burst;
+	}
+
+	/**
+	 * Returns the amount of tokens currently in the bucket.
+	 *
+	 * @return the amount of tokens available now
+	 */
+	public double tokens() {
+		if (interval == 0) {
+			return burst;
+		}
+		long now = System.nanoTime();
+		long debt = Math.max(0, full.get() - now);
+		return (tolerance - debt) / (double) interval;
+	}
+
+	/**
+	 * Takes one token from the bucket if it is available now.
+	 *
+	 * @return {@code true} if the event may happen now, {@code false} otherwise
+	 */
+	public boolean allow() {
+		return allow(1);
+	}
+
+	/**
+	 * Takes the specified amount of tokens from the bucket if they are all available now.
+	 *
+	 * @param n the amount of tokens to take
+	 * @return {@code true} if the events may happen now, {@code false} otherwise
+	 */
+	public boolean allow(int n) {
+		return take(n, 0) >= 0;
+	}
+
+	/**
+	 * Reserves one token from the bucket. The caller must wait for {@link Reservation#delay()} before the event
+	 * happens, or cancel the reservation.
+	 *
+	 * @return a reservation for one token
+	 */
+	public Reservation reserve() {
+		return reserve(1);
+	}
+
+	/**
+	 * Reserves the specified amount of tokens from the bucket. The caller must wait for {@link Reservation#delay()}
+	 * before the events happen, or cancel the reservation.
+	 *
+	 * @param n the amount of tokens to reserve
+	 * @return a reservation for the tokens, which is not {@link Reservation#ok() ok} if n exceeds the burst size or if
+	 * the tokens would only be available in about 73 years
+	 */
+	public Reservation reserve(int n) {
+		if (n > burst) {
+			return new Reservation(n, -1);
+		}
+		return new Reservation(n, take(n, Long.MAX_VALUE));
+	}
+
+	/**
+	 * Waits until the specified amount of tokens can be taken from the bucket and takes them.
+	 * Returns immediately if it is interrupted while blocking, in which case the tokens are given back.
+	 *
+	 * @param n the amount of tokens to take
+	 * @return {@code true} if the tokens were taken, {@code false} if the thread was interrupted
+	 * @throws IllegalArgumentException if n exceeds the burst size
+	 */
+	public boolean await(int n) {
+		return await(n, null);
+	}
+
+	/**
+	 * Waits until the specified amount of tokens can be taken from the bucket and takes them, unless they cannot be
+	 * taken before the timeout elapses.
+	 * Like Go's {@code Wait} with a context deadline, this method returns immediately without taking any tokens if the
+	 * wait would exceed the timeout.
+	 * Returns immediately if it is interrupted while blocking, in which case the tokens are given back.
+	 *
+	 * @param n the amount of tokens to take
+	 * @param timeout the maximum time to wait, or {@code null} to wait indefinitely
+	 * @return {@code true} if the tokens were taken, {@code false} if the timeout would elapse first or the thread was
+	 * interrupted
+	 * @throws IllegalArgumentException if n exceeds the burst size
+	 */
+	public boolean await(int n, Duration timeout) {
+		if (n > burst) {
+			throw new IllegalArgumentException("n exceeds the burst size of the limiter");
+		}
+		long maxDelay = timeout == null ? Long.MAX_VALUE : timeout.toNanos();
+		long delay = take(n, maxDelay);
+		if (delay < 0) {
+			return false;
+		}
+		long deadline = System.nanoTime() + delay;
+		while (delay > 0) {
+			LockSupport.parkNanos(this, delay);
+			if (Thread.currentThread().isInterrupted()) {
+				giveBack(n);
+				return false;
+			}
+			delay = deadline - System.nanoTime();
+		}
+		return true;
+	}
+
+	/**
+	 * Returns an {@link InputChannel} from which a message can be received each time a token is taken from the
+	 * bucket, like the channel of Go's {@code time.Ticker}.
+	 * Receiving from the channel waits for a token and takes it. The channel is never closed.
+	 * Using the channel in a {@link Selector} does not take a token unless its case is chosen.
+	 *
+	 * @return the ready channel of this limiter
+	 */
+	public InputChannel<Instant> ready() {
+		return ready;
+	}
+
+	/**
+	 * Takes the specified amount of tokens from the bucket if they will be available within the maximum delay.
+	 *
+	 * @param n the amount of tokens to take
+	 * @param maxDelay the maximum amount of nanoseconds the caller is willing to wait
+	 * @return the amount of nanoseconds until the tokens are available, or {@code -1} if they were not taken
+	 */
+	private long take(int n, long maxDelay) {
+		if (n > burst) {
+			return -1;
+		}
+		if (interval == 0) {
+			return 0;
+		}
+		long cost = n * interval;
+		while (true) {
+			long now = System.nanoTime();
+			long current = full.get();
+			long debt = Math.max(0, current - now);
+			if (debt > MAX_HORIZON - cost) {
+				return -1;
+			}
+			long next = now + debt + cost;
+			long delay = Math.max(0, next - tolerance - now);
+			if (delay > maxDelay) {
+				return -1;
+			}
+			if (full.compareAndSet(current, next)) {
+				return delay;
+			}
+		}
+	}
+
+	/**
+	 * Gives back tokens that were taken but not used.
+	 *
+	 * @param n the amount of tokens to give back
+	 */
+	private void giveBack(int n) {
+		if (interval == 0) {
+			return;
+		}
+		while (true) {
+			long now = System.nanoTime();
+			long current = full.get();
+			long next = now + Math.max(0, current - n * interval - now);
+			if (current - now <= 0 || full.compareAndSet(current, next)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Computes how long the caller would have to wait for the specified amount of tokens without taking them.
+	 *
+	 * @param n the amount of tokens
+	 * @return the amount of nanoseconds until the tokens are available
+	 */
+	private long delayFor(int n) {
+		long debt = Math.max(0, full.get() - System.nanoTime());
+		return Math.max(0, debt + n * interval - tolerance);
+	}
+
+	/**
+	 * The {@code Reservation} class holds tokens reserved from a {@link Limiter}.
+	 */
+	public final class Reservation {
+
+		private final int tokens;
+		private final long delay;
+		private final long reservedAt = System.nanoTime();
+		private boolean cancelled = false;
+
+		private Reservation(int tokens, long delay) {
+			this.tokens = tokens;
+			this.delay = delay;
+		}
+
+		/**
+		 * Checks if the tokens could be reserved.
+		 *
+		 * @return {@code true} if the tokens were reserved, {@code false} if they exceeded the burst size
+		 */
+		public boolean ok() {
+			return delay >= 0;
+		}
+
+		/**
+		 * Returns how long the caller must wait, from the time the reservation was made, before the events happen.
+		 *
+		 * @return the delay of this reservation
+		 * @throws IllegalStateException if the reservation is not ok
+		 */
+		public Duration delay() {
+			if (!ok()) {
+				throw new IllegalStateException("Reservation is not ok");
+			}
+			return Duration.ofNanos(delay);
+		}
+
+		/**
+		 * Gives the reserved tokens back to the limiter, as far as possible, if the events have not happened yet.
+		 * Cancelling a reservation that is not ok, has already been cancelled, or whose delay has passed has no effect.
+		 */
+		public synchronized void cancel() {
+			if (ok() && !cancelled && System.nanoTime() - reservedAt < delay) {
+				cancelled = true;
+				giveBack(tokens);
+			}
+		}
+	}
+
+	/**
+	 * The {@code Ready} class is the {@link InputChannel} view of a {@link Limiter} returned by {@link #ready()}.
+	 * Waiting on it parks the waiting thread until a token is available instead of using a timer thread.
+	 */
+	private class Ready implements InputChannel<Instant> {
+
+		/**
+		 * Waits for a token and takes it. Returns {@code null} if it is interrupted while blocking.
+		 *
+		 * @return the time at which the token was taken
+		 */
+		@Override
+		public Instant receive() {
+			return await(1) ? Instant.now() : null;
+		}
+
+		/**
+		 * The ready channel of a limiter is never closed.
+		 *
+		 * @return {@code false}
+		 */
+		@Override
+		public boolean isClosed() {
+			return false;
+		}
+
+		/**
+		 * The ready channel of a limiter cannot be closed, so this method has no effect.
+		 */
+		@Override
+		public void close() {}
+
+		/**
+		 * Checks if no token is available now.
+		 *
+		 * @return {@code true} if no token is available now, {@code false} otherwise
+		 */
+		@Override
+		public boolean isEmpty() {
+			return delayFor(1) > 0;
+		}
+
+		/**
+		 * Checks if the bucket is full.
+		 *
+		 * @return {@code true} if the bucket is full, {@code false} otherwise
+		 */
+		@Override
+		public boolean isFull() {
+			return full.get() - System.nanoTime() <= 0;
+		}
+
+		/**
+		 * Nothing can be sent to the ready channel of a limiter.
+		 *
+		 * @return {@code false}
+		 */
+		@Override
+		public boolean hasSpace() {
+			return false;
+		}
+
+		/**
+		 * Waits until a token is available without taking it. Returns immediately if it is interrupted while blocking.
+		 *
+		 * @return {@code true} if a token is available, {@code false} if the thread was interrupted
+		 */
+		@Override
+		public boolean hasNext() {
+			long delay;
+			while ((delay = delayFor(1)) > 0) {
+				LockSupport.parkNanos(Limiter.this, delay);
+				if (Thread.currentThread().isInterrupted()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Returns an iterator that takes one token from the limiter per element.
+		 *
+		 * @return an {@code Iterator} over the times at which tokens are taken
+		 */
+		@Override
+		public Iterator<Instant> iterator() {
+			return new Iterator<>() {
+				@Override
+				public boolean hasNext() {
+					return Ready.this.hasNext();
+				}
+
+				@Override
+				public Instant next() {
+					return receive();
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * Provides Java classes implementing the types and functions found in Go's {@code golang.org/x/time/rate} package.
+ */
+package io.javago.rate;
@@ -0,0 +1,168 @@
+package io.javago.runtime;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code BlockProfile} class implements Go's block profile, enabled with {@code runtime.SetBlockProfileRate}.
+ * It records how many times and for how long threads waited in the channels and synchronization primitives of JavaGo,
+ * keyed by the stack of the waiting call site: {@code BufferedQueueChannel} sends, receives, {@code hasNext} and
+ * {@code hasSpace}, {@code Selector.run}, {@code WaitGroup.await}, {@code Once.doOnce}, and contention on the lock of
+ * {@code Pool}.
+ * <p>
+ * Like Go, a wait lasting at least the rate in nanoseconds is always recorded, and a shorter wait is recorded with a
+ * probability of its duration divided by the rate and weighted accordingly, so that the totals stay unbiased while
+ * the stacks of short waits are only walked occasionally. A rate of {@code 1} records every wait, and the default
+ * rate of {@code 0} disables the profile, leaving the hooks at a single volatile read.
+ * The profile is written in the collapsed-stack format read by flame graph tools.
+ */
+public final class BlockProfile {
+
+	private static final ConcurrentHashMap<Site, Totals> sites = new ConcurrentHashMap<>();
+	private static volatile long rate = Long.getLong("javago.blockprofilerate", 0);
+
+	private BlockProfile() {}
+
+	/**
+	 * Sets the rate of the profile, like Go's {@code runtime.SetBlockProfileRate}. On average, one wait is recorded
+	 * per {@code rate} nanoseconds spent waiting. A rate of {@code 1} records every wait and a rate of {@code 0} or
+	 * less disables the profile. Records already made are kept.
+	 *
+	 * @param rate the sampling rate in nanoseconds
+	 */
+	public static void setRate(long rate) {
+		BlockProfile.rate = Math.max(rate, 0);
+		Wait.update();
+	}
+
+	/**
+	 * Checks if the profile is enabled.
+	 *
+	 * @return {@code true} if the rate is positive, {@code false} otherwise
+	 */
+	public static boolean isEnabled() {
+		return rate > 0;
+	}
+
+	/**
+	 * Discards every record made so far.
+	 */
+	public static void reset() {
+		sites.clear();
+	}
+
+	/**
+	 * Returns a snapshot of the profile, ordered by decreasing time waited.
+	 *
+	 * @return the records of the profile
+	 */
+	public static List<Record> records() {
+		List<Record> records = new ArrayList<>(sites.size());
+		sites.forEach((site, totals) -> records.add(
+			new Record(site.operation(), site.stack(), totals.count.sum(), totals.nanos.sum())
+		));
+		records.sort(Comparator.comparingLong(Record::nanos).reversed());
+		return records;
+	}
+
+	/**
+	 * Writes the profile in the collapsed-stack format, one line per call site with its frames from the outermost to
+	 * the waiting operation separated by semicolons, followed by the nanoseconds waited.
+	 *
+	 * @param out the writer to write the profile to
+	 * @throws IOException if writing fails
+	 */
+	public static void writeCollapsed(Writer out) throws IOException {
+		for (Record record : records()) {
+			List<StackTraceElement> stack = record.stack();
+			StringBuilder line = new StringBuilder();
+			for (int i = stack.size() - 1; i >= 0; i--) {
+				StackTraceElement frame = stack.get(i);
+				line.append(frame.getClassName()).append('.').append(frame.getMethodName()).append(';');
+			}
+			line.append(record.operation()).append(' ').append(record.nanos()).append('\n');
+			out.write(line.toString());
+		}
+		out.flush();
+	}
+
+	/**
+	 * Writes the profile in the collapsed-stack format to a file, replacing it if it exists.
+	 *
+	 * @param path the file to write the profile to
+	 * @throws IOException if writing fails
+	 * @see #writeCollapsed(Writer)
+	 */
+	public static void writeCollapsed(Path path) throws IOException {
+		try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			writeCollapsed(out);
+		}
+	}
+
+	/**
+	 * Records a wait if it is sampled. Called by {@link Wait} on the thread that waited, so that its stack is the
+	 * stack of the call site, once that thread has released the lock it waited on.
+	 *
+	 * @param operation the operation the thread waited in
+	 * @param nanos the time waited in nanoseconds
+	 */
+	static void record(String operation, long nanos) {
+		long r = rate;
+		if (r <= 0) {
+			return;
+		}
+		long count = 1;
+		if (nanos < r) {
+			if (ThreadLocalRandom.current().nextLong(r) >= nanos) {
+				return;
+			}
+			count = r / Math.max(nanos, 1);
+			nanos = r;
+		}
+		List<StackTraceElement> stack = StackWalker.getInstance().walk(frames -> frames
+			.dropWhile(f -> f.getClassName().startsWith("io.javago.runtime."))
+			.limit(64)
+			.map(StackWalker.StackFrame::toStackTraceElement)
+			.toList()
+		);
+		Totals totals = sites.computeIfAbsent(new Site(operation, stack), site -> new Totals());
+		totals.count.add(count);
+		totals.nanos.add(nanos);
+	}
+
+	/**
+	 * A record that holds the totals of a call site of the profile.
+	 *
+	 * @param operation the operation waited in, such as {@code "chan send"}
+	 * @param stack the stack of the call site, innermost frame first
+	 * @param count the estimated number of waits
+	 * @param nanos the estimated time waited in nanoseconds
+	 */
+	public record Record(String operation, List<StackTraceElement> stack, long count, long nanos) {}
+
+	/**
+	 * A record that identifies a call site of the profile.
+	 *
+	 * @param operation the operation waited in
+	 * @param stack the stack of the call site, innermost frame first
+	 */
+	private record Site(String operation, List<StackTraceElement> stack) {}
+
+	/**
+	 * The {@code Totals} class accumulates the waits of a call site.
+	 */
+	private static class Totals {
+
+		private final LongAdder count = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+	}
+}
@@ -0,0 +1,83 @@
+package io.javago.runtime;
+
+import io.javago.BufferedQueueChannel;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * The {@code ChannelBlockEvent} class is a JDK Flight Recorder event spanning a send or receive that blocked on a
+ * {@link BufferedQueueChannel}. It is disabled by default and, once enabled, only recorded for operations that blocked
+ * for longer than its threshold of 10 ms unless configured otherwise.
+ */
+@Name("io.javago.ChannelBlock")
+@Label("Channel Block")
+@Category({"JavaGo", "Channels"})
+@Description("A channel operation blocked")
+@Enabled(false)
+@Threshold("10 ms")
+public final class ChannelBlockEvent extends Event {
+
+	private static final ChannelBlockEvent PROBE = new ChannelBlockEvent();
+
+	@Label("Operation")
+	private String operation;
+
+	@Label("Channel Id")
+	@Description("The identity hash code of the channel")
+	private long channelId;
+
+	@Label("Capacity")
+	private int capacity;
+
+	@Label("Occupancy")
+	@Description("The number of messages in the channel once the operation completed")
+	private int occupancy;
+
+	/**
+	 * Constructs a {@code ChannelBlockEvent}. Use {@link #start(BufferedQueueChannel, String)} to record one.
+	 */
+	private ChannelBlockEvent() {}
+
+	/**
+	 * Checks if the event is enabled in a running recording.
+	 *
+	 * @return {@code true} if the event is enabled, {@code false} otherwise
+	 */
+	static boolean enabled() {
+		return PROBE.isEnabled();
+	}
+
+	/**
+	 * Starts timing an operation about to block on a channel.
+	 *
+	 * @param channel the channel the operation blocks on
+	 * @param operation the operation, such as {@code "chan send"}
+	 * @return the started event
+	 */
+	static ChannelBlockEvent start(BufferedQueueChannel<?> channel, String operation) {
+		ChannelBlockEvent event = new ChannelBlockEvent();
+		event.operation = operation;
+		event.channelId = System.identityHashCode(channel);
+		event.capacity = channel.capacity();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Commits the event of an operation that stopped blocking, if it blocked for longer than the threshold.
+	 *
+	 * @param channel the channel the operation blocked on
+	 */
+	void finish(BufferedQueueChannel<?> channel) {
+		end();
+		if (shouldCommit()) {
+			occupancy = channel.size();
+			commit();
+		}
+	}
+}
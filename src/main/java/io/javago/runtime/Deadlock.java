@@ -0,0 +1,35 @@
+package io.javago.runtime;
+
+import java.util.Map;
+
+/**
+ * A record that holds the wait-for graph of a global deadlock reported by {@link Deadlocks}.
+ * Every goroutine recorded at the time of the deadlock is blocked, and is mapped to the channel or synchronization
+ * primitive it is waiting on.
+ *
+ * @param waitsFor the blocked goroutines, ordered by identifier, mapped to the object each is waiting on
+ */
+public record Deadlock(Map<Goroutine, Object> waitsFor) {
+
+	/**
+	 * Returns the wait-for graph in the format of Go's fatal deadlock error, with one line per blocked goroutine
+	 * followed by its stack.
+	 *
+	 * @return a description of the deadlock
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("all goroutines are asleep - deadlock!\n");
+		for (Map.Entry<Goroutine, Object> edge : waitsFor.entrySet()) {
+			Goroutine g = edge.getKey();
+			Object on = edge.getValue();
+			sb.append("\ngoroutine ").append(g.id()).append(" [").append(g.operation()).append("] waits for ")
+				.append(on.getClass().getSimpleName()).append('@')
+				.append(Integer.toHexString(System.identityHashCode(on))).append(":\n");
+			for (StackTraceElement frame : g.thread().getStackTrace()) {
+				sb.append('\t').append(frame).append('\n');
+			}
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,143 @@
+package io.javago.runtime;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * The {@code Deadlocks} class is an opt-in watchdog that reports when every goroutine is blocked, like Go's
+ * {@code "all goroutines are asleep"} fatal error.
+ * <p>
+ * {@link Goroutines} keeps the number of live and blocked goroutines in a single atomic counter that is updated on
+ * every block and unblock of a channel, {@code WaitGroup} or {@code Once}, so detection costs O(1) per transition
+ * and never takes thread dumps. When the counts become equal, a single check is scheduled after a grace period, and
+ * the handler is called with the wait-for graph if every goroutine has stayed blocked throughout. The grace period
+ * lets goroutines that were just woken up make progress before a deadlock is reported.
+ * <p>
+ * Only goroutines recorded by {@link Goroutines} are taken into account, so enabling the watchdog also enables
+ * goroutine tracking. Goroutines sleeping or waiting on I/O count as running.
+ * <p>
+ * Like Go's main goroutine, a thread that is not a goroutine but spawned one, such as the main thread, can still
+ * unblock the goroutines. While such a thread is running or sleeping, no deadlock is reported and the check is
+ * repeated after another grace period instead. If it is blocked on a channel or synchronization primitive of JavaGo,
+ * it is part of the wait-for graph. If it waits on anything else without a timeout, it is assumed not to unblock
+ * the goroutines.
+ */
+public final class Deadlocks {
+
+	private static final AtomicBoolean scheduled = new AtomicBoolean(false);
+	private static volatile boolean enabled = false;
+	private static volatile Duration gracePeriod = Duration.ofSeconds(1);
+	private static volatile Consumer<Deadlock> handler = deadlock -> System.err.println("fatal error: " + deadlock);
+
+	private Deadlocks() {}
+
+	/**
+	 * Enables the watchdog and goroutine tracking.
+	 */
+	public static void enable() {
+		Goroutines.enable();
+		enabled = true;
+	}
+
+	/**
+	 * Disables the watchdog. Goroutine tracking is left enabled.
+	 */
+	public static void disable() {
+		enabled = false;
+	}
+
+	/**
+	 * Sets the handler called with the wait-for graph when every goroutine is blocked.
+	 * By default, the deadlock is printed to the standard error stream and the JVM keeps running.
+	 *
+	 * @param handler the handler to call when a deadlock is detected
+	 */
+	public static void setHandler(Consumer<Deadlock> handler) {
+		Deadlocks.handler = Objects.requireNonNull(handler);
+	}
+
+	/**
+	 * Sets how long every goroutine must stay blocked before a deadlock is reported. Defaults to one second.
+	 *
+	 * @param gracePeriod the time every goroutine must stay blocked
+	 */
+	public static void setGracePeriod(Duration gracePeriod) {
+		Deadlocks.gracePeriod = Objects.requireNonNull(gracePeriod);
+	}
+
+	/**
+	 * Called by {@link Goroutines} after a transition that may have blocked the last running goroutine.
+	 *
+	 * @param live the number of live goroutines
+	 * @param blocked the number of blocked goroutines
+	 */
+	static void check(int live, int blocked) {
+		if (enabled && live == blocked && live > 0 && scheduled.compareAndSet(false, true)) {
+			schedule();
+		}
+	}
+
+	/**
+	 * Schedules a confirmation of a suspected deadlock after the grace period.
+	 */
+	private static void schedule() {
+		Duration grace = gracePeriod;
+		CompletableFuture.delayedExecutor(grace.toNanos(), TimeUnit.NANOSECONDS).execute(() -> confirm(grace));
+	}
+
+	/**
+	 * Confirms a suspected deadlock, calling the handler if every goroutine has been blocked for the whole grace
+	 * period and no root can unblock them. If every goroutine is still blocked but some only recently, or a root is
+	 * running or sleeping, the confirmation is scheduled again. If a goroutine is running, the counts are checked again
+	 * in case it blocked while this confirmation was pending.
+	 *
+	 * @param grace the grace period the confirmation was scheduled with
+	 */
+	private static void confirm(Duration grace) {
+		Map<Goroutine, Object> waitsFor = new LinkedHashMap<>();
+		boolean settled = true;
+		for (Goroutine g : Goroutines.goroutines()) {
+			Object on = g.blockedOn();
+			if (on == null) {
+				scheduled.set(false);
+				Goroutines.recheck();
+				return;
+			}
+			if (g.blockedFor().compareTo(grace) < 0) {
+				settled = false;
+			}
+			waitsFor.put(g, on);
+		}
+		for (Goroutine root : Goroutines.roots()) {
+			Object on = root.blockedOn();
+			if (on == null) {
+				Thread.State state = root.thread().getState();
+				if (state == Thread.State.RUNNABLE || state == Thread.State.TIMED_WAITING) {
+					settled = false;
+				}
+				continue;
+			}
+			if (root.blockedFor().compareTo(grace) < 0) {
+				settled = false;
+			}
+			waitsFor.put(root, on);
+		}
+		if (!enabled || waitsFor.isEmpty()) {
+			scheduled.set(false);
+			return;
+		}
+		if (!settled) {
+			schedule();
+			return;
+		}
+		scheduled.set(false);
+		handler.accept(new Deadlock(Collections.unmodifiableMap(waitsFor)));
+	}
+}
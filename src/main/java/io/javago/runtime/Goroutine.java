@@ -0,0 +1,148 @@
+package io.javago.runtime;
+
+import java.time.Duration;
+
+/**
+ * The {@code Goroutine} class describes a goroutine recorded by {@link Goroutines} while tracking is enabled.
+ * It holds the site the goroutine was spawned from and the channel or synchronization primitive it is currently
+ * blocked on, if any.
+ */
+public final class Goroutine {
+
+	private final long id;
+	private volatile Thread thread;
+	private final StackTraceElement[] spawnSite;
+	private final boolean root;
+	private volatile Object blockedOn;
+	private volatile String operation;
+	private volatile long blockedSince;
+
+	/**
+	 * Constructs a {@code Goroutine} that has been spawned but has not started running yet.
+	 *
+	 * @param id the identifier of the goroutine
+	 * @param spawnSite the stack of the caller that spawned the goroutine
+	 */
+	Goroutine(long id, StackTraceElement[] spawnSite) {
+		this(id, spawnSite, false);
+	}
+
+	/**
+	 * Constructs a {@code Goroutine}.
+	 *
+	 * @param id the identifier of the goroutine
+	 * @param spawnSite the stack of the caller that spawned the goroutine, empty for a root
+	 * @param root whether this is a thread that is not a goroutine but spawned goroutines, like Go's main goroutine
+	 */
+	Goroutine(long id, StackTraceElement[] spawnSite, boolean root) {
+		this.id = id;
+		this.spawnSite = spawnSite;
+		this.root = root;
+	}
+
+	/**
+	 * Returns the identifier of this goroutine, unique for the lifetime of the JVM.
+	 *
+	 * @return the identifier of this goroutine
+	 */
+	public long id() {
+		return id;
+	}
+
+	/**
+	 * Returns the thread running this goroutine.
+	 *
+	 * @return the thread running this goroutine, or {@code null} if it has not started running yet
+	 */
+	public Thread thread() {
+		return thread;
+	}
+
+	/**
+	 * Returns the stack of the caller that spawned this goroutine, innermost frame first.
+	 *
+	 * @return the spawn site of this goroutine
+	 */
+	public StackTraceElement[] spawnSite() {
+		return spawnSite.clone();
+	}
+
+	/**
+	 * Returns the channel or synchronization primitive this goroutine is blocked on.
+	 *
+	 * @return the object this goroutine is blocked on, or {@code null} if it is not blocked
+	 */
+	public Object blockedOn() {
+		return blockedOn;
+	}
+
+	/**
+	 * Returns the operation this goroutine is blocked in, such as {@code "chan send"} or {@code "select"}.
+	 *
+	 * @return the operation this goroutine is blocked in, or {@code null} if it is not blocked
+	 */
+	public String operation() {
+		return operation;
+	}
+
+	/**
+	 * Checks if this goroutine is blocked on a channel or synchronization primitive.
+	 *
+	 * @return {@code true} if this goroutine is blocked, {@code false} otherwise
+	 */
+	public boolean isBlocked() {
+		return blockedOn != null;
+	}
+
+	/**
+	 * Returns how long this goroutine has been blocked in its current operation.
+	 *
+	 * @return the time this goroutine has been blocked, or {@link Duration#ZERO} if it is not blocked
+	 */
+	public Duration blockedFor() {
+		long since = blockedSince;
+		return blockedOn == null ? Duration.ZERO : Duration.ofNanos(System.nanoTime() - since);
+	}
+
+	/**
+	 * Checks if this is a thread that is not a goroutine but spawned goroutines, recorded so that the
+	 * {@link Deadlocks} watchdog takes it into account like Go takes its main goroutine into account.
+	 *
+	 * @return {@code true} if this is a root, {@code false} if it is a goroutine
+	 */
+	boolean isRoot() {
+		return root;
+	}
+
+	/**
+	 * Records that this goroutine has started running on the calling thread.
+	 */
+	void start() {
+		this.thread = Thread.currentThread();
+	}
+
+	/**
+	 * Records that this goroutine is blocked on the specified object. Must be called by the goroutine itself.
+	 *
+	 * @param on the object this goroutine is blocked on
+	 * @param operation the operation this goroutine is blocked in
+	 */
+	void block(Object on, String operation) {
+		this.operation = operation;
+		this.blockedSince = System.nanoTime();
+		this.blockedOn = on;
+	}
+
+	/**
+	 * Records that this goroutine is no longer blocked. Must be called by the goroutine itself.
+	 */
+	void unblock() {
+		this.blockedOn = null;
+		this.operation = null;
+	}
+
+	@Override
+	public String toString() {
+		return "goroutine " + id + (isBlocked() ? " [" + operation + "]" : " [running]");
+	}
+}
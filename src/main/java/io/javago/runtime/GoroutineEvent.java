@@ -0,0 +1,65 @@
+package io.javago.runtime;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The {@code GoroutineEvent} class is a JDK Flight Recorder event spanning the run of a goroutine, committed when the
+ * goroutine completes. It is disabled by default.
+ */
+@Name("io.javago.Goroutine")
+@Label("Goroutine")
+@Category({"JavaGo", "Goroutines"})
+@Description("A goroutine ran to completion")
+@Enabled(false)
+@StackTrace(false)
+public final class GoroutineEvent extends Event {
+
+	private static final GoroutineEvent PROBE = new GoroutineEvent();
+
+	@Label("Goroutine Id")
+	private long goroutineId;
+
+	/**
+	 * Constructs a {@code GoroutineEvent}. Use {@link #start(long)} to record one.
+	 */
+	private GoroutineEvent() {}
+
+	/**
+	 * Checks if the event is enabled in a running recording.
+	 *
+	 * @return {@code true} if the event is enabled, {@code false} otherwise
+	 */
+	static boolean enabled() {
+		return PROBE.isEnabled();
+	}
+
+	/**
+	 * Starts timing the run of a goroutine on the calling thread.
+	 *
+	 * @param goroutineId the identifier of the goroutine
+	 * @return the started event
+	 */
+	static GoroutineEvent start(long goroutineId) {
+		GoroutineEvent event = new GoroutineEvent();
+		event.goroutineId = goroutineId;
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Commits the event of a goroutine that completed.
+	 *
+	 * @param event the event returned by {@link #start(long)}, or {@code null} if there is none
+	 */
+	static void finish(GoroutineEvent event) {
+		if (event != null) {
+			event.commit();
+		}
+	}
+}
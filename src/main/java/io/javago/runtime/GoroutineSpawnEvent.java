@@ -0,0 +1,53 @@
+package io.javago.runtime;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The {@code GoroutineSpawnEvent} class is a JDK Flight Recorder event committed on the spawning thread when a
+ * goroutine is spawned by {@link io.javago.Go#go} or a {@link io.javago.Selector}. Its stack trace is the spawn site.
+ * It is disabled by default.
+ */
+@Name("io.javago.GoroutineSpawn")
+@Label("Goroutine Spawn")
+@Category({"JavaGo", "Goroutines"})
+@Description("A goroutine was spawned")
+@Enabled(false)
+public final class GoroutineSpawnEvent extends Event {
+
+	private static final GoroutineSpawnEvent PROBE = new GoroutineSpawnEvent();
+
+	@Label("Goroutine Id")
+	private long goroutineId;
+
+	/**
+	 * Constructs a {@code GoroutineSpawnEvent}. Use {@link #emit(long)} to record one.
+	 */
+	private GoroutineSpawnEvent() {}
+
+	/**
+	 * Checks if the event is enabled in a running recording.
+	 *
+	 * @return {@code true} if the event is enabled, {@code false} otherwise
+	 */
+	static boolean enabled() {
+		return PROBE.isEnabled();
+	}
+
+	/**
+	 * Records that the calling thread spawned a goroutine.
+	 *
+	 * @param goroutineId the identifier of the spawned goroutine
+	 */
+	static void emit(long goroutineId) {
+		GoroutineSpawnEvent event = new GoroutineSpawnEvent();
+		if (event.shouldCommit()) {
+			event.goroutineId = goroutineId;
+			event.commit();
+		}
+	}
+}
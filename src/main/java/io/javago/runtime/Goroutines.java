@@ -0,0 +1,356 @@
+package io.javago.runtime;
+
+import io.javago.Go;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code Goroutines} class is a registry of the live goroutines, similar to Go's goroutine profile.
+ * While tracking is enabled, every goroutine spawned by {@link Go#go} or by a {@link io.javago.Selector} records the
+ * site it was spawned from, and the channels and synchronization primitives of JavaGo record which goroutine is
+ * blocked on them and since when.
+ * {@link #dump()} groups the live goroutines by stack, blocking object and spawn site, and flags the goroutines that
+ * have been blocked for longer than a threshold, which are likely to have leaked. The number of live and blocked
+ * goroutines is also kept up to date for the {@link Deadlocks} watchdog.
+ * <p>
+ * Tracking is disabled by default and can be enabled with the {@code javago.goroutines} system property or with
+ * {@link #enable()}. Until a goroutine has been recorded, the {@link Wait} hooks cost a single volatile read.
+ * Goroutines spawned while tracking was disabled are not recorded.
+ */
+public final class Goroutines {
+
+	private static final long LIVE = 1L << 32;
+	private static final AtomicLong ids = new AtomicLong();
+	private static final AtomicLong counts = new AtomicLong();
+	private static final Set<Goroutine> live = ConcurrentHashMap.newKeySet();
+	private static final Set<Goroutine> roots = ConcurrentHashMap.newKeySet();
+	private static final ThreadLocal<Goroutine> current = new ThreadLocal<>();
+	private static volatile boolean enabled = Boolean.getBoolean("javago.goroutines");
+	private static volatile boolean recorded = false;
+	private static volatile Duration threshold = Duration.ofMinutes(1);
+
+	private Goroutines() {}
+
+	/**
+	 * Enables tracking of the goroutines spawned from now on.
+	 */
+	public static void enable() {
+		enabled = true;
+	}
+
+	/**
+	 * Disables tracking. Goroutines that are already recorded stay recorded until they complete, but the threads that
+	 * spawned them are forgotten.
+	 */
+	public static void disable() {
+		enabled = false;
+		roots.clear();
+	}
+
+	/**
+	 * Checks if tracking is enabled.
+	 *
+	 * @return {@code true} if tracking is enabled, {@code false} otherwise
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets how long a goroutine must be blocked before {@link #dump()} flags it. Defaults to one minute.
+	 *
+	 * @param threshold the time after which a blocked goroutine is flagged
+	 */
+	public static void setThreshold(Duration threshold) {
+		Goroutines.threshold = Objects.requireNonNull(threshold);
+	}
+
+	/**
+	 * Wraps a task about to be run on a new goroutine so that the goroutine is recorded from now until it completes,
+	 * counting as running while it waits to be scheduled, so that the {@link GoroutineSpawnEvent} and
+	 * {@link GoroutineEvent} JDK Flight Recorder events are emitted if enabled, and so that the goroutine is traced by
+	 * the {@link Tracer} if it is started.
+	 * Returns the task itself if tracking, the events and the tracer are disabled.
+	 *
+	 * @param r the task to be run on a new goroutine
+	 * @return the task to run instead
+	 */
+	public static Runnable wrap(Runnable r) {
+		boolean track = enabled;
+		boolean events = GoroutineEvent.enabled();
+		boolean trace = Tracer.isEnabled();
+		if (!track && !events && !trace && !GoroutineSpawnEvent.enabled()) {
+			return r;
+		}
+		long id = ids.incrementAndGet();
+		GoroutineSpawnEvent.emit(id);
+		Tracer.record(TraceEvent.GO_CREATE, null, id);
+		if (!track && !events && !trace) {
+			return r;
+		}
+		StackTraceElement[] spawnSite = !track ? null : StackWalker.getInstance().walk(frames -> frames
+			.skip(1)
+			.dropWhile(f -> isInternal(f.getClassName()))
+			.limit(16)
+			.map(StackWalker.StackFrame::toStackTraceElement)
+			.toArray(StackTraceElement[]::new)
+		);
+		Goroutine g = track ? new Goroutine(id, spawnSite) : null;
+		if (g != null) {
+			addRoot(current.get());
+			live.add(g);
+			if (!recorded) {
+				recorded = true;
+				Wait.update();
+			}
+			counts.addAndGet(LIVE);
+		}
+		return () -> {
+			GoroutineEvent event = events ? GoroutineEvent.start(id) : null;
+			Tracer.record(TraceEvent.GO_START, null, id);
+			Goroutine previous = null;
+			if (g != null) {
+				g.start();
+				previous = current.get();
+				current.set(g);
+			}
+			try {
+				r.run();
+			} finally {
+				if (g != null) {
+					if (previous == null) {
+						current.remove();
+					} else {
+						current.set(previous);
+					}
+					live.remove(g);
+					check(counts.addAndGet(-LIVE));
+				}
+				GoroutineEvent.finish(event);
+				Tracer.record(TraceEvent.GO_END, null, id);
+			}
+		};
+	}
+
+	/**
+	 * Checks if goroutines are being recorded, which is the case from the first goroutine spawned while tracking was
+	 * enabled onwards.
+	 *
+	 * @return {@code true} if goroutines are being recorded, {@code false} otherwise
+	 */
+	static boolean isRecording() {
+		return recorded;
+	}
+
+	/**
+	 * Records that the calling goroutine is about to block on the specified object. Called by {@link Wait}.
+	 *
+	 * @param on the channel or synchronization primitive the goroutine blocks on
+	 * @param operation the operation the goroutine blocks in
+	 * @return the goroutine to pass to {@link #unblock(Goroutine)}, or {@code null} if the calling thread is not a
+	 * recorded goroutine
+	 */
+	static Goroutine block(Object on, String operation) {
+		Goroutine g = current.get();
+		if (g == null) {
+			return null;
+		}
+		g.block(on, operation);
+		if (!g.isRoot()) {
+			check(counts.incrementAndGet());
+		}
+		return g;
+	}
+
+	/**
+	 * Records that a goroutine returned by {@link #block(Object, String)} is no longer blocked. Called by {@link Wait}.
+	 *
+	 * @param g the goroutine, or {@code null} if nothing was recorded
+	 */
+	static void unblock(Goroutine g) {
+		if (g != null) {
+			g.unblock();
+			if (!g.isRoot()) {
+				counts.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Returns a snapshot of the live goroutines recorded while tracking was enabled.
+	 *
+	 * @return the recorded goroutines, ordered by identifier
+	 */
+	public static List<Goroutine> goroutines() {
+		List<Goroutine> snapshot = new ArrayList<>(live);
+		snapshot.sort(Comparator.comparingLong(Goroutine::id));
+		return snapshot;
+	}
+
+	/**
+	 * Returns the threads that are not goroutines but spawned goroutines while tracking was enabled and are still
+	 * alive, like Go's main goroutine. They are not counted as live goroutines, but the channels and synchronization
+	 * primitives of JavaGo record what they are blocked on like they do for goroutines.
+	 *
+	 * @return the recorded roots
+	 */
+	static List<Goroutine> roots() {
+		roots.removeIf(g -> !g.thread().isAlive());
+		return new ArrayList<>(roots);
+	}
+
+	/**
+	 * Returns the recorded goroutines that have been blocked in their current operation for longer than the specified
+	 * threshold.
+	 *
+	 * @param threshold the minimum time blocked
+	 * @return the goroutines blocked for longer than the threshold, ordered by identifier
+	 */
+	public static List<Goroutine> blockedLongerThan(Duration threshold) {
+		List<Goroutine> blocked = new ArrayList<>();
+		for (Goroutine g : goroutines()) {
+			if (g.isBlocked() && g.blockedFor().compareTo(threshold) > 0) {
+				blocked.add(g);
+			}
+		}
+		return blocked;
+	}
+
+	/**
+	 * Returns a textual dump of the recorded goroutines using the threshold set by {@link #setThreshold(Duration)}.
+	 *
+	 * @return the dump
+	 * @see #dump(Duration)
+	 */
+	public static String dump() {
+		return dump(threshold);
+	}
+
+	/**
+	 * Returns a textual dump of the recorded goroutines in the format of Go's goroutine profile.
+	 * Goroutines with the same stack, blocking object and spawn site are grouped together, and the groups are ordered
+	 * by decreasing size. A group is flagged with {@code "[blocked over threshold]"} if its longest blocked goroutine
+	 * has been blocked for longer than the threshold.
+	 *
+	 * @param threshold the time after which a blocked goroutine is flagged
+	 * @return the dump
+	 */
+	public static String dump(Duration threshold) {
+		Map<String, Group> groups = new LinkedHashMap<>();
+		List<Goroutine> snapshot = goroutines();
+		for (Goroutine g : snapshot) {
+			Object on = g.blockedOn();
+			String operation = g.operation();
+			Duration blockedFor = g.blockedFor();
+			StringBuilder frames = new StringBuilder();
+			Thread thread = g.thread();
+			if (thread == null) {
+				frames.append("#\tnot started\n");
+			} else {
+				for (StackTraceElement frame : thread.getStackTrace()) {
+					frames.append("#\t").append(frame).append('\n');
+				}
+			}
+			frames.append("# created by\n");
+			for (StackTraceElement frame : g.spawnSite()) {
+				frames.append("#\t").append(frame).append('\n');
+			}
+			String header = on == null
+				? "running"
+				: operation + " on " + on.getClass().getSimpleName() + "@" + Integer.toHexString(
+					System.identityHashCode(on)
+				);
+			Group group = groups.computeIfAbsent(header + '\n' + frames, k -> new Group(header, frames.toString()));
+			group.count++;
+			if (blockedFor.compareTo(group.longest) > 0) {
+				group.longest = blockedFor;
+			}
+		}
+
+		List<Group> sorted = new ArrayList<>(groups.values());
+		sorted.sort(Comparator.comparingInt((Group group) -> group.count).reversed());
+		StringBuilder dump = new StringBuilder("goroutine profile: total ").append(snapshot.size()).append('\n');
+		for (Group group : sorted) {
+			dump.append(group.count).append(" @ ").append(group.header);
+			if (!group.longest.isZero()) {
+				dump.append(" for ").append(group.longest.toMillis()).append("ms");
+				if (group.longest.compareTo(threshold) > 0) {
+					dump.append(" [blocked over threshold]");
+				}
+			}
+			dump.append('\n').append(group.frames).append('\n');
+		}
+		return dump.toString();
+	}
+
+	/**
+	 * Records the calling thread as a root if it is not a goroutine, and forgets the roots whose thread has terminated.
+	 *
+	 * @param spawner the goroutine or root of the calling thread, or {@code null} if it has none yet
+	 */
+	private static void addRoot(Goroutine spawner) {
+		if (spawner != null) {
+			if (spawner.isRoot()) {
+				roots.add(spawner);
+			}
+			return;
+		}
+		roots.removeIf(g -> !g.thread().isAlive());
+		Goroutine root = new Goroutine(ids.incrementAndGet(), new StackTraceElement[0], true);
+		root.start();
+		roots.add(root);
+		current.set(root);
+	}
+
+	/**
+	 * Passes the number of live and blocked goroutines to the {@link Deadlocks} watchdog.
+	 *
+	 * @param counts the number of live goroutines in the upper half and of blocked goroutines in the lower half
+	 */
+	private static void check(long counts) {
+		Deadlocks.check((int) (counts >>> 32), (int) counts);
+	}
+
+	/**
+	 * Passes the current number of live and blocked goroutines to the {@link Deadlocks} watchdog again.
+	 */
+	static void recheck() {
+		check(counts.get());
+	}
+
+	/**
+	 * Checks if a class spawns goroutines on behalf of its callers, so that it is left out of spawn sites.
+	 *
+	 * @param className the name of the class
+	 * @return {@code true} if the class is part of the core {@code io.javago} package or of this package
+	 */
+	private static boolean isInternal(String className) {
+		return className.startsWith("io.javago.runtime.")
+			|| className.startsWith("io.javago.") && className.indexOf('.', "io.javago.".length()) < 0;
+	}
+
+	/**
+	 * The {@code Group} class holds the goroutines of a dump that share a stack, blocking object and spawn site.
+	 */
+	private static class Group {
+
+		private final String header;
+		private final String frames;
+		private int count = 0;
+		private Duration longest = Duration.ZERO;
+
+		/**
+		 * Constructs an empty {@code Group}.
+		 *
+		 * @param header the blocking operation and object of the group
+		 * @param frames the stack and spawn site of the group
+		 */
+		private Group(String header, String frames) {
+			this.header = header;
+			this.frames = frames;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package io.javago.runtime;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The {@code SelectEvent} class is a JDK Flight Recorder event spanning a run of a {@link io.javago.Selector}, from
+ * the call to the choice of a case. It is disabled by default.
+ */
+@Name("io.javago.Select")
+@Label("Select")
+@Category({"JavaGo", "Channels"})
+@Description("A Selector chose a case")
+@Enabled(false)
+public final class SelectEvent extends Event {
+
+	private static final SelectEvent PROBE = new SelectEvent();
+
+	@Label("Case Count")
+	private int caseCount;
+
+	@Label("Winning Case")
+	@Description("The index of the case that was run in the order cases were added, or -1 for the default case")
+	private int winningCase;
+
+	@Label("Default Taken")
+	private boolean defaultTaken;
+
+	/**
+	 * Constructs a {@code SelectEvent}. Use {@link #start()} to record one.
+	 */
+	private SelectEvent() {}
+
+	/**
+	 * Starts timing a run of a {@code Selector} if the event is enabled in a running recording.
+	 *
+	 * @return the started event, or {@code null} if the event is disabled
+	 */
+	public static SelectEvent start() {
+		if (!PROBE.isEnabled()) {
+			return null;
+		}
+		SelectEvent event = new SelectEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Commits the event of a run of a {@code Selector} once a case has been chosen.
+	 *
+	 * @param event the event returned by {@link #start()}, or {@code null} if there is none
+	 * @param caseCount the number of cases of the {@code Selector}, excluding the default case
+	 * @param winningCase the index of the chosen case, or {@code -1} if the default case was chosen
+	 */
+	public static void finish(SelectEvent event, int caseCount, int winningCase) {
+		if (event == null) {
+			return;
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.caseCount = caseCount;
+			event.winningCase = winningCase;
+			event.defaultTaken = winningCase < 0;
+			event.commit();
+		}
+	}
+}
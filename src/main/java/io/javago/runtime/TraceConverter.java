@@ -0,0 +1,140 @@
+package io.javago.runtime;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code TraceConverter} class converts the binary files written by {@link Tracer#flush(Path)} to the Chrome
+ * trace-event JSON format, which can be opened in {@code chrome://tracing} or Perfetto.
+ * Each thread is shown as a track on which goroutines and blocking operations are slices, sends, receives, closes
+ * and {@code Selector} choices are instant events, and spawns are arrows from the spawning thread to the goroutine.
+ * It can also be run from the command line with the trace file and the JSON file as arguments.
+ */
+public final class TraceConverter {
+
+	private TraceConverter() {}
+
+	/**
+	 * Converts a binary trace file to a Chrome trace-event JSON file.
+	 *
+	 * @param args the binary trace file followed by the JSON file to write
+	 * @throws IOException if reading or writing fails
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("usage: TraceConverter <trace> <json>");
+			System.exit(2);
+		}
+		convert(Path.of(args[0]), Path.of(args[1]));
+	}
+
+	/**
+	 * Converts a binary trace file to a Chrome trace-event JSON file, replacing it if it exists.
+	 *
+	 * @param trace the binary trace file
+	 * @param json the JSON file to write
+	 * @throws IOException if reading or writing fails
+	 */
+	public static void convert(Path trace, Path json) throws IOException {
+		try (
+			InputStream in = Files.newInputStream(trace);
+			Writer out = Files.newBufferedWriter(json, StandardCharsets.UTF_8)
+		) {
+			convert(in, out);
+		}
+	}
+
+	/**
+	 * Converts a binary trace to Chrome trace-event JSON.
+	 *
+	 * @param stream the binary trace
+	 * @param out the writer to write the JSON to
+	 * @throws IOException if reading or writing fails, or if the stream is not a trace
+	 */
+	public static void convert(InputStream stream, Writer out) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+		if (in.readLong() != Tracer.MAGIC) {
+			throw new IOException("Not a JavaGo trace");
+		}
+		List<String> operations = new ArrayList<>();
+		int operationCount = in.readInt();
+		for (int i = 0; i < operationCount; i++) {
+			operations.add(in.readUTF());
+		}
+		TraceEvent[] types = TraceEvent.values();
+
+		out.write("{\"displayTimeUnit\":\"ns\",\"traceEvents\":[");
+		int eventCount = in.readInt();
+		boolean first = true;
+		for (int i = 0; i < eventCount; i++) {
+			long time = in.readLong();
+			long typeAndThread = in.readLong();
+			long objectId = in.readLong();
+			long arg = in.readLong();
+			int type = (int) (typeAndThread >>> 56);
+			if (type >= types.length) {
+				continue;
+			}
+			long tid = typeAndThread & 0x00FFFFFFFFFFFFFFL;
+			String object = Long.toHexString(objectId);
+			String common = "\"pid\":1,\"tid\":" + tid + ",\"ts\":" + time / 1000.0;
+			String event = switch (types[type]) {
+				case GO_CREATE -> "{\"name\":\"go\",\"ph\":\"i\",\"s\":\"t\"," + common
+					+ ",\"args\":{\"goroutine\":" + arg + "}},"
+					+ "{\"name\":\"spawn\",\"cat\":\"goroutine\",\"ph\":\"s\",\"id\":" + arg + "," + common + "}";
+				case GO_START -> "{\"name\":\"goroutine " + arg + "\",\"ph\":\"B\"," + common + "},"
+					+ "{\"name\":\"spawn\",\"cat\":\"goroutine\",\"ph\":\"f\",\"bp\":\"e\",\"id\":" + arg + ","
+					+ common + "}";
+				case GO_END -> "{\"name\":\"goroutine " + arg + "\",\"ph\":\"E\"," + common + "}";
+				case CHAN_SEND, CHAN_RECEIVE -> "{\"name\":\""
+					+ (types[type] == TraceEvent.CHAN_SEND ? "send" : "receive")
+					+ "\",\"cat\":\"chan\",\"ph\":\"i\",\"s\":\"t\"," + common + ",\"args\":{\"chan\":\"" + object
+					+ "\",\"message\":\"" + Long.toHexString(arg) + "\"}}";
+				case CHAN_CLOSE -> "{\"name\":\"close\",\"cat\":\"chan\",\"ph\":\"i\",\"s\":\"t\"," + common
+					+ ",\"args\":{\"chan\":\"" + object + "\"}}";
+				case BLOCK, UNBLOCK -> "{\"name\":\"" + escape(operation(operations, arg))
+					+ "\",\"cat\":\"block\",\"ph\":\"" + (types[type] == TraceEvent.BLOCK ? "B" : "E") + "\","
+					+ common + ",\"args\":{\"on\":\"" + object + "\"}}";
+				case SELECT -> "{\"name\":\"select\",\"ph\":\"i\",\"s\":\"t\"," + common + ",\"args\":{\"selector\":\""
+					+ object + "\",\"case\":" + arg + "}}";
+			};
+			if (!first) {
+				out.write(',');
+			}
+			out.write('\n');
+			out.write(event);
+			first = false;
+		}
+		out.write("\n]}\n");
+		out.flush();
+	}
+
+	/**
+	 * Returns the name of an operation from the table of a trace.
+	 *
+	 * @param operations the table of operation names
+	 * @param code the code of the operation
+	 * @return the name of the operation
+	 */
+	private static String operation(List<String> operations, long code) {
+		return code >= 0 && code < operations.size() ? operations.get((int) code) : "blocked";
+	}
+
+	/**
+	 * Escapes a string for use in a JSON string literal.
+	 *
+	 * @param s the string to escape
+	 * @return the escaped string
+	 */
+	private static String escape(String s) {
+		return s.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+}
@@ -0,0 +1,53 @@
+package io.javago.runtime;
+
+/**
+ * The {@code TraceEvent} enum lists the kinds of events recorded by the {@link Tracer}.
+ * The ordinal of each kind is its code in trace files, so new kinds must only be added at the end.
+ */
+public enum TraceEvent {
+
+	/**
+	 * A goroutine was spawned. The argument is the identifier of the new goroutine.
+	 */
+	GO_CREATE,
+
+	/**
+	 * A goroutine started running. The argument is the identifier of the goroutine.
+	 */
+	GO_START,
+
+	/**
+	 * A goroutine completed. The argument is the identifier of the goroutine.
+	 */
+	GO_END,
+
+	/**
+	 * A message was sent to a channel. The argument is the identity hash code of the message.
+	 */
+	CHAN_SEND,
+
+	/**
+	 * A message was received from a channel. The argument is the identity hash code of the message.
+	 */
+	CHAN_RECEIVE,
+
+	/**
+	 * A channel was closed.
+	 */
+	CHAN_CLOSE,
+
+	/**
+	 * A thread blocked on a channel or synchronization primitive. The argument is the code of the operation.
+	 */
+	BLOCK,
+
+	/**
+	 * A thread stopped blocking. The argument is the code of the operation.
+	 */
+	UNBLOCK,
+
+	/**
+	 * A {@code Selector} chose a case. The argument is the index of the case, or {@code -1} for the default case.
+	 */
+	SELECT
+}
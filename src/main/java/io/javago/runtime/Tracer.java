@@ -0,0 +1,279 @@
+package io.javago.runtime;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code Tracer} class implements an execution tracer like Go's {@code runtime/trace}.
+ * While started, it records when goroutines are spawned, start and complete, every message sent to and received from
+ * a {@code BufferedQueueChannel}, every close, every block and unblock on a channel, {@code Selector},
+ * {@code WaitGroup}, {@code Once} or {@code Pool}, and every case chosen by a {@code Selector}.
+ * <p>
+ * Events are written as four {@code long}s into fixed-size ring buffers without locks. There is one ring per stripe
+ * of threads rather than per thread, since a program can run millions of virtual threads, and threads are spread
+ * over the stripes by identifier so that writers rarely share a ring. A writer claims a slot with a single
+ * {@code getAndIncrement} and publishes it with a release store of its sequence number, so a {@link #flush(Path)}
+ * running concurrently never blocks writers and skips the slots being overwritten. Once a ring is full, its oldest
+ * events are overwritten. While stopped, every hook costs a single volatile read.
+ * <p>
+ * {@link #flush(Path)} writes the events to a compact binary file that {@link TraceConverter} turns into the Chrome
+ * trace-event format for viewing in {@code chrome://tracing} or Perfetto.
+ */
+public final class Tracer {
+
+	static final long MAGIC = 0x4A47545241434531L;
+	private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+	private static final int STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+	private static final List<String> operations = new CopyOnWriteArrayList<>();
+	private static final ConcurrentHashMap<String, Integer> operationCodes = new ConcurrentHashMap<>();
+	private static volatile Ring[] rings;
+	private static volatile boolean enabled = false;
+	private static volatile long origin;
+
+	private Tracer() {}
+
+	/**
+	 * Starts tracing with rings of the default size of 65536 events per stripe, discarding the events of any previous
+	 * trace.
+	 */
+	public static void start() {
+		start(1 << 16);
+	}
+
+	/**
+	 * Starts tracing, discarding the events of any previous trace.
+	 *
+	 * @param eventsPerStripe the number of events each ring holds before overwriting its oldest events, rounded up
+	 * to a power of two
+	 * @throws IllegalArgumentException if {@code eventsPerStripe} is not positive
+	 */
+	public static synchronized void start(int eventsPerStripe) {
+		if (eventsPerStripe <= 0) {
+			throw new IllegalArgumentException("eventsPerStripe must be greater than 0");
+		}
+		int capacity = Integer.highestOneBit(eventsPerStripe - 1) << 1;
+		Ring[] created = new Ring[STRIPES];
+		for (int i = 0; i < created.length; i++) {
+			created[i] = new Ring(Math.max(capacity, 1));
+		}
+		origin = System.nanoTime();
+		rings = created;
+		enabled = true;
+		Wait.update();
+	}
+
+	/**
+	 * Stops tracing. The events recorded so far are kept until the next {@link #start()} and can still be flushed.
+	 */
+	public static synchronized void stop() {
+		enabled = false;
+		Wait.update();
+	}
+
+	/**
+	 * Checks if tracing is started.
+	 *
+	 * @return {@code true} if tracing is started, {@code false} otherwise
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Records an event about an object if tracing is started.
+	 *
+	 * @param type the kind of event
+	 * @param on the channel, primitive or {@code Selector} the event is about, or {@code null} if there is none
+	 * @param arg the argument of the event, whose meaning depends on its kind
+	 */
+	public static void record(TraceEvent type, Object on, long arg) {
+		if (enabled) {
+			write(type, on == null ? 0 : System.identityHashCode(on), arg);
+		}
+	}
+
+	/**
+	 * Records an event about a message if tracing is started, with the identity hash code of the message as its
+	 * argument.
+	 *
+	 * @param type the kind of event
+	 * @param on the channel the event is about
+	 * @param message the message sent or received
+	 */
+	public static void record(TraceEvent type, Object on, Object message) {
+		if (enabled) {
+			write(type, System.identityHashCode(on), System.identityHashCode(message));
+		}
+	}
+
+	/**
+	 * Records that the calling thread blocks or stops blocking in an operation. Called by {@link Wait}.
+	 *
+	 * @param type {@link TraceEvent#BLOCK} or {@link TraceEvent#UNBLOCK}
+	 * @param on the object the thread blocks on
+	 * @param operation the operation the thread blocks in
+	 */
+	static void recordWait(TraceEvent type, Object on, String operation) {
+		if (enabled) {
+			Integer code = operationCodes.get(operation);
+			if (code == null) {
+				code = register(operation);
+			}
+			write(type, System.identityHashCode(on), code);
+		}
+	}
+
+	/**
+	 * Writes the events recorded so far to a binary trace file, replacing it if it exists.
+	 * Tracing does not need to be stopped, and writers are never blocked while the events are copied.
+	 *
+	 * @param path the file to write the trace to
+	 * @throws IOException if writing fails
+	 */
+	public static void flush(Path path) throws IOException {
+		try (OutputStream out = Files.newOutputStream(path)) {
+			flush(out);
+		}
+	}
+
+	/**
+	 * Writes the events recorded so far to a stream in the binary trace format: a magic number, the table of
+	 * operation names, the number of events, then four {@code long}s per event ordered by time, which are the
+	 * nanoseconds since the trace started, the kind and thread identifier, the object identifier, and the argument.
+	 *
+	 * @param stream the stream to write the trace to
+	 * @throws IOException if writing fails
+	 */
+	public static void flush(OutputStream stream) throws IOException {
+		List<long[]> events = new ArrayList<>();
+		Ring[] current = rings;
+		if (current != null) {
+			for (Ring ring : current) {
+				ring.copyTo(events);
+			}
+		}
+		events.sort((a, b) -> Long.compare(a[0], b[0]));
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+		out.writeLong(MAGIC);
+		List<String> names = List.copyOf(operations);
+		out.writeInt(names.size());
+		for (String name : names) {
+			out.writeUTF(name);
+		}
+		out.writeInt(events.size());
+		for (long[] event : events) {
+			for (long word : event) {
+				out.writeLong(word);
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * Assigns a code to an operation name the first time it is traced.
+	 *
+	 * @param operation the operation name
+	 * @return the code of the operation
+	 */
+	private static synchronized int register(String operation) {
+		return operationCodes.computeIfAbsent(operation, name -> {
+			operations.add(name);
+			return operations.size() - 1;
+		});
+	}
+
+	/**
+	 * Writes an event into the ring of the calling thread's stripe.
+	 *
+	 * @param type the kind of event
+	 * @param objectId the identifier of the object the event is about
+	 * @param arg the argument of the event
+	 */
+	private static void write(TraceEvent type, int objectId, long arg) {
+		Ring[] current = rings;
+		long tid = Thread.currentThread().threadId();
+		current[(int) (tid & (current.length - 1))].write(
+			System.nanoTime() - origin,
+			(long) type.ordinal() << 56 | tid & 0x00FFFFFFFFFFFFFFL,
+			objectId,
+			arg
+		);
+	}
+
+	/**
+	 * The {@code Ring} class is a lock-free ring buffer of events shared by the threads of a stripe.
+	 * Each slot holds a sequence number followed by the four words of an event. A writer marks its slot as being
+	 * written, writes the event, then publishes the slot's position plus one with a release store. A reader only keeps
+	 * a slot whose sequence number is the expected one both before and after reading it.
+	 */
+	private static class Ring {
+
+		private static final int SLOT = 5;
+
+		private final long[] slots;
+		private final int mask;
+		private final AtomicLong position = new AtomicLong();
+
+		/**
+		 * Constructs an empty {@code Ring}.
+		 *
+		 * @param capacity the number of events the ring holds, a power of two
+		 */
+		private Ring(int capacity) {
+			this.slots = new long[capacity * SLOT];
+			this.mask = capacity - 1;
+		}
+
+		/**
+		 * Writes an event into the next slot, overwriting the oldest event if the ring is full.
+		 *
+		 * @param time the nanoseconds since the trace started
+		 * @param typeAndThread the kind of event in the upper byte and the thread identifier in the rest
+		 * @param objectId the identifier of the object the event is about
+		 * @param arg the argument of the event
+		 */
+		private void write(long time, long typeAndThread, long objectId, long arg) {
+			long index = position.getAndIncrement();
+			int base = (int) (index & mask) * SLOT;
+			SLOTS.setOpaque(slots, base, -1L);
+			VarHandle.storeStoreFence();
+			slots[base + 1] = time;
+			slots[base + 2] = typeAndThread;
+			slots[base + 3] = objectId;
+			slots[base + 4] = arg;
+			SLOTS.setRelease(slots, base, index + 1);
+		}
+
+		/**
+		 * Copies the events that are fully written and not being overwritten.
+		 *
+		 * @param events the list to add the copied events to
+		 */
+		private void copyTo(List<long[]> events) {
+			long end = position.get();
+			long start = Math.max(0, end - (mask + 1));
+			for (long index = start; index < end; index++) {
+				int base = (int) (index & mask) * SLOT;
+				if ((long) SLOTS.getAcquire(slots, base) != index + 1) {
+					continue;
+				}
+				long[] event = {slots[base + 1], slots[base + 2], slots[base + 3], slots[base + 4]};
+				VarHandle.loadLoadFence();
+				if ((long) SLOTS.getOpaque(slots, base) == index + 1) {
+					events.add(event);
+				}
+			}
+		}
+	}
+}
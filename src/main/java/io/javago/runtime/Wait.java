@@ -0,0 +1,95 @@
+package io.javago.runtime;
+
+import io.javago.BufferedQueueChannel;
+import io.javago.sync.WaitGroup;
+
+/**
+ * The {@code Wait} class is the single hook through which the channels and synchronization primitives of JavaGo
+ * report that the calling thread blocks on them, for {@link Goroutines}, {@link BlockProfile}, {@link Tracer}, and the
+ * {@link ChannelBlockEvent} and {@link WaitGroupWaitEvent} JDK Flight Recorder events.
+ * A blocking operation calls {@link #begin(Object, String)} before it first waits and {@link #end(Wait)} once it is
+ * done waiting, however many times it was woken up in between. Both are called without holding the lock the
+ * operation waits on, since ending a wait may walk the stack of the calling thread for the {@link BlockProfile}.
+ * <p>
+ * While no diagnostic is enabled, {@code begin} costs a single volatile read and two checks of the enabled state
+ * of the events, and returns {@code null}. A wait that
+ * begins while the calling thread is already waiting, such as a {@code Selector} receiving from its internal
+ * channel, is ignored so that only the outermost operation is reported.
+ */
+public final class Wait {
+
+	private static final ThreadLocal<Wait> current = new ThreadLocal<>();
+	private static volatile boolean active = BlockProfile.isEnabled();
+
+	private final Object on;
+	private final String operation;
+	private final Goroutine goroutine;
+	private final long start;
+	private final ChannelBlockEvent channelEvent;
+	private final WaitGroupWaitEvent waitGroupEvent;
+
+	/**
+	 * Constructs a {@code Wait} that begins now.
+	 *
+	 * @param on the channel or synchronization primitive the thread blocks on
+	 * @param operation the operation the thread blocks in
+	 */
+	private Wait(Object on, String operation) {
+		this.on = on;
+		this.operation = operation;
+		this.goroutine = Goroutines.block(on, operation);
+		this.channelEvent = on instanceof BufferedQueueChannel<?> channel && ChannelBlockEvent.enabled()
+			? ChannelBlockEvent.start(channel, operation)
+			: null;
+		this.waitGroupEvent = on instanceof WaitGroup && WaitGroupWaitEvent.enabled()
+			? WaitGroupWaitEvent.start(on)
+			: null;
+		this.start = System.nanoTime();
+		Tracer.recordWait(TraceEvent.BLOCK, on, operation);
+	}
+
+	/**
+	 * Records that the calling thread is about to block on the specified object.
+	 *
+	 * @param on the channel or synchronization primitive the thread blocks on
+	 * @param operation the operation the thread blocks in, such as {@code "chan send"}
+	 * @return the wait to pass to {@link #end(Wait)}, or {@code null} if nothing was recorded
+	 */
+	public static Wait begin(Object on, String operation) {
+		if (!active && !ChannelBlockEvent.enabled() && !WaitGroupWaitEvent.enabled() || current.get() != null) {
+			return null;
+		}
+		Wait wait = new Wait(on, operation);
+		current.set(wait);
+		return wait;
+	}
+
+	/**
+	 * Records that a wait returned by {@link #begin(Object, String)} has ended.
+	 *
+	 * @param wait the wait, or {@code null} if nothing was recorded
+	 */
+	public static void end(Wait wait) {
+		if (wait == null) {
+			return;
+		}
+		current.remove();
+		Tracer.recordWait(TraceEvent.UNBLOCK, wait.on, wait.operation);
+		Goroutines.unblock(wait.goroutine);
+		BlockProfile.record(wait.operation, System.nanoTime() - wait.start);
+		if (wait.channelEvent != null) {
+			wait.channelEvent.finish((BufferedQueueChannel<?>) wait.on);
+		}
+		if (wait.waitGroupEvent != null) {
+			wait.waitGroupEvent.finish();
+		}
+	}
+
+	/**
+	 * Recomputes whether any diagnostic needs to be told about waits. Called whenever a diagnostic is enabled or
+	 * disabled.
+	 */
+	static synchronized void update() {
+		active = Goroutines.isRecording() || BlockProfile.isEnabled() || Tracer.isEnabled();
+	}
+}
@@ -0,0 +1,66 @@
+package io.javago.runtime;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * The {@code WaitGroupWaitEvent} class is a JDK Flight Recorder event spanning a {@link io.javago.sync.WaitGroup}
+ * await that blocked. It is disabled by default and, once enabled, only recorded for waits longer than its threshold
+ * of 10 ms unless configured otherwise.
+ */
+@Name("io.javago.WaitGroupWait")
+@Label("WaitGroup Wait")
+@Category({"JavaGo", "Sync"})
+@Description("A WaitGroup await blocked")
+@Enabled(false)
+@Threshold("10 ms")
+public final class WaitGroupWaitEvent extends Event {
+
+	private static final WaitGroupWaitEvent PROBE = new WaitGroupWaitEvent();
+
+	@Label("WaitGroup Id")
+	@Description("The identity hash code of the WaitGroup")
+	private long waitGroupId;
+
+	/**
+	 * Constructs a {@code WaitGroupWaitEvent}. Use {@link #start(Object)} to record one.
+	 */
+	private WaitGroupWaitEvent() {}
+
+	/**
+	 * Checks if the event is enabled in a running recording.
+	 *
+	 * @return {@code true} if the event is enabled, {@code false} otherwise
+	 */
+	static boolean enabled() {
+		return PROBE.isEnabled();
+	}
+
+	/**
+	 * Starts timing an await about to block on a {@code WaitGroup}.
+	 *
+	 * @param waitGroup the {@code WaitGroup} awaited
+	 * @return the started event
+	 */
+	static WaitGroupWaitEvent start(Object waitGroup) {
+		WaitGroupWaitEvent event = new WaitGroupWaitEvent();
+		event.waitGroupId = System.identityHashCode(waitGroup);
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Commits the event of an await that stopped blocking, if it blocked for longer than the threshold.
+	 */
+	void finish() {
+		end();
+		if (shouldCommit()) {
+			commit();
+		}
+	}
+}
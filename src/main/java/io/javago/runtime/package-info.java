@@ -0,0 +1,5 @@
+/**
+ * Provides Java classes implementing the diagnostics found in Go's {@code runtime} and {@code runtime/pprof}
+ * packages for the goroutines, channels and synchronization primitives of JavaGo.
+ */
+package io.javago.runtime;
@@ -1,5 +1,7 @@
 package io.javago.sync;
 
+import io.javago.runtime.Wait;
+
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -9,6 +11,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class Once {
 
 	private final AtomicBoolean called = new AtomicBoolean(false);
+	private volatile boolean done = false;
 
 	/**
 	 * Constructs a new {@code Once} instance.
@@ -17,21 +20,37 @@ public class Once {
 
 	/**
 	 * Executes the specified {@link Runnable} only once.
-	 * If the {@code Runnable} has already been executed, subsequent calls will block until the first execution is
-	 * complete.
+	 * Subsequent calls do not execute their {@code Runnable}, and block until the first execution is complete if it is
+	 * still running.
 	 *
 	 * @param func the {@code Runnable} to be executed once
 	 */
-	public synchronized void doOnce(Runnable func) {
+	public void doOnce(Runnable func) {
 		if (called.compareAndSet(false, true)) {
-			func.run();
-			this.notifyAll();
+			try {
+				func.run();
+			} finally {
+				synchronized (this) {
+					done = true;
+					this.notifyAll();
+				}
+			}
+			return;
+		}
+		if (done) {
 			return;
 		}
+		Wait blocked = Wait.begin(this, "sync.Once.Do");
 		try {
-			this.wait();
+			synchronized (this) {
+				while (!done) {
+					this.wait();
+				}
+			}
 		} catch (InterruptedException e) {
 			Thread.currentThread().interrupt();
+		} finally {
+			Wait.end(blocked);
 		}
 	}
 }
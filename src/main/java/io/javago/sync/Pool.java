@@ -1,12 +1,17 @@
 package io.javago.sync;
 
+import io.javago.runtime.BlockProfile;
+import io.javago.runtime.Wait;
+
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
 /**
  * The {@code Pool} class implements Go's {@code sync.Pool}.
  * A thread-safe object pool that manages a collection of reusable objects.
+ * Time spent waiting for the pool's lock while another thread holds it is reported to the {@link BlockProfile}.
  *
  * @param <T> the type of objects managed by the pool
  */
@@ -14,6 +19,7 @@ public class Pool<T> {
 
 	private final BlockingQueue<T> pool = new LinkedBlockingQueue<>();
 	private final Supplier<T> creator;
+	private final ReentrantLock lock = new ReentrantLock();
 
 	/**
 	 * Constructs a new {@code Pool} with the given object creator.
@@ -29,11 +35,17 @@ public class Pool<T> {
 	 *
 	 * @return an object from the pool, or a newly created object if the pool is empty
 	 */
-	public synchronized T get() {
-		if (pool.isEmpty()) {
-			return creator.get();
+	public T get() {
+		Wait contended = lock();
+		try {
+			if (pool.isEmpty()) {
+				return creator.get();
+			}
+			return pool.poll();
+		} finally {
+			lock.unlock();
+			Wait.end(contended);
 		}
-		return pool.poll();
 	}
 
 	/**
@@ -43,7 +55,28 @@ public class Pool<T> {
 	 *
 	 * @param t the object to be returned to the pool
 	 */
-	public synchronized void put(T t) {
-		pool.offer(t);
+	public void put(T t) {
+		Wait contended = lock();
+		try {
+			pool.offer(t);
+		} finally {
+			lock.unlock();
+			Wait.end(contended);
+		}
+	}
+
+	/**
+	 * Acquires the pool's lock, reporting the wait if another thread holds it. The caller ends the returned wait once
+	 * it has released the lock, so that the block profile never walks the stack while holding it.
+	 *
+	 * @return the wait to end after releasing the lock, or {@code null} if the lock was not contended
+	 */
+	private Wait lock() {
+		if (lock.tryLock()) {
+			return null;
+		}
+		Wait contended = Wait.begin(this, "sync.Pool lock");
+		lock.lock();
+		return contended;
 	}
 }
@@ -0,0 +1,211 @@
+package io.javago.sync;
+
+import io.javago.Channel;
+import io.javago.InputChannel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+import static io.javago.Go.go;
+
+/**
+ * The {@code SingleFlight} class implements Go's {@code singleflight.Group}.
+ * It collapses duplicate concurrent calls for the same key into a single execution.
+ * While a call for a key is in flight, other callers for the same key wait for it and receive its result, or the
+ * exception it threw, instead of executing their own call.
+ * A call is forgotten as soon as it completes, so nothing is retained for completed keys and the next caller for the
+ * key starts a new call.
+ *
+ * @param <K> the type of keys identifying calls
+ * @param <V> the type of values returned by calls
+ */
+public class SingleFlight<K, V> {
+
+	private final ConcurrentHashMap<K, Call<V>> calls = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a new {@code SingleFlight} with no calls in flight.
+	 */
+	public SingleFlight() {}
+
+	/**
+	 * Executes the specified {@link Supplier} for the key, unless a call for the key is already in flight, in which
+	 * case this method waits for that call to complete and returns its result.
+	 * If the call throws a {@link RuntimeException} or an {@link Error}, it is rethrown to every caller.
+	 * Returns {@code null} if it is interrupted while waiting for another caller's call.
+	 *
+	 * @param key the key identifying the call
+	 * @param func the {@code Supplier} to execute if no call for the key is in flight
+	 * @return the result of the call
+	 */
+	public V doCall(K key, Supplier<V> func) {
+		Call<V> call = new Call<>();
+		Call<V> existing = calls.putIfAbsent(key, call);
+		if (existing == null) {
+			execute(key, call, func);
+		} else {
+			call = existing;
+			call.join();
+			try {
+				call.latch.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+		}
+		return call.result().get();
+	}
+
+	/**
+	 * Like {@link #doCall(Object, Supplier)}, but returns immediately with an {@link InputChannel} that receives the
+	 * {@link Result} of the call once it completes. If no call for the key is in flight, the {@code Supplier} is
+	 * executed on a new goroutine.
+	 *
+	 * @param key the key identifying the call
+	 * @param func the {@code Supplier} to execute if no call for the key is in flight
+	 * @return a channel that receives the result of the call and is then closed
+	 */
+	public InputChannel<Result<V>> doChan(K key, Supplier<V> func) {
+		Channel<Result<V>> ch = Channel.make();
+		Call<V> call = new Call<>();
+		call.chans.add(ch);
+		Call<V> existing = calls.putIfAbsent(key, call);
+		if (existing == null) {
+			go(() -> execute(key, call, func));
+		} else if (!existing.join(ch)) {
+			ch.send(existing.result());
+			ch.close();
+		}
+		return ch;
+	}
+
+	/**
+	 * Forgets the call in flight for the key, if any. Callers for the key after this method returns start a new call
+	 * instead of waiting for the forgotten one, which still completes for the callers already waiting for it.
+	 *
+	 * @param key the key whose call is to be forgotten
+	 */
+	public void forget(K key) {
+		calls.remove(key);
+	}
+
+	/**
+	 * Executes a call, removes it from the calls in flight, and hands its result to every waiting caller.
+	 *
+	 * @param key the key identifying the call
+	 * @param call the call to complete
+	 * @param func the {@code Supplier} to execute
+	 */
+	private void execute(K key, Call<V> call, Supplier<V> func) {
+		V value = null;
+		Throwable error = null;
+		try {
+			value = func.get();
+		} catch (RuntimeException | Error e) {
+			error = e;
+		} finally {
+			calls.remove(key, call);
+			call.complete(value, error);
+		}
+	}
+
+	/**
+	 * A record that holds the result of a call.
+	 *
+	 * @param <V> the type of the value returned by the call
+	 * @param value the value returned by the call, or {@code null} if it threw
+	 * @param error the {@link RuntimeException} or {@link Error} thrown by the call, or {@code null} if it returned
+	 * @param shared {@code true} if the result was given to more than one caller
+	 */
+	public record Result<V>(V value, Throwable error, boolean shared) {
+
+		/**
+		 * Returns the value of the call, or rethrows the exception it threw.
+		 *
+		 * @return the value returned by the call
+		 */
+		public V get() {
+			if (error instanceof RuntimeException e) {
+				throw e;
+			}
+			if (error instanceof Error e) {
+				throw e;
+			}
+			return value;
+		}
+	}
+
+	/**
+	 * The {@code Call} class holds the state of a call in flight.
+	 * Callers waiting for it park on a latch instead of holding a monitor.
+	 *
+	 * @param <V> the type of the value returned by the call
+	 */
+	private static class Call<V> {
+
+		private final CountDownLatch latch = new CountDownLatch(1);
+		private final List<Channel<Result<V>>> chans = new ArrayList<>(1);
+		private int dups = 0;
+		private boolean done = false;
+		private V value;
+		private Throwable error;
+
+		/**
+		 * Records another caller waiting for this call.
+		 */
+		private synchronized void join() {
+			dups++;
+		}
+
+		/**
+		 * Records another caller waiting for this call on a channel.
+		 *
+		 * @param ch the channel to send the result to
+		 * @return {@code true} if the channel will receive the result, {@code false} if the call is already done
+		 */
+		private synchronized boolean join(Channel<Result<V>> ch) {
+			dups++;
+			if (done) {
+				return false;
+			}
+			chans.add(ch);
+			return true;
+		}
+
+		/**
+		 * Returns the result of this call. Must only be called once the call is done.
+		 *
+		 * @return the result of this call
+		 */
+		private synchronized Result<V> result() {
+			return new Result<>(value, error, dups > 0);
+		}
+
+		/**
+		 * Stores the result of this call and wakes every waiting caller.
+		 *
+		 * @param value the value returned by the call
+		 * @param error the exception thrown by the call
+		 */
+		private void complete(V value, Throwable error) {
+			List<Channel<Result<V>>> waiting;
+			Result<V> result;
+			synchronized (this) {
+				this.value = value;
+				this.error = error;
+				this.done = true;
+				waiting = new ArrayList<>(chans);
+				chans.clear();
+				result = result();
+			}
+			latch.countDown();
+			for (Channel<Result<V>> ch : waiting) {
+				ch.send(result);
+				ch.close();
+			}
+		}
+	}
+}
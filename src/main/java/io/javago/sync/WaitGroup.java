@@ -1,5 +1,7 @@
 package io.javago.sync;
 
+import io.javago.runtime.Wait;
+
 /**
  * The {@code WaitGroup} class implements Go's {@code sync.WaitGroup}.
  * A synchronization aid that allows one or more threads to wait until a set of operations being performed in other
@@ -48,13 +50,23 @@ public class WaitGroup implements AutoCloseable {
 	 * Causes the current thread to wait until the count of this wait group reaches zero.
 	 * If the current count is zero, this method returns immediately.
 	 */
-	public synchronized void await() {
-		if (count > 0) {
-			try {
-				this.wait();
-			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
+	public void await() {
+		synchronized (this) {
+			if (count == 0) {
+				return;
+			}
+		}
+		Wait blocked = Wait.begin(this, "sync.WaitGroup.Wait");
+		try {
+			synchronized (this) {
+				if (count > 0) {
+					this.wait();
+				}
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			Wait.end(blocked);
 		}
 	}
 
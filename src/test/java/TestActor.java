@@ -0,0 +1,155 @@
+import io.javago.actor.Actor;
+import io.javago.actor.ActorSystem;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.javago.Go.go;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestActor {
+
+	@Test
+	public void Test_MessagesProcessedInOrderOneAtATime() {
+		try (ActorSystem system = new ActorSystem()) {
+			AtomicInteger inside = new AtomicInteger();
+			AtomicInteger overlaps = new AtomicInteger();
+			int[] last = new int[4];
+			List<String> outOfOrder = new ArrayList<>();
+			Actor<int[]> actor = system.spawn((self, message) -> {
+				if (inside.incrementAndGet() != 1) {
+					overlaps.incrementAndGet();
+				}
+				if (message[1] != last[message[0]] + 1) {
+					outOfOrder.add(message[0] + ":" + message[1]);
+				}
+				last[message[0]] = message[1];
+				inside.decrementAndGet();
+			});
+			CountDownLatch sent = new CountDownLatch(4);
+			for (int sender = 0; sender < 4; sender++) {
+				int id = sender;
+				go(() -> {
+					for (int i = 1; i <= 10_000; i++) {
+						actor.send(new int[]{id, i});
+					}
+					sent.countDown();
+				});
+			}
+			try {
+				sent.await();
+			} catch (InterruptedException e) {
+				throw new AssertionError(e);
+			}
+			actor.close();
+			actor.awaitTermination();
+			assertEquals(0, overlaps.get());
+			assertEquals(List.of(), outOfOrder);
+			for (int sender = 0; sender < 4; sender++) {
+				assertEquals(10_000, last[sender]);
+			}
+		}
+	}
+
+	@Test
+	public void Test_IdleActorsHoldNoThreads() {
+		try (ActorSystem system = new ActorSystem()) {
+			LongAdder received = new LongAdder();
+			List<Actor<Integer>> actors = new ArrayList<>();
+			for (int i = 0; i < 100_000; i++) {
+				actors.add(system.spawn((self, message) -> received.add(message)));
+			}
+			int threads = Thread.activeCount();
+			assertTrue(threads < 100);
+			for (Actor<Integer> actor : actors) {
+				actor.send(1);
+			}
+			for (Actor<Integer> actor : actors) {
+				actor.close();
+			}
+			for (Actor<Integer> actor : actors) {
+				actor.awaitTermination();
+			}
+			assertEquals(100_000, received.sum());
+		}
+	}
+
+	@Test
+	public void Test_ThroughputYields() throws InterruptedException {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try (ActorSystem system = new ActorSystem(executor, 10)) {
+			List<String> log = new ArrayList<>();
+			Actor<Integer> busy = system.spawn((self, message) -> log.add("busy"));
+			Actor<Integer> other = system.spawn((self, message) -> log.add("other"));
+			CountDownLatch blocked = new CountDownLatch(1);
+			executor.execute(() -> {
+				try {
+					blocked.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			for (int i = 0; i < 100; i++) {
+				busy.send(i);
+			}
+			other.send(0);
+			blocked.countDown();
+			busy.close();
+			other.close();
+			busy.awaitTermination();
+			other.awaitTermination();
+			assertEquals(101, log.size());
+			assertEquals(10, log.indexOf("other"));
+		} finally {
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	public void Test_CloseAndFailure() {
+		try (ActorSystem system = new ActorSystem()) {
+			Actor<String> actor = system.spawn((self, message) -> {
+				if (message.equals("fail")) {
+					throw new IllegalArgumentException(message);
+				}
+			});
+			actor.send("ok");
+			actor.send("fail");
+			actor.awaitTermination();
+			assertTrue(actor.isTerminated());
+			assertTrue(actor.isClosed());
+			assertTrue(actor.failure() instanceof IllegalArgumentException);
+			try {
+				actor.send("too late");
+				fail();
+			} catch (IllegalStateException e) {
+				assertTrue(actor.sendAsync("too late").isCompletedExceptionally());
+			}
+
+			AtomicInteger processed = new AtomicInteger();
+			Actor<Integer> self = system.spawn((me, message) -> {
+				processed.incrementAndGet();
+				if (message > 0) {
+					me.send(message - 1);
+				} else {
+					me.close();
+				}
+			});
+			self.send(1000);
+			self.awaitTermination();
+			assertEquals(1001, processed.get());
+			assertNull(self.failure());
+		}
+	}
+}
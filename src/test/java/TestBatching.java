@@ -0,0 +1,186 @@
+import io.javago.Batching;
+import io.javago.BufferedQueueChannel;
+import io.javago.Channel;
+import io.javago.InputChannel;
+import io.javago.PriorityChannel;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static io.javago.Go.go;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestBatching {
+
+	@Test
+	public void Test_BatchBySize() {
+		Channel<Integer> in = Channel.make(100);
+		for (int i = 0; i < 25; i++) {
+			in.send(i);
+		}
+		in.close();
+		InputChannel<List<Integer>> batches = Batching.batch(in, 10, Duration.ofSeconds(10));
+		List<Integer> received = new ArrayList<>();
+		List<Integer> sizes = new ArrayList<>();
+		for (List<Integer> batch : batches) {
+			sizes.add(batch.size());
+			received.addAll(batch);
+		}
+		assertEquals(List.of(10, 10, 5), sizes);
+		for (int i = 0; i < 25; i++) {
+			assertEquals(i, (int) received.get(i));
+		}
+		assertTrue(batches.isClosed());
+	}
+
+	@Test
+	public void Test_BatchByDelay() throws InterruptedException {
+		Channel<Integer> in = Channel.make(100);
+		InputChannel<List<Integer>> batches = Batching.batch(in, 1000, Duration.ofMillis(50));
+		in.send(1);
+		in.send(2);
+		long start = System.nanoTime();
+		assertEquals(List.of(1, 2), batches.receive());
+		long waited = System.nanoTime() - start;
+		assertTrue(waited >= Duration.ofMillis(40).toNanos());
+		assertTrue(waited < Duration.ofSeconds(2).toNanos());
+
+		Thread.sleep(100);
+		in.send(3);
+		assertEquals(List.of(3), batches.receive());
+		in.close();
+		assertFalse(batches.hasNext());
+	}
+
+	@Test
+	public void Test_BatchByDelayWithDefaultDrainTo() throws InterruptedException {
+		PriorityChannel<Integer> in = new PriorityChannel<>(100, Comparator.naturalOrder());
+		InputChannel<List<Integer>> batches = Batching.batch(in, 1000, Duration.ofMillis(50));
+		for (int i = 0; i < 3; i++) {
+			in.send(i);
+			List<Integer> batch = batches.receive();
+			assertEquals(List.of(i), batch);
+			Thread.sleep(20);
+		}
+		in.close();
+		assertFalse(batches.hasNext());
+	}
+
+	@Test(timeout = 5_000)
+	public void Test_InterruptStopsBatch() throws InterruptedException {
+		AtomicReference<Thread> runner = new AtomicReference<>();
+		Channel<Integer> in = new BufferedQueueChannel<>(100) {
+			@Override
+			public boolean hasNext() {
+				runner.set(Thread.currentThread());
+				return super.hasNext();
+			}
+		};
+		in.send(1);
+		InputChannel<List<Integer>> batches = Batching.batch(in, 1000, Duration.ofSeconds(10));
+		while (runner.get() == null) {
+			Thread.sleep(10);
+		}
+		Thread.sleep(50);
+		runner.get().interrupt();
+		assertEquals(List.of(1), batches.receive());
+		assertFalse(batches.hasNext());
+	}
+
+	@Test
+	public void Test_BatchBurst() {
+		Channel<Integer> in = Channel.make(1000);
+		InputChannel<List<Integer>> batches = Batching.batch(in, 1000, Duration.ofMillis(20));
+		go(() -> {
+			for (int i = 0; i < 10_000; i++) {
+				in.send(i);
+			}
+			in.close();
+		});
+		int total = 0;
+		int expected = 0;
+		for (List<Integer> batch : batches) {
+			assertTrue(batch.size() <= 1000);
+			for (int message : batch) {
+				assertEquals(expected++, message);
+			}
+			total += batch.size();
+		}
+		assertEquals(10_000, total);
+	}
+
+	@Test
+	public void Test_Tumbling() throws InterruptedException {
+		Channel<Integer> in = Channel.make(100);
+		InputChannel<Long> counts = Batching.tumbling(in, Duration.ofMillis(100), Collectors.counting());
+		for (int i = 0; i < 5; i++) {
+			in.send(i);
+		}
+		assertEquals(5L, (long) counts.receive());
+		in.send(1);
+		in.send(2);
+		in.close();
+		assertEquals(2L, (long) counts.receive());
+		assertFalse(counts.hasNext());
+	}
+
+	@Test
+	public void Test_Sliding() {
+		Channel<Integer> in = Channel.make(100);
+		InputChannel<Integer> sums = Batching.sliding(
+			in,
+			Duration.ofMillis(300),
+			Duration.ofMillis(100),
+			Collectors.summingInt(i -> i)
+		);
+		in.send(7);
+		// The message is part of the three windows that end after it was received.
+		assertEquals(7, (int) sums.receive());
+		assertEquals(7, (int) sums.receive());
+		assertEquals(7, (int) sums.receive());
+		in.send(1);
+		assertEquals(1, (int) sums.receive());
+		in.close();
+		while (sums.hasNext()) {
+			assertEquals(1, (int) sums.receive());
+		}
+	}
+
+	@Test
+	public void Test_ClosingOutputStops() throws InterruptedException {
+		CountDownLatch waiting = new CountDownLatch(2);
+		CountDownLatch woken = new CountDownLatch(1);
+		Channel<Integer> in = new BufferedQueueChannel<>(10) {
+			@Override
+			public boolean hasNext() {
+				waiting.countDown();
+				try {
+					return super.hasNext();
+				} finally {
+					if (Thread.currentThread().isInterrupted()) {
+						woken.countDown();
+					}
+				}
+			}
+		};
+		in.send(1);
+		in.send(2);
+		InputChannel<List<Integer>> batches = Batching.batch(in, 2, Duration.ofSeconds(10));
+		assertEquals(List.of(1, 2), batches.receive());
+		assertTrue(waiting.await(5, TimeUnit.SECONDS));
+		batches.close();
+		assertTrue(woken.await(5, TimeUnit.SECONDS));
+		in.send(3);
+		assertEquals(3, (int) in.receive());
+		assertFalse(in.isClosed());
+	}
+}
@@ -0,0 +1,64 @@
+import io.javago.Channel;
+import io.javago.runtime.BlockProfile;
+import io.javago.sync.WaitGroup;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import static io.javago.Go.go;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestBlockProfile {
+
+	@Test
+	public void Test_RecordsWaitsByCallSite() throws Exception {
+		BlockProfile.reset();
+		BlockProfile.setRate(1);
+		try {
+			Channel<Integer> ch = Channel.make();
+			WaitGroup wg = new WaitGroup();
+			wg.add(1);
+			go(() -> {
+				try {
+					Thread.sleep(50);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				ch.send(1);
+				wg.done();
+			});
+			assertEquals(1, (int) ch.receive());
+			wg.await();
+		} finally {
+			BlockProfile.setRate(0);
+		}
+
+		List<BlockProfile.Record> records = BlockProfile.records();
+		BlockProfile.Record receive = records.stream()
+			.filter(r -> r.operation().equals("chan receive") && calledFrom(r, "Test_RecordsWaitsByCallSite"))
+			.findFirst()
+			.orElseThrow();
+		assertEquals(1, receive.count());
+		assertTrue(receive.nanos() >= 40_000_000L);
+
+		StringWriter out = new StringWriter();
+		BlockProfile.writeCollapsed(out);
+		assertTrue(out.toString().contains("TestBlockProfile.Test_RecordsWaitsByCallSite;"));
+		assertTrue(out.toString().contains(";chan receive "));
+	}
+
+	@Test
+	public void Test_DisabledRecordsNothing() {
+		BlockProfile.reset();
+		Channel<Integer> ch = Channel.make();
+		go(() -> ch.send(1));
+		ch.receive();
+		assertTrue(BlockProfile.records().stream().noneMatch(r -> calledFrom(r, "Test_DisabledRecordsNothing")));
+	}
+
+	private static boolean calledFrom(BlockProfile.Record record, String method) {
+		return record.stack().stream().anyMatch(f -> f.getMethodName().equals(method));
+	}
+}
@@ -0,0 +1,76 @@
+import io.javago.BroadcastChannel;
+import io.javago.InputChannel;
+import io.javago.sync.WaitGroup;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.javago.Go.go;
+import static io.javago.Selector.select;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestBroadcastChannel {
+
+	@Test
+	public void Test_EverySubscriberReceivesEveryMessage() {
+		BroadcastChannel<Integer> ch = new BroadcastChannel<>(4);
+		AtomicInteger total = new AtomicInteger(0);
+		WaitGroup wg = new WaitGroup();
+		wg.add(3);
+		for (int i = 0; i < 3; i++) {
+			InputChannel<Integer> subscriber = ch.subscribe();
+			go(() -> {
+				try (wg) {
+					for (int message : subscriber) {
+						total.addAndGet(message);
+					}
+				}
+			});
+		}
+		for (int i = 1; i <= 100; i++) {
+			ch.send(i);
+		}
+		ch.close();
+		wg.await();
+		assertEquals(3 * 5050, total.get());
+	}
+
+	@Test
+	public void Test_DropPolicySkipsOldest() {
+		BroadcastChannel<Integer> ch = new BroadcastChannel<>(4, BroadcastChannel.Policy.DROP);
+		BroadcastChannel<Integer>.Subscriber subscriber = ch.subscribe();
+		for (int i = 1; i <= 10; i++) {
+			ch.send(i);
+		}
+		ch.close();
+		int first = subscriber.receive();
+		assertEquals(7, first);
+		assertEquals(6, subscriber.dropped());
+		int count = 1;
+		while (subscriber.hasNext()) {
+			subscriber.receive();
+			count++;
+		}
+		assertEquals(4, count);
+	}
+
+	@Test
+	public void Test_SubscriberInSelector() {
+		final AtomicInteger value = new AtomicInteger(0);
+		BroadcastChannel<Integer> ch = new BroadcastChannel<>();
+		InputChannel<Integer> subscriber = ch.subscribe();
+		select()
+			.addCase(subscriber, value::set)
+			.addDefault(() -> value.set(2))
+			.run();
+		assertEquals(2, value.get());
+		ch.send(1);
+		select()
+			.addCase(subscriber, value::set)
+			.addDefault(() -> value.set(2))
+			.run();
+		assertEquals(1, value.get());
+		assertTrue(subscriber.isEmpty());
+	}
+}
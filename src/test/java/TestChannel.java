@@ -1,10 +1,19 @@
 import io.javago.Channel;
 import io.javago.InputChannel;
 import io.javago.OutputChannel;
+import io.javago.WaitStrategy;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static io.javago.Go.go;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class TestChannel {
 
@@ -96,6 +105,32 @@ public class TestChannel {
 		assertEquals(55, sum1 + sum2);
 	}
 
+	@Test
+	public void Test_Stream() {
+		Channel<Integer> ch = Channel.make(10);
+		go(() -> {
+			for (int i = 1; i <= 1000; i++) {
+				ch.send(i);
+			}
+			ch.close();
+		});
+		assertEquals(500500, ch.stream().mapToInt(Integer::intValue).sum());
+	}
+
+	@Test
+	public void Test_ParallelStream() {
+		Channel<Integer> ch = Channel.make(100);
+		go(() -> {
+			for (int i = 1; i <= 100000; i++) {
+				ch.send(i);
+			}
+			ch.close();
+		});
+		AtomicLong sum = new AtomicLong(0);
+		ch.parallelStream().map(i -> (long) i).forEach(sum::addAndGet);
+		assertEquals(5000050000L, sum.get());
+	}
+
 	private void sumFromChannel(InputChannel<Integer> inputChannel, OutputChannel<Integer> outputChannel) {
 		int sum = 0;
 		for (int i = 0; i < 5; i++) {
@@ -103,4 +138,89 @@ public class TestChannel {
 		}
 		outputChannel.send(sum);
 	}
+
+	@Test
+	public void Test_ReceiveAsync() throws Exception {
+		Channel<Integer> ch = Channel.make();
+		CompletableFuture<Integer> first = ch.receiveAsync();
+		CompletableFuture<Integer> second = ch.receiveAsync();
+		assertFalse(first.isDone());
+		ch.send(1);
+		ch.send(2);
+		assertEquals(1, (int) first.get());
+		assertEquals(2, (int) second.get());
+		CompletableFuture<Integer> third = ch.receiveAsync();
+		ch.close();
+		try {
+			third.get();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof NoSuchElementException);
+			return;
+		}
+		throw new AssertionError("Expected receive on closed channel to fail");
+	}
+
+	@Test
+	public void Test_SendAsync() throws Exception {
+		Channel<Integer> ch = Channel.make(1);
+		ch.sendAsync(1).get();
+		CompletableFuture<Void> pending = ch.sendAsync(2);
+		CompletableFuture<Void> cancelled = ch.sendAsync(3);
+		assertFalse(pending.isDone());
+		cancelled.cancel(false);
+		assertEquals(1, (int) ch.receive());
+		pending.get();
+		assertEquals(2, (int) ch.receive());
+		assertTrue(ch.isEmpty());
+	}
+
+	@Test
+	public void Test_WaitStrategies() {
+		List<WaitStrategy> strategies = List.of(WaitStrategy.blocking(), WaitStrategy.adaptive(), WaitStrategy.busySpin());
+		for (WaitStrategy strategy : strategies) {
+			Channel<Integer> ping = Channel.make(1, strategy);
+			Channel<Integer> pong = Channel.make(1, strategy);
+			go(() -> {
+				for (Integer i : ping) {
+					pong.send(i + 1);
+				}
+				pong.close();
+			});
+			for (int i = 0; i < 1000; i++) {
+				ping.send(i);
+				assertEquals(i + 1, (int) pong.receive());
+			}
+			ping.close();
+			assertFalse(pong.hasNext());
+		}
+	}
+
+	@Test
+	public void Test_Unbounded() {
+		Channel<Integer> ch = Channel.makeUnbounded();
+		for (int i = 0; i < 100000; i++) {
+			ch.send(i);
+		}
+		assertFalse(ch.isFull());
+		for (int i = 0; i < 100000; i++) {
+			assertEquals(i, (int) ch.receive());
+		}
+		assertTrue(ch.isEmpty());
+	}
+
+	@Test
+	public void Test_SegmentedStorage() {
+		Channel<Integer> ch = Channel.make(5000);
+		go(() -> {
+			for (int i = 0; i < 20000; i++) {
+				ch.send(i);
+			}
+			ch.close();
+		});
+		int expected = 0;
+		for (Integer i : ch) {
+			assertEquals(expected++, (int) i);
+		}
+		assertEquals(20000, expected);
+	}
 }
@@ -0,0 +1,82 @@
+import io.javago.Channel;
+import io.javago.runtime.Deadlock;
+import io.javago.runtime.Deadlocks;
+import io.javago.runtime.Goroutines;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static io.javago.Go.go;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestDeadlocks {
+
+	@Test(timeout = 5000)
+	public void Test_DeadlockReported() throws Exception {
+		Channel<Integer> ch1 = Channel.make();
+		Channel<Integer> ch2 = Channel.make();
+		CompletableFuture<Deadlock> reported = new CompletableFuture<>();
+		Deadlocks.setGracePeriod(Duration.ofMillis(50));
+		Deadlocks.setHandler(reported::complete);
+		Deadlocks.enable();
+		try {
+			go(() -> ch2.send(ch1.receive()));
+			go(() -> ch1.send(ch2.receive()));
+			Deadlock deadlock = reported.get();
+			assertEquals(2, deadlock.waitsFor().size());
+			assertTrue(deadlock.waitsFor().containsValue(ch1));
+			assertTrue(deadlock.waitsFor().containsValue(ch2));
+			assertTrue(deadlock.toString().contains("all goroutines are asleep"));
+		} finally {
+			Deadlocks.disable();
+			Goroutines.disable();
+			ch1.send(1);
+		}
+	}
+
+	@Test
+	public void Test_RunningGoroutinePreventsReport() throws Exception {
+		Channel<Integer> ch = Channel.make();
+		CompletableFuture<Deadlock> reported = new CompletableFuture<>();
+		Deadlocks.setGracePeriod(Duration.ofMillis(50));
+		Deadlocks.setHandler(reported::complete);
+		Deadlocks.enable();
+		try {
+			go(ch::receive);
+			go(() -> {
+				try {
+					Thread.sleep(300);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				ch.send(1);
+			});
+			Thread.sleep(500);
+			assertFalse(reported.isDone());
+		} finally {
+			Deadlocks.disable();
+			Goroutines.disable();
+		}
+	}
+
+	@Test
+	public void Test_SpawningThreadPreventsReport() throws Exception {
+		Channel<Integer> ch = Channel.make();
+		CompletableFuture<Deadlock> reported = new CompletableFuture<>();
+		Deadlocks.setGracePeriod(Duration.ofMillis(50));
+		Deadlocks.setHandler(reported::complete);
+		Deadlocks.enable();
+		try {
+			go(ch::receive);
+			Thread.sleep(300);
+			assertFalse(reported.isDone());
+			ch.send(1);
+		} finally {
+			Deadlocks.disable();
+			Goroutines.disable();
+		}
+	}
+}
@@ -0,0 +1,69 @@
+import io.javago.Channel;
+import io.javago.DynamicSelector;
+import io.javago.DynamicSelector.Selection;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.javago.Go.go;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestDynamicSelector {
+
+	@Test
+	public void Test_SelectReadyChannel() {
+		List<Channel<Integer>> channels = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			channels.add(Channel.make());
+		}
+		try (DynamicSelector<Integer> selector = new DynamicSelector<>(channels)) {
+			assertNull(selector.trySelect());
+			go(() -> channels.get(742).send(5));
+			Selection<Integer> selection = selector.select();
+			assertEquals(742, selection.index());
+			assertEquals(5, (int) selection.value());
+			assertTrue(selection.ok());
+		}
+	}
+
+	@Test
+	public void Test_ClosedChannelNotOk() {
+		Channel<Integer> ch1 = Channel.make();
+		Channel<Integer> ch2 = Channel.make();
+		try (DynamicSelector<Integer> selector = new DynamicSelector<>(ch1, ch2)) {
+			ch2.send(1);
+			ch2.close();
+			Selection<Integer> selection = selector.select();
+			assertEquals(1, selection.index());
+			assertTrue(selection.ok());
+			selection = selector.select();
+			assertEquals(1, selection.index());
+			assertFalse(selection.ok());
+		}
+	}
+
+	@Test
+	public void Test_AllMessagesReceived() {
+		List<Channel<Integer>> channels = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Channel<Integer> ch = Channel.make(10);
+			channels.add(ch);
+			go(() -> {
+				for (int j = 1; j <= 10; j++) {
+					ch.send(j);
+				}
+			});
+		}
+		int sum = 0;
+		try (DynamicSelector<Integer> selector = new DynamicSelector<>(channels)) {
+			for (int i = 0; i < 1000; i++) {
+				sum += selector.select().value();
+			}
+		}
+		assertEquals(5500, sum);
+	}
+}
@@ -0,0 +1,101 @@
+import io.javago.Channel;
+import io.javago.sync.WaitGroup;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static io.javago.Go.go;
+import static io.javago.Selector.select;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestEvents {
+
+	@Test
+	public void Test_EventsRecorded() throws Exception {
+		Path file = Files.createTempFile("javago", ".jfr");
+		try (Recording recording = new Recording()) {
+			for (String name : List.of("GoroutineSpawn", "Goroutine", "ChannelBlock", "Select", "WaitGroupWait")) {
+				recording.enable("io.javago." + name).withThreshold(Duration.ZERO);
+			}
+			recording.start();
+
+			Channel<Integer> ch = Channel.make();
+			WaitGroup wg = new WaitGroup();
+			wg.add(1);
+			go(() -> {
+				sleep();
+				ch.send(1);
+				sleep();
+				wg.done();
+			});
+			select().addCase(ch, m -> {}).run();
+			wg.await();
+			select().addCase(ch, m -> {}).addDefault(() -> {}).run();
+
+			recording.stop();
+			recording.dump(file);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		Files.delete(file);
+		assertTrue(has(events, "io.javago.GoroutineSpawn"));
+		assertTrue(has(events, "io.javago.Goroutine"));
+		assertTrue(has(events, "io.javago.WaitGroupWait"));
+		List<RecordedEvent> selects = events.stream()
+			.filter(e -> e.getEventType().getName().equals("io.javago.Select"))
+			.toList();
+		assertEquals(2, selects.size());
+		assertTrue(selects.stream().anyMatch(e -> e.getBoolean("defaultTaken") && e.getInt("winningCase") == -1));
+		assertTrue(selects.stream().anyMatch(e -> !e.getBoolean("defaultTaken") && e.getInt("caseCount") == 1));
+	}
+
+	@Test
+	public void Test_ChannelBlockEvent() throws Exception {
+		Path file = Files.createTempFile("javago", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("io.javago.ChannelBlock").withThreshold(Duration.ofMillis(20));
+			recording.start();
+
+			Channel<Integer> ch = Channel.make(2);
+			go(() -> {
+				sleep();
+				ch.send(1);
+			});
+			ch.receive();
+
+			recording.stop();
+			recording.dump(file);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		Files.delete(file);
+		RecordedEvent blocked = events.stream()
+			.filter(e -> e.getEventType().getName().equals("io.javago.ChannelBlock"))
+			.findFirst()
+			.orElseThrow();
+		assertEquals("chan receive", blocked.getString("operation"));
+		assertEquals(2, blocked.getInt("capacity"));
+		assertEquals(0, blocked.getInt("occupancy"));
+		assertFalse(blocked.getDuration().compareTo(Duration.ofMillis(20)) < 0);
+	}
+
+	private static boolean has(List<RecordedEvent> events, String name) {
+		return events.stream().anyMatch(e -> e.getEventType().getName().equals(name));
+	}
+
+	private static void sleep() {
+		try {
+			Thread.sleep(50);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
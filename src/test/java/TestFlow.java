@@ -0,0 +1,209 @@
+import io.javago.Channel;
+import io.javago.ChannelPublisher;
+import io.javago.ChannelSubscriber;
+import io.javago.SpscChannel;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.javago.Go.go;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestFlow {
+
+	@Test
+	public void Test_PublisherHonorsDemand() throws InterruptedException {
+		Channel<Integer> ch = Channel.make(10);
+		for (int i = 1; i <= 10; i++) {
+			ch.send(i);
+		}
+		AtomicInteger received = new AtomicInteger(0);
+		CountDownLatch completed = new CountDownLatch(1);
+		Flow.Subscription[] subscription = new Flow.Subscription[1];
+		new ChannelPublisher<>(ch).subscribe(new Flow.Subscriber<Integer>() {
+			@Override
+			public void onSubscribe(Flow.Subscription s) {
+				subscription[0] = s;
+				s.request(3);
+			}
+
+			@Override
+			public void onNext(Integer item) {
+				received.incrementAndGet();
+			}
+
+			@Override
+			public void onError(Throwable throwable) {}
+
+			@Override
+			public void onComplete() {
+				completed.countDown();
+			}
+		});
+		assertEquals(3, received.get());
+		subscription[0].request(100);
+		go(() -> {
+			for (int i = 11; i <= 20; i++) {
+				ch.send(i);
+			}
+			ch.close();
+		});
+		assertTrue(completed.await(5, TimeUnit.SECONDS));
+		assertEquals(20, received.get());
+	}
+
+	@Test
+	public void Test_PublisherWithDirectExecutor() throws InterruptedException {
+		Channel<Integer> ch = Channel.make(10);
+		AtomicInteger received = new AtomicInteger(0);
+		CountDownLatch completed = new CountDownLatch(1);
+		new ChannelPublisher<>(ch, Runnable::run).subscribe(new Flow.Subscriber<Integer>() {
+			@Override
+			public void onSubscribe(Flow.Subscription s) {
+				s.request(Long.MAX_VALUE);
+			}
+
+			@Override
+			public void onNext(Integer item) {
+				received.incrementAndGet();
+			}
+
+			@Override
+			public void onError(Throwable throwable) {}
+
+			@Override
+			public void onComplete() {
+				completed.countDown();
+			}
+		});
+		ch.send(1);
+		ch.close();
+		assertTrue(completed.await(5, TimeUnit.SECONDS));
+		assertEquals(1, received.get());
+	}
+
+	@Test
+	public void Test_InvalidRequestSignalledAfterOnNext() throws Exception {
+		Channel<Integer> ch = Channel.make(10);
+		ch.send(1);
+		CountDownLatch inOnNext = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean calling = new AtomicBoolean(false);
+		AtomicBoolean overlapped = new AtomicBoolean(false);
+		CompletableFuture<Throwable> failed = new CompletableFuture<>();
+		Flow.Subscription[] subscription = new Flow.Subscription[1];
+		new ChannelPublisher<>(ch).subscribe(new Flow.Subscriber<Integer>() {
+			@Override
+			public void onSubscribe(Flow.Subscription s) {
+				subscription[0] = s;
+			}
+
+			@Override
+			public void onNext(Integer item) {
+				calling.set(true);
+				inOnNext.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				calling.set(false);
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+				overlapped.set(calling.get());
+				failed.complete(throwable);
+			}
+
+			@Override
+			public void onComplete() {}
+		});
+		go(() -> subscription[0].request(1));
+		assertTrue(inOnNext.await(5, TimeUnit.SECONDS));
+		subscription[0].request(0);
+		assertFalse(failed.isDone());
+		release.countDown();
+		assertTrue(failed.get(5, TimeUnit.SECONDS) instanceof IllegalArgumentException);
+		assertFalse(overlapped.get());
+	}
+
+	@Test(timeout = 5000)
+	public void Test_CancelStopsReceivingGoroutine() throws InterruptedException {
+		SpscChannel<Integer> ch = new SpscChannel<>(4);
+		CountDownLatch first = new CountDownLatch(1);
+		Flow.Subscription[] subscription = new Flow.Subscription[1];
+		new ChannelPublisher<>(ch).subscribe(new Flow.Subscriber<Integer>() {
+			@Override
+			public void onSubscribe(Flow.Subscription s) {
+				subscription[0] = s;
+				s.request(2);
+			}
+
+			@Override
+			public void onNext(Integer item) {
+				first.countDown();
+			}
+
+			@Override
+			public void onError(Throwable throwable) {}
+
+			@Override
+			public void onComplete() {}
+		});
+		ch.send(1);
+		assertTrue(first.await(5, TimeUnit.SECONDS));
+		subscription[0].cancel();
+		ch.send(2);
+		assertEquals(2, (int) ch.receive());
+	}
+
+	@Test
+	public void Test_PublisherCompletesWithoutDemand() throws InterruptedException {
+		Channel<Integer> ch = Channel.make();
+		CountDownLatch completed = new CountDownLatch(1);
+		new ChannelPublisher<>(ch).subscribe(new Flow.Subscriber<Integer>() {
+			@Override
+			public void onSubscribe(Flow.Subscription s) {}
+
+			@Override
+			public void onNext(Integer item) {}
+
+			@Override
+			public void onError(Throwable throwable) {}
+
+			@Override
+			public void onComplete() {
+				completed.countDown();
+			}
+		});
+		ch.close();
+		assertTrue(completed.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void Test_SubscriberFeedsChannel() {
+		Channel<Integer> ch = Channel.make(4);
+		SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>();
+		publisher.subscribe(new ChannelSubscriber<>(ch, 4));
+		go(() -> {
+			for (int i = 1; i <= 100; i++) {
+				publisher.submit(i);
+			}
+			publisher.close();
+		});
+		int sum = 0;
+		for (int i : ch) {
+			sum += i;
+		}
+		assertEquals(5050, sum);
+	}
+}
@@ -1,9 +1,26 @@
+import io.javago.Channel;
+import io.javago.Task;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static io.javago.Go.go;
+import static io.javago.Selector.select;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class TestGo {
 
@@ -14,4 +31,112 @@ public class TestGo {
 		Thread.sleep(500);
 		assertTrue(executed.get());
 	}
+
+	@Test
+	public void Test_TaskJoin() {
+		List<Task<Integer>> tasks = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			int n = i;
+			tasks.add(go(() -> n * 2));
+		}
+		long sum = 0;
+		for (Task<Integer> task : tasks) {
+			sum += task.join();
+		}
+		assertEquals(10000L * 9999, sum);
+		assertTrue(tasks.getFirst().isDone());
+		assertFalse(tasks.getFirst().isCancelled());
+	}
+
+	@Test
+	public void Test_TaskExceptions() {
+		Task<Integer> unchecked = go(() -> {
+			throw new IllegalArgumentException("unchecked");
+		});
+		try {
+			unchecked.join();
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("unchecked", e.getMessage());
+		}
+		Task<Integer> checked = go(() -> {
+			throw new IOException("checked");
+		});
+		try {
+			checked.result().receive();
+			fail();
+		} catch (CompletionException e) {
+			assertTrue(e.getCause() instanceof IOException);
+		}
+	}
+
+	@Test
+	public void Test_TaskTimedJoin() throws TimeoutException, InterruptedException {
+		CountDownLatch latch = new CountDownLatch(1);
+		Task<String> task = go(() -> {
+			latch.await();
+			return "done";
+		});
+		try {
+			task.join(Duration.ofMillis(50));
+			fail();
+		} catch (TimeoutException e) {
+			assertFalse(task.isDone());
+		}
+		latch.countDown();
+		assertEquals("done", task.join(Duration.ofSeconds(5)));
+	}
+
+	@Test
+	public void Test_TaskCancel() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		Task<String> task = go(() -> {
+			started.countDown();
+			try {
+				Thread.sleep(Duration.ofSeconds(10));
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return "finished";
+		});
+		started.await();
+		assertTrue(task.cancel());
+		assertFalse(task.cancel());
+		assertTrue(task.isCancelled());
+		try {
+			task.join();
+			fail();
+		} catch (CancellationException e) {
+			assertTrue(task.isDone());
+		}
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void Test_TaskResultSelect() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(1);
+		Channel<String> never = Channel.make();
+		Task<String> task = go(() -> {
+			latch.await();
+			return "result";
+		});
+		AtomicReference<String> received = new AtomicReference<>();
+		go(latch::countDown);
+		select()
+			.addCase(never, received::set)
+			.addCase(task.result(), received::set)
+			.run();
+		assertEquals("result", received.get());
+		assertTrue(task.result().isClosed());
+		assertTrue(task.result().isEmpty());
+		assertFalse(task.result().hasNext());
+		assertEquals("result", task.join());
+		try {
+			task.result().receive();
+			fail();
+		} catch (NoSuchElementException e) {
+			assertTrue(task.isDone());
+		}
+	}
 }
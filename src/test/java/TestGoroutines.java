@@ -0,0 +1,64 @@
+import io.javago.Channel;
+import io.javago.Go;
+import io.javago.runtime.Goroutine;
+import io.javago.runtime.Goroutines;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static io.javago.Go.go;
+import static io.javago.Selector.select;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestGoroutines {
+
+	@Test
+	public void Test_DumpShowsBlockedGoroutines() throws InterruptedException {
+		Channel<Integer> ch = Channel.make();
+		Channel<Integer> other = Channel.make();
+		Goroutines.enable();
+		try {
+			for (int i = 0; i < 3; i++) {
+				go(ch::receive);
+			}
+			go(() -> select().addCase(ch, m -> {}).addCase(other, m -> {}).run());
+			while (blockedOn(ch) < 4) {
+				Thread.sleep(10);
+			}
+			String dump = Go.dump();
+			assertTrue(dump.contains("3 @ chan receive on BufferedQueueChannel"));
+			assertTrue(dump.contains("1 @ select on Selector"));
+			assertTrue(dump.contains("Test_DumpShowsBlockedGoroutines"));
+		} finally {
+			Goroutines.disable();
+			for (int i = 0; i < 4; i++) {
+				ch.send(i);
+			}
+		}
+	}
+
+	@Test
+	public void Test_BlockedLongerThanThreshold() throws InterruptedException {
+		Channel<Integer> ch = Channel.make();
+		Goroutines.enable();
+		try {
+			go(() -> ch.send(1));
+			go(() -> ch.send(2));
+			Thread.sleep(100);
+			List<Goroutine> blocked = Goroutines.blockedLongerThan(Duration.ofMillis(50));
+			assertEquals(1, blocked.stream().filter(g -> g.blockedOn() == ch).count());
+			assertEquals("chan send", blocked.stream().filter(g -> g.blockedOn() == ch).findFirst().get().operation());
+			assertTrue(Goroutines.dump(Duration.ofMillis(50)).contains("[blocked over threshold]"));
+		} finally {
+			Goroutines.disable();
+			ch.receive();
+			ch.receive();
+		}
+	}
+
+	private static long blockedOn(Object on) {
+		return Goroutines.goroutines().stream().filter(g -> g.blockedOn() == on).count();
+	}
+}
@@ -0,0 +1,83 @@
+import io.javago.rate.Limiter;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.javago.Selector.select;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class TestLimiter {
+
+	@Test
+	public void Test_AllowBurstThenDeny() {
+		Limiter limiter = new Limiter(1, 3);
+		assertTrue(limiter.allow());
+		assertTrue(limiter.allow(2));
+		assertFalse(limiter.allow());
+	}
+
+	@Test
+	public void Test_VeryLowLimit() {
+		assertThrows(IllegalArgumentException.class, () -> new Limiter(Limiter.every(Duration.ofDays(36500)), 1));
+		assertThrows(IllegalArgumentException.class, () -> new Limiter(1e-12, 1));
+		Limiter limiter = new Limiter(Limiter.every(Duration.ofDays(3650)), 2);
+		assertTrue(limiter.allow(2));
+		assertFalse(limiter.allow());
+		long previous = 0;
+		for (int i = 0; i < 10; i++) {
+			Limiter.Reservation reservation = limiter.reserve();
+			if (!reservation.ok()) {
+				break;
+			}
+			long delay = reservation.delay().toNanos();
+			assertTrue(delay > previous);
+			previous = delay;
+		}
+		assertFalse(limiter.reserve().ok());
+		assertTrue(limiter.tokens() < 0);
+	}
+
+	@Test
+	public void Test_AwaitWaitsForTokens() {
+		Limiter limiter = new Limiter(20, 1);
+		long start = System.nanoTime();
+		for (int i = 0; i < 5; i++) {
+			assertTrue(limiter.await(1));
+		}
+		long elapsed = Duration.ofNanos(System.nanoTime() - start).toMillis();
+		assertTrue(elapsed >= 150);
+	}
+
+	@Test
+	public void Test_AwaitTimeoutTakesNoTokens() {
+		Limiter limiter = new Limiter(1, 1);
+		assertTrue(limiter.allow());
+		assertFalse(limiter.await(1, Duration.ofMillis(100)));
+		assertTrue(limiter.reserve().delay().toMillis() > 500);
+	}
+
+	@Test
+	public void Test_ReadyCaseInSelector() {
+		final AtomicInteger value = new AtomicInteger(0);
+		Limiter limiter = new Limiter(10, 1);
+		select()
+			.addCase(limiter.ready(), t -> value.set(1))
+			.addDefault(() -> value.set(2))
+			.run();
+		assertEquals(1, value.get());
+		select()
+			.addCase(limiter.ready(), t -> value.set(1))
+			.addDefault(() -> value.set(2))
+			.run();
+		assertEquals(2, value.get());
+		select()
+			.addCase(limiter.ready(), t -> value.set(3))
+			.addCase(Duration.ofSeconds(5), () -> value.set(4))
+			.run();
+		assertEquals(3, value.get());
+	}
+}
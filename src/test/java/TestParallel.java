@@ -0,0 +1,117 @@
+import io.javago.Parallel;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestParallel {
+
+	@Test
+	public void Test_RangeRunsEveryIndexOnce() {
+		AtomicIntegerArray runs = new AtomicIntegerArray(100_000);
+		Parallel.range(0, runs.length(), 0, runs::incrementAndGet);
+		for (int i = 0; i < runs.length(); i++) {
+			assertEquals(1, runs.get(i));
+		}
+		AtomicIntegerArray small = new AtomicIntegerArray(10);
+		Parallel.range(-5, 5, 1, i -> small.incrementAndGet(i + 5));
+		for (int i = 0; i < small.length(); i++) {
+			assertEquals(1, small.get(i));
+		}
+		Parallel.range(5, 5, 1, i -> fail());
+	}
+
+	@Test
+	public void Test_RangeFromGoroutine() throws InterruptedException {
+		LongAdder sum = new LongAdder();
+		Thread thread = Thread.ofVirtual().start(() -> Parallel.range(0, 1000, 10, sum::add));
+		thread.join();
+		assertEquals(999 * 1000 / 2, sum.sum());
+	}
+
+	@Test
+	public void Test_Reduce() {
+		long sum = Parallel.reduce(0, 1_000_000, 0, (from, to) -> {
+			long chunk = 0;
+			for (long i = from; i < to; i++) {
+				chunk += i * i;
+			}
+			return chunk;
+		}, Long::sum);
+		long expected = 0;
+		for (long i = 0; i < 1_000_000; i++) {
+			expected += i * i;
+		}
+		assertEquals(expected, sum);
+
+		String ordered = Parallel.reduce(0, 500, 7, (from, to) -> {
+			StringBuilder chunk = new StringBuilder();
+			for (int i = from; i < to; i++) {
+				chunk.append(i).append(',');
+			}
+			return chunk.toString();
+		}, String::concat);
+		StringBuilder expectedOrder = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			expectedOrder.append(i).append(',');
+		}
+		assertEquals(expectedOrder.toString(), ordered);
+		assertNull(Parallel.reduce(3, 3, 1, (from, to) -> 1, Integer::sum));
+	}
+
+	@Test
+	public void Test_ForEach() {
+		List<Integer> arrayList = new ArrayList<>();
+		List<Integer> linkedList = new LinkedList<>();
+		for (int i = 0; i < 10_000; i++) {
+			arrayList.add(i);
+			linkedList.add(i);
+		}
+		LongAdder arraySum = new LongAdder();
+		LongAdder linkedSum = new LongAdder();
+		Parallel.forEach(arrayList, i -> arraySum.add(i));
+		Parallel.forEach(linkedList, i -> linkedSum.add(i));
+		assertEquals(9999 * 10_000 / 2, arraySum.sum());
+		assertEquals(9999 * 10_000 / 2, linkedSum.sum());
+	}
+
+	@Test
+	public void Test_Cancellation() {
+		AtomicInteger runs = new AtomicInteger();
+		boolean completed = Parallel.rangeWhile(0, 1_000_000, 100, i -> runs.incrementAndGet() < 1000);
+		assertFalse(completed);
+		assertTrue(runs.get() < 1_000_000);
+		assertTrue(Parallel.forEachWhile(List.of(1, 2, 3), i -> true));
+
+		AtomicInteger after = new AtomicInteger();
+		try {
+			Parallel.range(0, 1_000_000, 100, i -> {
+				if (i == 500) {
+					throw new IllegalStateException("failed at " + i);
+				}
+				after.incrementAndGet();
+			});
+			fail();
+		} catch (IllegalStateException e) {
+			assertTrue(e.getMessage().contains("500"));
+		}
+		assertTrue(after.get() < 1_000_000);
+	}
+
+	@Test
+	public void Test_NestedInPool() {
+		LongAdder sum = new LongAdder();
+		Parallel.range(0, 10, 1, i -> Parallel.range(0, 100, 10, sum::add));
+		assertEquals(10 * 99 * 100 / 2, sum.sum());
+	}
+}
@@ -0,0 +1,135 @@
+import io.javago.Pipe;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.javago.Go.go;
+import static io.javago.Selector.select;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class TestPipe {
+
+	@Test
+	public void Test_StreamRoundTrip() throws IOException {
+		Pipe pipe = new Pipe(16, 2);
+		byte[] data = new byte[1000];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		go(() -> {
+			try (OutputStream os = pipe.sink().outputStream()) {
+				os.write(data);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		try (InputStream is = pipe.source().inputStream()) {
+			assertArrayEquals(data, is.readAllBytes());
+		}
+	}
+
+	@Test
+	public void Test_SlabHandedOverWithoutCopy() {
+		Pipe pipe = new Pipe();
+		ByteBuffer slab = pipe.sink().allocate();
+		slab.put((byte) 42);
+		pipe.sink().send(slab);
+		ByteBuffer received = pipe.source().receive();
+		assertSame(slab, received);
+		assertEquals(42, received.get());
+		pipe.source().release(received);
+		assertSame(slab, pipe.sink().allocate());
+	}
+
+	@Test
+	public void Test_SourceSelectable() {
+		final AtomicInteger value = new AtomicInteger(0);
+		Pipe pipe = new Pipe();
+		ByteBuffer slab = pipe.sink().allocate();
+		slab.put((byte) 7);
+		pipe.sink().send(slab);
+		select()
+			.addCase(pipe.source(), b -> value.set(b.get()))
+			.addDefault(() -> value.set(-1))
+			.run();
+		assertEquals(7, value.get());
+	}
+
+	@Test(timeout = 5_000)
+	public void Test_CloseWakesBlockedWriter() throws Exception {
+		Pipe pipe = new Pipe(16, 1);
+		pipe.sink().write(ByteBuffer.allocate(16));
+		CompletableFuture<Void> blocked = new CompletableFuture<>();
+		go(() -> {
+			try {
+				pipe.sink().write(ByteBuffer.allocate(16));
+				blocked.complete(null);
+			} catch (IOException e) {
+				blocked.completeExceptionally(e);
+			}
+		});
+		Thread.sleep(50);
+		pipe.close();
+		ExecutionException e = assertThrows(ExecutionException.class, blocked::get);
+		assertTrue(e.getCause() instanceof ClosedChannelException);
+		assertEquals(16, pipe.source().receive().remaining());
+	}
+
+	@Test
+	public void Test_BlockedReaderDoesNotBlockStatus() throws Exception {
+		Pipe pipe = new Pipe(16, 1);
+		CompletableFuture<Integer> read = new CompletableFuture<>();
+		go(() -> {
+			try {
+				read.complete(pipe.source().read(ByteBuffer.allocate(16)));
+			} catch (IOException e) {
+				read.completeExceptionally(e);
+			}
+		});
+		Thread.sleep(50);
+		CompletableFuture<Boolean> empty = new CompletableFuture<>();
+		go(() -> empty.complete(pipe.source().isEmpty() && pipe.source().isOpen()));
+		assertTrue(empty.get(2, TimeUnit.SECONDS));
+		pipe.sink().write(ByteBuffer.allocate(8));
+		assertEquals(8, (int) read.get(2, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void Test_InterruptedWriterKeepsSlab() throws Exception {
+		Pipe pipe = new Pipe(16, 1);
+		pipe.sink().write(ByteBuffer.allocate(16));
+		CompletableFuture<Thread> writer = new CompletableFuture<>();
+		CompletableFuture<Void> blocked = new CompletableFuture<>();
+		go(() -> {
+			writer.complete(Thread.currentThread());
+			try {
+				pipe.sink().write(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+				blocked.complete(null);
+			} catch (IOException e) {
+				blocked.completeExceptionally(e);
+			}
+		});
+		Thread.sleep(50);
+		writer.get().interrupt();
+		ExecutionException e = assertThrows(ExecutionException.class, blocked::get);
+		assertTrue(e.getCause() instanceof InterruptedIOException);
+		assertEquals(16, pipe.source().receive().remaining());
+		pipe.sink().write(ByteBuffer.allocate(0));
+		ByteBuffer slab = pipe.source().receive();
+		assertEquals(3, slab.remaining());
+		assertEquals(1, slab.get());
+	}
+}
@@ -0,0 +1,91 @@
+import io.javago.Channel;
+import io.javago.PriorityChannel;
+import io.javago.sync.WaitGroup;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.javago.Go.go;
+import static io.javago.Selector.select;
+import static org.junit.Assert.assertEquals;
+
+public class TestPriorityChannel {
+
+	@Test
+	public void Test_ComparatorOrder() {
+		Channel<Integer> ch = new PriorityChannel<>(10, Comparator.<Integer>naturalOrder());
+		ch.send(5);
+		ch.send(1);
+		ch.send(3);
+		assertEquals(1, (int) ch.receive());
+		assertEquals(3, (int) ch.receive());
+		assertEquals(5, (int) ch.receive());
+	}
+
+	@Test
+	public void Test_LevelsOrder() {
+		Channel<String> ch = new PriorityChannel<>(10, 3, s -> s.charAt(0) - 'a');
+		ch.send("c1");
+		ch.send("b1");
+		ch.send("a1");
+		ch.send("b2");
+		ch.close();
+		StringBuilder order = new StringBuilder();
+		for (String s : ch) {
+			order.append(s);
+		}
+		assertEquals("a1b1b2c1", order.toString());
+	}
+
+	@Test
+	public void Test_AgingPromotesWaitingMessage() throws InterruptedException {
+		Channel<String> ch = new PriorityChannel<>(10, 2, s -> s.charAt(0) - 'a', Duration.ofMillis(100));
+		ch.send("b1");
+		Thread.sleep(300);
+		ch.send("a1");
+		assertEquals("b1", ch.receive());
+		assertEquals("a1", ch.receive());
+	}
+
+	@Test
+	public void Test_BoundedCapacityAcrossThreads() {
+		Channel<Integer> ch = new PriorityChannel<>(4, 4, i -> i % 4);
+		WaitGroup wg = new WaitGroup();
+		wg.add(4);
+		for (int p = 0; p < 4; p++) {
+			go(() -> {
+				try (wg) {
+					for (int i = 1; i <= 250; i++) {
+						ch.send(i);
+					}
+				}
+			});
+		}
+		go(() -> {
+			wg.await();
+			ch.close();
+		});
+		int sum = 0;
+		for (int i : ch) {
+			sum += i;
+		}
+		assertEquals(4 * 31375, sum);
+	}
+
+	@Test
+	public void Test_Selector() {
+		final AtomicInteger value = new AtomicInteger(0);
+		Channel<Integer> ch = new PriorityChannel<>(2, 2, i -> i);
+		select()
+			.addCase(ch, 1, () -> value.set(1))
+			.addDefault(() -> value.set(2))
+			.run();
+		assertEquals(1, value.get());
+		select()
+			.addCase(ch, value::set)
+			.run();
+		assertEquals(1, value.get());
+	}
+}
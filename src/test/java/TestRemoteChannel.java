@@ -0,0 +1,110 @@
+import io.javago.Channel;
+import io.javago.ipc.ChannelExporter;
+import io.javago.ipc.Codec;
+import io.javago.ipc.RemoteChannel;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.javago.Go.go;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestRemoteChannel {
+
+	private static InetSocketAddress loopback() {
+		return new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+	}
+
+	@Test
+	public void Test_SendOverLoopback() throws Exception {
+		try (ChannelExporter exporter = new ChannelExporter(loopback())) {
+			Channel<Long> local = Channel.make(16);
+			exporter.export("numbers", local, Codec.int64());
+			RemoteChannel<Long> remote = RemoteChannel.dial(exporter.address(), "numbers", Codec.int64());
+			go(() -> {
+				for (long i = 1; i <= 10000; i++) {
+					remote.send(i);
+				}
+				remote.close();
+			});
+			long sum = 0;
+			for (Long i : local) {
+				sum += i;
+			}
+			assertEquals(10000L * 10001 / 2, sum);
+			assertTrue(local.isClosed());
+		}
+	}
+
+	@Test
+	public void Test_Backpressure() throws Exception {
+		try (ChannelExporter exporter = new ChannelExporter(loopback())) {
+			Channel<String> local = Channel.make(2);
+			exporter.export("strings", local, Codec.string());
+			RemoteChannel<String> remote = RemoteChannel.dial(
+				exporter.address(),
+				"strings",
+				Codec.string(),
+				Duration.ofMillis(1)
+			);
+			AtomicInteger sent = new AtomicInteger();
+			go(() -> {
+				for (int i = 0; i < 10; i++) {
+					remote.send("message " + i);
+					sent.incrementAndGet();
+				}
+				remote.close();
+			});
+			int observed = sent.get();
+			for (int i = 0; i < 100 && observed < 4; i++) {
+				Thread.sleep(50);
+				observed = sent.get();
+			}
+			assertEquals(4, observed);
+			Thread.sleep(50);
+			assertEquals(4, sent.get());
+			for (int i = 0; i < 10; i++) {
+				assertEquals("message " + i, local.receive());
+			}
+			assertFalse(local.hasNext());
+		}
+	}
+
+	@Test
+	public void Test_ExportedChannelClosed() throws Exception {
+		try (ChannelExporter exporter = new ChannelExporter(loopback())) {
+			Channel<Long> local = Channel.make(4);
+			exporter.export("numbers", local, Codec.int64());
+			RemoteChannel<Long> remote = RemoteChannel.dial(exporter.address(), "numbers", Codec.int64());
+			local.close();
+			remote.send(1L);
+			for (int i = 0; i < 100 && !remote.isClosed(); i++) {
+				Thread.sleep(50);
+			}
+			assertTrue(remote.isClosed());
+			try {
+				remote.send(2L);
+			} catch (IllegalStateException e) {
+				return;
+			}
+			throw new AssertionError("Expected send on closed remote channel to fail");
+		}
+	}
+
+	@Test
+	public void Test_UnknownName() throws Exception {
+		try (ChannelExporter exporter = new ChannelExporter(loopback())) {
+			RemoteChannel.dial(exporter.address(), "missing", Codec.int64());
+		} catch (IOException e) {
+			assertTrue(e.getMessage().contains("missing"));
+			return;
+		}
+		throw new AssertionError("Expected dial of an unknown channel to fail");
+	}
+}
@@ -1,12 +1,19 @@
 import io.javago.Channel;
+import io.javago.SpscChannel;
+import io.javago.sync.WaitGroup;
 import org.junit.Test;
 
+import java.lang.ref.WeakReference;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.javago.Go.go;
 import static io.javago.Selector.select;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class TestSelector {
 
@@ -142,4 +149,137 @@ public class TestSelector {
 		assertEquals(1, value.get());
 		assertEquals(1, total);
 	}
+
+	@Test
+	public void Test_ReadyCasesChosenFairly() {
+		final int[] counts = new int[2];
+		Channel<Integer> ch1 = Channel.make();
+		Channel<Integer> ch2 = Channel.make();
+		for (int i = 0; i < 1000; i++) {
+			if (ch1.isEmpty()) {
+				ch1.send(1);
+			}
+			if (ch2.isEmpty()) {
+				ch2.send(2);
+			}
+			select()
+				.addCase(ch1, v -> counts[0]++)
+				.addCase(ch2, v -> counts[1]++)
+				.run();
+		}
+		assertTrue(counts[0] > 350);
+		assertTrue(counts[1] > 350);
+	}
+
+	@Test
+	public void Test_BiasedPrefersFirstCase() {
+		final AtomicInteger value = new AtomicInteger(0);
+		Channel<Integer> ch1 = Channel.make();
+		Channel<Integer> ch2 = Channel.make();
+		for (int i = 0; i < 100; i++) {
+			if (ch1.isEmpty()) {
+				ch1.send(1);
+			}
+			if (ch2.isEmpty()) {
+				ch2.send(2);
+			}
+			select()
+				.biased()
+				.addCase(ch1, value::addAndGet)
+				.addCase(ch2, value::addAndGet)
+				.run();
+		}
+		assertEquals(100, value.get());
+	}
+
+	@Test(timeout = 10_000)
+	public void Test_ReadyCaseRacedAwayDoesNotBlock() {
+		final int messages = 10_000;
+		final AtomicInteger received = new AtomicInteger(0);
+		Channel<Integer> ch = Channel.make(messages);
+		for (int i = 0; i < messages; i++) {
+			ch.send(i);
+		}
+		WaitGroup wg = new WaitGroup();
+		for (int i = 0; i < 4; i++) {
+			wg.add(1);
+			go(() -> {
+				while (received.get() < messages) {
+					select()
+						.addCase(ch, v -> received.incrementAndGet())
+						.addDefault(() -> {})
+						.run();
+				}
+				wg.done();
+			});
+		}
+		wg.await();
+		assertEquals(messages, received.get());
+	}
+
+	@Test
+	public void Test_ReadyCaseOnOtherChannelRunNotDefault() {
+		final AtomicInteger value = new AtomicInteger(0);
+		SpscChannel<Integer> ch = new SpscChannel<>(1);
+		ch.send(1);
+		select()
+			.addCase(ch, value::set)
+			.addDefault(() -> value.set(2))
+			.run();
+		assertEquals(1, value.get());
+	}
+
+	@Test
+	public void Test_RunAsyncOnlyOneCaseRun() throws Exception {
+		final AtomicInteger value = new AtomicInteger(0);
+		Channel<Integer> ch1 = Channel.make();
+		Channel<Integer> ch2 = Channel.make();
+		CompletableFuture<Void> done = select()
+			.addCase(ch1, value::set)
+			.addCase(ch2, value::set)
+			.runAsync();
+		assertFalse(done.isDone());
+		ch2.send(2);
+		done.get();
+		assertEquals(2, value.get());
+		ch1.send(1);
+		assertEquals(1, (int) ch1.receive());
+	}
+
+	@Test
+	public void Test_RunAsyncDelayedCase() throws Exception {
+		final AtomicInteger value = new AtomicInteger(0);
+		Channel<Integer> ch = Channel.make();
+		select()
+			.addCase(ch, value::set)
+			.addCase(Duration.ofMillis(50), () -> value.set(2))
+			.runAsync()
+			.get();
+		assertEquals(2, value.get());
+		ch.send(1);
+		assertEquals(1, (int) ch.receive());
+	}
+
+	@Test
+	public void Test_RunAsyncReleasesLosingDelayedCase() throws Exception {
+		Channel<Integer> ch = Channel.make();
+		Object[] payload = {new Object()};
+		WeakReference<Object> released = new WeakReference<>(payload[0]);
+		CompletableFuture<Void> done = select()
+			.addCase(ch, value -> {})
+			.addCase(Duration.ofHours(1), holding(payload[0]))
+			.runAsync();
+		payload[0] = null;
+		ch.send(1);
+		done.get();
+		for (int i = 0; i < 50 && released.get() != null; i++) {
+			System.gc();
+			Thread.sleep(20);
+		}
+		assertNull(released.get());
+	}
+
+	private static Runnable holding(Object payload) {
+		return payload::hashCode;
+	}
 }
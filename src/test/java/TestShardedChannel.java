@@ -0,0 +1,74 @@
+import io.javago.Channel;
+import io.javago.ShardedChannel;
+import io.javago.sync.WaitGroup;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.javago.Go.go;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestShardedChannel {
+
+	@Test
+	public void Test_ManyProducersManyConsumers() {
+		Channel<Integer> ch = new ShardedChannel<>(64, 4);
+		WaitGroup producers = new WaitGroup();
+		WaitGroup consumers = new WaitGroup();
+		AtomicLong sum = new AtomicLong();
+		producers.add(8);
+		consumers.add(4);
+		for (int p = 0; p < 8; p++) {
+			go(() -> {
+				try (producers) {
+					for (int i = 1; i <= 1000; i++) {
+						ch.send(i);
+					}
+				}
+			});
+		}
+		for (int c = 0; c < 4; c++) {
+			go(() -> {
+				try (consumers) {
+					for (Integer i : ch) {
+						sum.addAndGet(i);
+					}
+				}
+			});
+		}
+		producers.await();
+		ch.close();
+		consumers.await();
+		assertEquals(8 * 500500L, sum.get());
+	}
+
+	@Test
+	public void Test_CapacityShared() throws InterruptedException {
+		Channel<Integer> ch = new ShardedChannel<>(3, 8);
+		assertEquals(3, ((ShardedChannel<Integer>) ch).shards());
+		ch.send(1);
+		ch.send(2);
+		ch.send(3);
+		assertTrue(ch.isFull());
+		AtomicBoolean sent = new AtomicBoolean(false);
+		go(() -> {
+			ch.send(4);
+			sent.set(true);
+		});
+		Thread.sleep(100);
+		assertFalse(sent.get());
+		List<Integer> received = new ArrayList<>();
+		received.add(ch.receive());
+		ch.close();
+		for (Integer i : ch) {
+			received.add(i);
+		}
+		assertTrue(sent.get());
+		assertEquals(4, received.size());
+	}
+}
@@ -0,0 +1,86 @@
+import io.javago.Channel;
+import io.javago.Task;
+import io.javago.ipc.Codec;
+import io.javago.ipc.SharedMemoryChannel;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static io.javago.Go.go;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestSharedMemoryChannel {
+
+	@Test
+	public void Test_WrapAround() throws Exception {
+		Path file = Files.createTempFile("javago", ".chan");
+		try {
+			Channel<String> ch = SharedMemoryChannel.create(file, 256, Codec.string());
+			Channel<String> other = SharedMemoryChannel.open(file, Codec.string());
+			go(() -> {
+				for (int i = 0; i < 10000; i++) {
+					other.send("message " + "x".repeat(i % 50) + i);
+				}
+				other.close();
+			});
+			int i = 0;
+			for (String message : ch) {
+				assertEquals("message " + "x".repeat(i % 50) + i, message);
+				i++;
+			}
+			assertEquals(10000, i);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void Test_ChildProcess() throws Exception {
+		Path file = Files.createTempFile("javago", ".chan");
+		Process child = null;
+		Task<Long> sum = null;
+		try {
+			Channel<Long> ch = SharedMemoryChannel.create(file, 1024, Codec.int64());
+			child = new ProcessBuilder(
+				Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+				"-cp",
+				System.getProperty("java.class.path"),
+				Child.class.getName(),
+				file.toString()
+			).inheritIO().start();
+			sum = go(() -> {
+				long total = 0;
+				for (Long i : ch) {
+					total += i;
+				}
+				return total;
+			});
+			assertTrue(child.waitFor(30, TimeUnit.SECONDS));
+			assertEquals(0, child.exitValue());
+			assertEquals(100000L * 100001 / 2, (long) sum.join(Duration.ofSeconds(10)));
+		} finally {
+			if (sum != null) {
+				sum.cancel();
+			}
+			if (child != null) {
+				child.destroyForcibly();
+			}
+			Files.delete(file);
+		}
+	}
+
+	public static class Child {
+
+		public static void main(String[] args) throws Exception {
+			Channel<Long> ch = SharedMemoryChannel.open(Path.of(args[0]), Codec.int64());
+			for (long i = 1; i <= 100000; i++) {
+				ch.send(i);
+			}
+			ch.close();
+		}
+	}
+}
@@ -0,0 +1,61 @@
+import io.javago.InputChannel;
+import io.javago.sync.SingleFlight;
+import io.javago.sync.WaitGroup;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.javago.Go.go;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestSingleFlight {
+
+	@Test
+	public void Test_DuplicateCallsShareResult() throws InterruptedException {
+		SingleFlight<String, Integer> group = new SingleFlight<>();
+		AtomicInteger executions = new AtomicInteger(0);
+		AtomicInteger sum = new AtomicInteger(0);
+		CountDownLatch release = new CountDownLatch(1);
+		WaitGroup wg = new WaitGroup();
+		wg.add(100);
+		for (int i = 0; i < 100; i++) {
+			go(() -> {
+				try (wg) {
+					sum.addAndGet(group.doCall("key", () -> {
+						executions.incrementAndGet();
+						try {
+							release.await();
+						} catch (InterruptedException e) {
+							throw new RuntimeException(e);
+						}
+						return 1;
+					}));
+				}
+			});
+		}
+		Thread.sleep(500);
+		release.countDown();
+		wg.await();
+		assertEquals(1, executions.get());
+		assertEquals(100, sum.get());
+	}
+
+	@Test
+	public void Test_ExceptionShared() {
+		SingleFlight<String, Integer> group = new SingleFlight<>();
+		InputChannel<SingleFlight.Result<Integer>> ch = group.doChan("key", () -> {
+			throw new IllegalStateException("failed");
+		});
+		SingleFlight.Result<Integer> result = ch.receive();
+		assertTrue(result.error() instanceof IllegalStateException);
+	}
+
+	@Test
+	public void Test_NewCallAfterCompletion() {
+		SingleFlight<String, Integer> group = new SingleFlight<>();
+		assertEquals(1, (int) group.doCall("key", () -> 1));
+		assertEquals(2, (int) group.doCall("key", () -> 2));
+	}
+}
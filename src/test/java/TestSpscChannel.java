@@ -0,0 +1,68 @@
+import io.javago.Channel;
+import io.javago.SpscChannel;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static io.javago.Go.go;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestSpscChannel {
+
+	@Test
+	public void Test_OrderAcrossWraps() {
+		Channel<Integer> ch = Channel.makeSpsc(3);
+		go(() -> {
+			for (int i = 0; i < 100000; i++) {
+				ch.send(i);
+			}
+			ch.close();
+		});
+		int expected = 0;
+		for (Integer i : ch) {
+			assertEquals(expected++, (int) i);
+		}
+		assertEquals(100000, expected);
+	}
+
+	@Test
+	public void Test_CapacityAndClose() {
+		Channel<Integer> ch = new SpscChannel<>(3);
+		ch.send(1);
+		ch.send(2);
+		ch.send(3);
+		assertTrue(ch.isFull());
+		ch.close();
+		List<Integer> received = new ArrayList<>();
+		assertEquals(2, ch.drainTo(received, 2));
+		assertEquals(List.of(1, 2), received);
+		assertEquals(3, (int) ch.receive());
+		assertTrue(ch.isEmpty());
+		assertFalse(ch.hasNext());
+		try {
+			ch.receive();
+		} catch (NoSuchElementException e) {
+			return;
+		}
+		throw new AssertionError("Expected receive on closed and empty channel to fail");
+	}
+
+	@Test
+	public void Test_CloseWakesReceiver() throws InterruptedException {
+		Channel<Integer> ch = Channel.makeSpsc(1);
+		Thread.sleep(50);
+		go(() -> {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			ch.close();
+		});
+		assertFalse(ch.hasNext());
+	}
+}
@@ -0,0 +1,68 @@
+import io.javago.Channel;
+import io.javago.runtime.TraceConverter;
+import io.javago.runtime.Tracer;
+import io.javago.sync.WaitGroup;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+
+import static io.javago.Go.go;
+import static io.javago.Selector.select;
+import static org.junit.Assert.assertTrue;
+
+public class TestTracer {
+
+	@Test
+	public void Test_TraceConvertedToChromeJson() throws Exception {
+		ByteArrayOutputStream trace = new ByteArrayOutputStream();
+		Tracer.start();
+		try {
+			Channel<Integer> ch = Channel.make();
+			WaitGroup wg = new WaitGroup();
+			wg.add(1);
+			go(() -> {
+				ch.send(1);
+				wg.done();
+			});
+			wg.await();
+			select().addCase(ch, m -> {}).run();
+			ch.close();
+		} finally {
+			Tracer.stop();
+		}
+		Tracer.flush(trace);
+
+		StringWriter json = new StringWriter();
+		TraceConverter.convert(new ByteArrayInputStream(trace.toByteArray()), json);
+		String s = json.toString();
+		assertTrue(s.startsWith("{\"displayTimeUnit\":\"ns\",\"traceEvents\":["));
+		assertTrue(s.contains("\"name\":\"go\""));
+		assertTrue(s.contains("\"ph\":\"B\""));
+		assertTrue(s.contains("\"name\":\"send\""));
+		assertTrue(s.contains("\"name\":\"receive\""));
+		assertTrue(s.contains("\"name\":\"close\""));
+		assertTrue(s.contains("\"name\":\"select\""));
+		assertTrue(s.trim().endsWith("]}"));
+	}
+
+	@Test
+	public void Test_RingOverwritesOldestEvents() throws Exception {
+		Tracer.start(4);
+		try {
+			Channel<Integer> ch = Channel.make(100);
+			for (int i = 0; i < 100; i++) {
+				ch.send(i);
+			}
+		} finally {
+			Tracer.stop();
+		}
+		ByteArrayOutputStream trace = new ByteArrayOutputStream();
+		Tracer.flush(trace);
+		StringWriter json = new StringWriter();
+		TraceConverter.convert(new ByteArrayInputStream(trace.toByteArray()), json);
+		long sends = json.toString().lines().filter(l -> l.contains("\"name\":\"send\"")).count();
+		assertTrue(sends > 0 && sends <= 4);
+	}
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+import io.javago.Channel;
+import io.javago.Task;
+import io.javago.actor.Actor;
+import io.javago.actor.ActorSystem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.javago.Go.go;
+
+/**
+ * Measures sending a batch of messages to a consumer that counts them, comparing an {@link Actor} with the
+ * hand-built actor of a goroutine looping over a {@link Channel}.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=benchmarks.ActorBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActorBenchmark {
+
+	private static final int MESSAGES = 10_000;
+
+	private ActorSystem system;
+
+	@Setup(Level.Trial)
+	public void start() {
+		system = new ActorSystem();
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		system.close();
+	}
+
+	@Benchmark
+	public long actor() {
+		long[] count = new long[1];
+		Actor<Integer> actor = system.spawn((self, message) -> count[0] += message);
+		for (int i = 0; i < MESSAGES; i++) {
+			actor.send(1);
+		}
+		actor.close();
+		actor.awaitTermination();
+		return count[0];
+	}
+
+	@Benchmark
+	public long goroutineOverChannel() {
+		Channel<Integer> mailbox = Channel.make(1024);
+		Task<Long> consumer = go(() -> {
+			long count = 0;
+			for (int message : mailbox) {
+				count += message;
+			}
+			return count;
+		});
+		for (int i = 0; i < MESSAGES; i++) {
+			mailbox.send(1);
+		}
+		mailbox.close();
+		return consumer.join();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ActorBenchmark.class.getSimpleName()).build()).run();
+	}
+}
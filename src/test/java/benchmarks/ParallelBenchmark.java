@@ -0,0 +1,65 @@
+package benchmarks;
+
+import io.javago.Parallel;
+import io.javago.sync.WaitGroup;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.javago.Go.go;
+
+/**
+ * Measures a CPU-bound loop over an array, comparing {@link Parallel#range} with spawning a goroutine per element and
+ * waiting for them with a {@link WaitGroup}.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=benchmarks.ParallelBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelBenchmark {
+
+	@Param({"10000"})
+	public int size;
+
+	private double[] values;
+
+	@Setup(Level.Trial)
+	public void fill() {
+		values = new double[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = i;
+		}
+	}
+
+	@Benchmark
+	public double[] parallelRange() {
+		Parallel.range(0, size, 0, i -> values[i] = Math.sqrt(values[i] + 1));
+		return values;
+	}
+
+	@Benchmark
+	public double[] goroutinePerElement() {
+		WaitGroup wg = new WaitGroup();
+		wg.add(size);
+		for (int i = 0; i < size; i++) {
+			int index = i;
+			go(() -> {
+				try (wg) {
+					values[index] = Math.sqrt(values[index] + 1);
+				}
+			});
+		}
+		wg.await();
+		return values;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ParallelBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+import io.javago.Channel;
+import io.javago.Task;
+import io.javago.sync.WaitGroup;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.javago.Go.go;
+
+/**
+ * Measures scattering small computations over goroutines and gathering their results, comparing a {@link Task} per
+ * computation with the hand-wired pattern of a {@link Channel} and a {@link WaitGroup}.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=benchmarks.ScatterGatherBenchmark},
+ * with the {@code gc} profiler to compare the allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScatterGatherBenchmark {
+
+	private static final int TASKS = 1000;
+
+	@Benchmark
+	@SuppressWarnings("unchecked")
+	public long tasks() {
+		Task<Long>[] tasks = (Task<Long>[]) new Task<?>[TASKS];
+		for (int i = 0; i < TASKS; i++) {
+			long n = i;
+			tasks[i] = go(() -> n * n);
+		}
+		long sum = 0;
+		for (Task<Long> task : tasks) {
+			sum += task.join();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long channelAndWaitGroup() {
+		Channel<Long> results = Channel.make(TASKS);
+		WaitGroup wg = new WaitGroup();
+		wg.add(TASKS);
+		for (int i = 0; i < TASKS; i++) {
+			long n = i;
+			go(() -> {
+				try (wg) {
+					results.send(n * n);
+				}
+			});
+		}
+		wg.await();
+		results.close();
+		long sum = 0;
+		for (long result : results) {
+			sum += result;
+		}
+		return sum;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+			.include(ScatterGatherBenchmark.class.getSimpleName())
+			.addProfiler("gc")
+			.build()
+		).run();
+	}
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import io.javago.Channel;
+import io.javago.Selector;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.javago.Selector.select;
+
+/**
+ * Measures the share of selections each case of a {@link Selector} receives when every case is always
+ * ready.
+ * A fair selector reports roughly equal {@code case0}, {@code case1} and {@code case2} counts, while a biased selector
+ * reports every selection under {@code case0}.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=benchmarks.SelectorFairnessBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SelectorFairnessBenchmark {
+
+	@Param({"false", "true"})
+	public boolean biased;
+
+	private final Channel<Integer> ch0 = Channel.make();
+	private final Channel<Integer> ch1 = Channel.make();
+	private final Channel<Integer> ch2 = Channel.make();
+
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Share {
+		public long case0;
+		public long case1;
+		public long case2;
+	}
+
+	@Setup(Level.Invocation)
+	public void fill() {
+		refill(ch0);
+		refill(ch1);
+		refill(ch2);
+	}
+
+	@Benchmark
+	public void select3Ready(Share share) {
+		Selector selector = biased ? select().biased() : select();
+		selector
+			.addCase(ch0, m -> share.case0++)
+			.addCase(ch1, m -> share.case1++)
+			.addCase(ch2, m -> share.case2++)
+			.run();
+	}
+
+	private static void refill(Channel<Integer> ch) {
+		if (ch.isEmpty()) {
+			ch.send(0);
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(SelectorFairnessBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,55 @@
+package benchmarks;
+
+import io.javago.Channel;
+import io.javago.ShardedChannel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of a work queue shared by every benchmark thread, where each thread sends a message and
+ * then receives one, comparing a {@link ShardedChannel} with a single {@code BufferedQueueChannel}.
+ * The benchmark is run with 1, 2, 4 and as many threads as there are available processors, so that the scaling of
+ * both channels with the amount of threads can be compared.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=benchmarks.ShardedChannelBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShardedChannelBenchmark {
+
+	@Param({"buffered", "sharded"})
+	public String channel;
+
+	private Channel<Integer> queue;
+
+	@Setup(Level.Trial)
+	public void make() {
+		queue = channel.equals("sharded") ? new ShardedChannel<>(1024) : Channel.make(1024);
+	}
+
+	@Benchmark
+	public Integer sendThenReceive() {
+		queue.send(1);
+		return queue.receive();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		int cores = Runtime.getRuntime().availableProcessors();
+		for (int threads : new TreeSet<>(List.of(1, 2, 4, cores))) {
+			new Runner(new OptionsBuilder()
+				.include(ShardedChannelBenchmark.class.getSimpleName())
+				.threads(threads)
+				.build()
+			).run();
+		}
+	}
+}
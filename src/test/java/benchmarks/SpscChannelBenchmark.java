@@ -0,0 +1,55 @@
+package benchmarks;
+
+import io.javago.Channel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost per message of a hop through a channel created by {@link Channel#makeSpsc(int)} and through one
+ * created by {@link Channel#make(int)}.
+ * Each invocation sends a batch of messages and then receives them on the same thread, so that the cost of the
+ * channel itself is measured without the noise of scheduling a second thread.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=benchmarks.SpscChannelBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SpscChannelBenchmark {
+
+	private static final int BATCH = 64;
+
+	@Param({"buffered", "spsc"})
+	public String channel;
+
+	private Channel<Integer> hop;
+
+	@Setup(Level.Trial)
+	public void make() {
+		hop = channel.equals("spsc") ? Channel.makeSpsc(BATCH) : Channel.make(BATCH);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int hop() {
+		Integer message = 1;
+		for (int i = 0; i < BATCH; i++) {
+			hop.send(message);
+		}
+		int sum = 0;
+		for (int i = 0; i < BATCH; i++) {
+			sum += hop.receive();
+		}
+		return sum;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(SpscChannelBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,66 @@
+package benchmarks;
+
+import io.javago.Channel;
+import io.javago.WaitStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the round-trip latency of a message sent to a platform thread that echoes it back, for each
+ * {@link WaitStrategy}.
+ * Each round trip wakes up both threads once, so the difference between the strategies is the wake-up latency saved
+ * by spinning instead of blocking.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=benchmarks.WaitStrategyBenchmark}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WaitStrategyBenchmark {
+
+	@Param({"blocking", "adaptive", "busySpin"})
+	public String strategy;
+
+	private Channel<Integer> ping;
+	private Channel<Integer> pong;
+
+	@Setup(Level.Trial)
+	public void start() {
+		ping = Channel.make(1, strategy());
+		pong = Channel.make(1, strategy());
+		Thread.ofPlatform().daemon().start(() -> {
+			for (Integer message : ping) {
+				pong.send(message);
+			}
+		});
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		ping.close();
+	}
+
+	@Benchmark
+	public Integer roundTrip() {
+		ping.send(1);
+		return pong.receive();
+	}
+
+	private WaitStrategy strategy() {
+		return switch (strategy) {
+			case "adaptive" -> WaitStrategy.adaptive();
+			case "busySpin" -> WaitStrategy.busySpin();
+			default -> WaitStrategy.blocking();
+		};
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(WaitStrategyBenchmark.class.getSimpleName()).build()).run();
+	}
+}